@@ -1,42 +1,90 @@
 /**
- * Abstract Data Access Object (DAO) providing generic CRUD operations using Reflection.
- * This class dynamically generates SQL queries and maps ResultSet data to objects of type T.
+ * Abstract Data Access Object (DAO) providing generic CRUD operations.
+ * SQL is generated once per DAO from the EntityMapping of type T, which is either generated at compile
+ * time by MappingProcessor (for models annotated with @GenerateMapping) or resolved through reflection.
+ * Queries name the mapped columns explicitly and rows are read by position, never with SELECT *.
  * @param <T> The type of the model object this DAO handles.
  */
 package org.example.a3.dao;
 
-import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.*;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.mapping.EntityMapping;
+import org.example.a3.dao.mapping.EntityMappings;
+import org.example.a3.dao.mapping.RecordMapper;
 
 public abstract class AbstractDAO<T> {
     protected static final Logger LOGGER = Logger.getLogger(AbstractDAO.class.getName());
 
+    private static final int MAX_SNAPSHOTS = 10_000;
+    private static final int KEY_FETCH_SIZE = 10_000;
+
     private final Class<T> type;
+    private final EntityMapping<T> mapping;
     private final String tableName;
+    private final String[] columns;
+    private final int versionColumn;
+    private final String selectList;
+    private final String selectByIdQuery;
+    private final String lockByIdQuery;
+    private final String selectByIdsQuery;
+    private final String selectAllQuery;
+    private final String insertQuery;
+    private final String deleteQuery;
+
+    /** Column values of each row as last read from or written to the database, keyed by id. */
+    private final Map<Integer, Object[]> snapshots = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+                    return size() > MAX_SNAPSHOTS;
+                }
+            });
+
+    /** UPDATE statements keyed by the bit mask of the columns they set. */
+    private final Map<Long, String> updateQueries = new ConcurrentHashMap<>();
+
+    /** SELECT statements keyed by the projection record class they fill. */
+    private final Map<Class<?>, String> projectionQueries = new ConcurrentHashMap<>();
 
     /**
-     * Constructs an AbstractDAO.
-     * Determines the generic type T and sets the corresponding table name.
-     * Handles special casing for "order" table name.
+     * Constructs an AbstractDAO for the given model class.
+     * Resolves the shared mapping for the type and prepares the fixed SQL statements.
+     * @param type The model class handled by this DAO.
+     * @throws IllegalArgumentException if the type maps more than 64 columns, which the changed-column masks cannot hold.
      */
-    @SuppressWarnings("unchecked")
-    public AbstractDAO() {
-        this.type = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
-        String name = type.getSimpleName().toLowerCase();
-
-        if (name.equals("order")) {
-            this.tableName = "\"" + name + "\"";
-        } else {
-            this.tableName = name;
+    protected AbstractDAO(Class<T> type) {
+        this.type = type;
+        this.mapping = EntityMappings.forType(type);
+        this.tableName = mapping.table();
+        this.columns = mapping.columns();
+        if (columns.length > Long.SIZE) {
+            throw new IllegalArgumentException(type.getName() + " maps " + columns.length
+                    + " columns; at most " + Long.SIZE + " are supported.");
         }
+        this.versionColumn = mapping.versionColumn();
+        this.selectList = String.join(", ", columns);
+
+        this.selectByIdQuery = createSelectQuery(columns[0]);
+        this.lockByIdQuery = selectByIdQuery + " FOR UPDATE";
+        this.selectByIdsQuery = "SELECT " + selectList + " FROM " + tableName + " WHERE " + columns[0] + " = ANY(?)";
+        this.selectAllQuery = "SELECT " + selectList + " FROM " + tableName;
+        this.insertQuery = createInsertQuery();
+        this.deleteQuery = "DELETE FROM " + tableName + " WHERE " + columns[0] + " = ?";
     }
 
     /**
@@ -45,7 +93,35 @@ public abstract class AbstractDAO<T> {
      * @return The SQL SELECT query string.
      */
     private String createSelectQuery(String field) {
-        return "SELECT * FROM " + tableName + " WHERE " + field + " = ?";
+        return "SELECT " + selectList + " FROM " + tableName + " WHERE " + field + " = ?";
+    }
+
+    /**
+     * Returns the index of the first column written by INSERT statements.
+     * A database-generated id is skipped in the INSERT statement.
+     * @return 1 if the id is generated, 0 otherwise.
+     */
+    private int firstInsertColumn() {
+        return mapping.generatedId() ? 1 : 0;
+    }
+
+    /**
+     * Creates the INSERT query string.
+     * @return The SQL INSERT query string.
+     */
+    private String createInsertQuery() {
+        StringBuilder sb = new StringBuilder("INSERT INTO " + tableName + " (");
+        for (int i = firstInsertColumn(); i < columns.length; i++) {
+            sb.append(columns[i]);
+            if (i < columns.length - 1) sb.append(", ");
+        }
+        sb.append(") VALUES (");
+        for (int i = firstInsertColumn(); i < columns.length; i++) {
+            sb.append("?");
+            if (i < columns.length - 1) sb.append(", ");
+        }
+        sb.append(")");
+        return sb.toString();
     }
 
     /**
@@ -54,8 +130,22 @@ public abstract class AbstractDAO<T> {
      * @return The found object of type T, or null if not found.
      */
     public T findById(int id) {
+        return findOne(selectByIdQuery, id, "findById");
+    }
+
+    /**
+     * Finds an object by its ID and locks its row until the current transaction ends, so that concurrent
+     * writers and lockers of the same row wait for it. Outside of a transaction the lock is released at once.
+     * @param id The ID of the object to find.
+     * @return The found object of type T, or null if not found.
+     */
+    public T findByIdForUpdate(int id) {
+        return findOne(lockByIdQuery, id, "findByIdForUpdate");
+    }
+
+    private T findOne(String query, int id, String operation) {
         try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement statement = connection.prepareStatement(createSelectQuery("id"))) {
+             PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setInt(1, id);
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -64,54 +154,154 @@ public abstract class AbstractDAO<T> {
             }
 
         } catch (SQLException e) {
-            LOGGER.log(Level.WARNING, type.getName() + "DAO:findById " + e.getMessage());
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:" + operation + " " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
         return null;
     }
 
     /**
-     * Creates a list of objects of type T from a ResultSet using reflection.
-     * It assumes a default constructor is available and uses setters to populate fields.
-     * @param resultSet The ResultSet containing data to map to objects.
-     * @return A list of objects of type T.
+     * Finds the first object whose column has the given value.
+     * @param column The name of the column to query by.
+     * @param value The value to match.
+     * @return The found object of type T, or null if not found.
      */
-    private List<T> createObjects(ResultSet resultSet) {
-        List<T> list = new ArrayList<>();
-        Constructor<?> ctor = null;
-        try {
-            ctor = type.getDeclaredConstructor();
-        } catch (NoSuchMethodException e) {
-            LOGGER.log(Level.SEVERE, "No default constructor found for type " + type.getName(), e);
-            return list;
+    protected T findFirstBy(String column, Object value) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(createSelectQuery(column) + " LIMIT 1")) {
+
+            statement.setObject(1, value);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<T> result = createObjects(resultSet);
+                return result.isEmpty() ? null : result.get(0);
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findFirstBy " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
+        return null;
+    }
 
-        try {
-            while (resultSet.next()) {
-                ctor.setAccessible(true); // Allow access to private constructors
-                T instance = (T) ctor.newInstance();
+    /**
+     * Finds several objects by their IDs with a single query, binding all ids as one int array parameter.
+     * Use this instead of calling findById in a loop.
+     * @param ids The IDs of the objects to find; duplicates are allowed.
+     * @return A map from ID to object; IDs that were not found are absent.
+     */
+    public Map<Integer, T> findByIds(int[] ids) {
+        Map<Integer, T> result = new HashMap<>();
+        if (ids.length == 0) {
+            return result;
+        }
 
-                for (Field field : type.getDeclaredFields()) {
-                    String fieldName = field.getName();
-                    Object value = resultSet.getObject(fieldName);
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
 
-                    if (value instanceof java.math.BigDecimal && (field.getType().equals(double.class) || field.getType().equals(Double.class))) {
-                        value = ((java.math.BigDecimal) value).doubleValue();
-                    }
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(selectByIdsQuery)) {
 
-                    try {
-                        PropertyDescriptor pd = new PropertyDescriptor(fieldName, type);
-                        Method setter = pd.getWriteMethod();
-                        if (setter != null) {
-                            setter.invoke(instance, value);
+            Array array = connection.createArrayOf("integer", boxed);
+            statement.setArray(1, array);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                for (T t : createObjects(resultSet)) {
+                    result.put(mapping.getId(t), t);
+                }
+            } finally {
+                array.free();
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findByIds " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return result;
+    }
+
+    /**
+     * Streams the lower-cased values of a text column to a consumer, without materializing them.
+     * Runs in a read-only transaction so the driver fetches rows through a server-side cursor; NULLs are skipped.
+     * @param column The name of the column.
+     * @param consumer Receives each distinct value.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    protected void forEachLowerCaseValue(String column, Consumer<String> consumer) {
+        String query = "SELECT DISTINCT lower(" + column + ") FROM " + tableName + " WHERE " + column + " IS NOT NULL";
+        TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                TransactionManager.Isolation.DEFAULT, true, () -> {
+                    try (Connection connection = ConnectionFactory.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(query)) {
+
+                        statement.setFetchSize(KEY_FETCH_SIZE);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                consumer.accept(resultSet.getString(1));
+                            }
                         }
-                    } catch (IntrospectionException | IllegalArgumentException | InvocationTargetException e) {
-                        LOGGER.log(Level.WARNING, "Could not set field " + fieldName + " for " + type.getName() + ": " + e.getMessage());
+
+                    } catch (SQLException e) {
+                        LOGGER.log(Level.WARNING, type.getName() + "DAO:forEachLowerCaseValue " + e.getMessage());
+                        TransactionManager.setRollbackOnly(e);
                     }
+                    return null;
+                });
+    }
+
+    /**
+     * Finds the ids of the rows whose text column matches any of the given values, ignoring case,
+     * with a single query binding all values as one text array parameter.
+     * @param column The name of the column.
+     * @param lowerCaseValues The values to look up, already lower-cased.
+     * @return A map from lower-cased value to the ids of the rows having it; values that were not found are
+     *         absent. Null if the query failed.
+     */
+    protected Map<String, List<Integer>> findIdsByLowerCaseValues(String column, Collection<String> lowerCaseValues) {
+        Map<String, List<Integer>> result = new HashMap<>();
+        if (lowerCaseValues.isEmpty()) {
+            return result;
+        }
+
+        String query = "SELECT lower(" + column + "), " + columns[0] + " FROM " + tableName
+                + " WHERE lower(" + column + ") = ANY(?)";
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            Array array = connection.createArrayOf("text", lowerCaseValues.toArray());
+            statement.setArray(1, array);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    result.computeIfAbsent(resultSet.getString(1), k -> new ArrayList<>(1)).add(resultSet.getInt(2));
                 }
+            } finally {
+                array.free();
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findIdsByLowerCaseValues " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a list of objects of type T from a ResultSet using the entity mapping.
+     * @param resultSet The ResultSet containing data to map to objects.
+     * @return A list of objects of type T.
+     */
+    private List<T> createObjects(ResultSet resultSet) {
+        List<T> list = new ArrayList<>();
+        try {
+            while (resultSet.next()) {
+                T instance = mapping.read(resultSet);
+                remember(instance);
                 list.add(instance);
             }
-        } catch (SQLException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+        } catch (SQLException | IllegalStateException e) {
             LOGGER.log(Level.SEVERE, "Error creating objects from ResultSet for " + type.getName(), e);
+            TransactionManager.setRollbackOnly(e);
         }
         return list;
     }
@@ -122,115 +312,368 @@ public abstract class AbstractDAO<T> {
      */
     public List<T> findAll() {
         List<T> list = new ArrayList<>();
-        String query = "SELECT * FROM " + tableName;
         try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query);
+             PreparedStatement statement = connection.prepareStatement(selectAllQuery);
              ResultSet resultSet = statement.executeQuery()) {
 
             list = createObjects(resultSet);
 
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, type.getName() + "DAO:findAll " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
         return list;
     }
 
+    /**
+     * Retrieves all rows of the corresponding table as projection records.
+     * Only the columns named by the record components are selected, so listings that need a few
+     * fields do not transfer or allocate full objects of type T.
+     * @param projection The record class; its component names must be mapped columns of T.
+     * @param <R> The record type.
+     * @return A list of records, one per row.
+     * @throws IllegalArgumentException if a record component does not name a mapped column.
+     */
+    public <R extends Record> List<R> findAll(Class<R> projection) {
+        RecordMapper<R> mapper = RecordMapper.of(projection);
+        String query = projectionQueries.computeIfAbsent(projection, p -> createProjectionQuery(mapper.components()));
+        List<R> list = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                list.add(mapper.read(resultSet));
+            }
+
+        } catch (SQLException | IllegalStateException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findAll(" + projection.getSimpleName() + ") " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return list;
+    }
+
+    /**
+     * Streams all rows of the corresponding table as projection records, without materializing them.
+     * Runs in a read-only transaction so the driver fetches rows through a server-side cursor.
+     * @param projection The record class; its component names must be mapped columns of T.
+     * @param consumer Receives each record.
+     * @param <R> The record type.
+     * @throws IllegalArgumentException if a record component does not name a mapped column.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public <R extends Record> void forEach(Class<R> projection, Consumer<R> consumer) {
+        RecordMapper<R> mapper = RecordMapper.of(projection);
+        String query = projectionQueries.computeIfAbsent(projection, p -> createProjectionQuery(mapper.components()));
+        TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                TransactionManager.Isolation.DEFAULT, true, () -> {
+                    try (Connection connection = ConnectionFactory.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(query)) {
+
+                        statement.setFetchSize(KEY_FETCH_SIZE);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                consumer.accept(mapper.read(resultSet));
+                            }
+                        }
+
+                    } catch (SQLException | IllegalStateException e) {
+                        LOGGER.log(Level.WARNING, type.getName() + "DAO:forEach(" + projection.getSimpleName() + ") " + e.getMessage());
+                        TransactionManager.setRollbackOnly(e);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Finds the rows where one of the given text columns, or a word of it, starts with a prefix, ignoring case.
+     * Meant as the fallback of in-memory type-ahead search, so it returns at most a few rows ordered by id.
+     * @param projection The record class; its component names must be mapped columns of T.
+     * @param lowerCasePrefix The prefix, already lower-cased.
+     * @param limit The maximum number of rows to return.
+     * @param searchColumns The text columns to search.
+     * @param <R> The record type.
+     * @return The matching rows as records; empty if the query failed.
+     * @throws IllegalArgumentException if a record component or search column is not a mapped column.
+     */
+    protected <R extends Record> List<R> findByPrefix(Class<R> projection, String lowerCasePrefix, int limit,
+                                                      String... searchColumns) {
+        RecordMapper<R> mapper = RecordMapper.of(projection);
+        StringBuilder sb = new StringBuilder(projectionQueries.computeIfAbsent(projection,
+                p -> createProjectionQuery(mapper.components())));
+        sb.append(" WHERE ");
+        for (int i = 0; i < searchColumns.length; i++) {
+            String column = columnFor(searchColumns[i]);
+            sb.append(i == 0 ? "" : " OR ").append("lower(").append(column).append(") LIKE ? OR lower(")
+                    .append(column).append(") LIKE ?");
+        }
+        sb.append(" ORDER BY ").append(columns[0]).append(" LIMIT ?");
+
+        String escaped = lowerCasePrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        List<R> list = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sb.toString())) {
+
+            int index = 1;
+            for (int i = 0; i < searchColumns.length; i++) {
+                statement.setString(index++, escaped + "%");
+                statement.setString(index++, "% " + escaped + "%");
+            }
+            statement.setInt(index, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    list.add(mapper.read(resultSet));
+                }
+            }
+
+        } catch (SQLException | IllegalStateException e) {
+            LOGGER.log(Level.WARNING, type.getName() + "DAO:findByPrefix " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return list;
+    }
+
+    /**
+     * Creates the SELECT query string for a projection.
+     * @param components The record component names, in constructor order.
+     * @return The SQL SELECT query string.
+     * @throws IllegalArgumentException if a component does not name a mapped column.
+     */
+    private String createProjectionQuery(String[] components) {
+        StringBuilder sb = new StringBuilder("SELECT ");
+        for (int i = 0; i < components.length; i++) {
+            sb.append(i == 0 ? "" : ", ").append(columnFor(components[i]));
+        }
+        return sb.append(" FROM ").append(tableName).toString();
+    }
+
+    /**
+     * Returns the mapped column matching a projection component name.
+     * @param component The record component name.
+     * @return The column name.
+     * @throws IllegalArgumentException if no mapped column has that name.
+     */
+    private String columnFor(String component) {
+        for (String column : columns) {
+            if (column.equalsIgnoreCase(component)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("No column " + component + " in " + tableName);
+    }
+
     /**
      * Inserts an object of type T into the database.
-     * Dynamically generates the INSERT query based on object fields.
-     * Assumes the first field is 'id' and is auto-generated by the DB, so it's skipped in the INSERT statement.
+     * A database-generated id is read back from the generated keys and written into the object.
      * @param t The object to insert.
      * @return The inserted object.
      */
     public T insert(T t) {
-        Field[] fields = type.getDeclaredFields();
-        StringBuilder sb = new StringBuilder("INSERT INTO " + tableName + " (");
-        for (int i = 1; i < fields.length; i++) {
-            sb.append(fields[i].getName());
-            if (i < fields.length - 1) sb.append(", ");
-        }
-        sb.append(") VALUES (");
-        for (int i = 1; i < fields.length; i++) {
-            sb.append("?");
-            if (i < fields.length - 1) sb.append(", ");
-        }
-        sb.append(")");
-
+        int first = firstInsertColumn();
         try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sb.toString(), Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
 
-            for (int i = 1; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                ps.setObject(i, fields[i].get(t));
+            for (int i = first; i < columns.length; i++) {
+                mapping.bind(ps, i - first + 1, t, i);
             }
 
             ps.executeUpdate();
 
-            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    int id = generatedKeys.getInt(1);
-                    try {
-                        Field idField = type.getDeclaredField("id");
-                        idField.setAccessible(true);
-                        idField.set(t, id);
-                    } catch (NoSuchFieldException | IllegalAccessException e) {
-                        LOGGER.log(Level.WARNING, "Could not set auto-generated ID for " + type.getName(), e);
+            if (first == 1) {
+                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        mapping.setId(t, generatedKeys.getInt(columns[0]));
                     }
                 }
             }
-        } catch (SQLException | IllegalAccessException e) {
+            remember(t);
+        } catch (SQLException | IllegalStateException e) {
             LOGGER.log(Level.WARNING, "Insert failed for " + type.getName() + ": " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
         return t;
     }
 
+    /**
+     * Inserts several objects with one batched statement.
+     * Database-generated ids are written back into the objects when the driver returns them.
+     * Unlike insert, no snapshots are kept, so bulk loads do not fill the dirty-tracking cache.
+     * @param items The objects to insert.
+     * @return The number of inserted rows, or 0 if the batch failed.
+     */
+    public int insertAll(List<T> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        int first = firstInsertColumn();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement ps = connection.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
+
+            for (T t : items) {
+                for (int i = first; i < columns.length; i++) {
+                    mapping.bind(ps, i - first + 1, t, i);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            if (first == 1) {
+                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                    for (int i = 0; i < items.size() && generatedKeys.next(); i++) {
+                        mapping.setId(items.get(i), generatedKeys.getInt(columns[0]));
+                    }
+                }
+            }
+            return items.size();
+        } catch (SQLException | IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Batch insert failed for " + type.getName() + ": " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return 0;
+    }
+
     /**
      * Updates an existing object of type T in the database.
-     * Dynamically generates the UPDATE query based on object fields.
-     * Assumes the first field is 'id' and is used for the WHERE clause.
+     * Only the columns whose values differ from the last known database state of the row are written;
+     * if nothing changed, no statement is executed at all. Without a usable snapshot (the row was never
+     * loaded by this DAO, or was loaded at a different version) every column is written.
+     * The id column is used for the WHERE clause.
+     * If the model is versioned, the UPDATE also requires the row to still have the
+     * loaded version, writes version + 1, and stores the new version back into the object.
+     * Inside a transaction, the new version and the snapshot are only recorded once it commits, so a rolled-back
+     * update leaves the object at the version still in the database; a rollback also drops the snapshot.
      * @param t The object to update.
      * @return The updated object.
+     * @throws OptimisticLockException if the model is versioned and the row was changed or deleted since it was loaded.
      */
     public T update(T t) {
-        Field[] fields = type.getDeclaredFields();
-        StringBuilder sb = new StringBuilder("UPDATE " + tableName + " SET ");
-        for (int i = 1; i < fields.length; i++) {
-            sb.append(fields[i].getName()).append("=?");
-            if (i < fields.length - 1) sb.append(", ");
-        }
-        sb.append(" WHERE id=?");
-
-        try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sb.toString())) {
+        int id = 0;
+        int expectedVersion = 0;
+        int updatedRows = -1;
+        try {
+            Object[] values = mapping.values(t);
+            id = (Integer) values[0];
+            if (versionColumn >= 0) {
+                expectedVersion = (Integer) values[versionColumn];
+            }
 
-            for (int i = 1; i < fields.length; i++) {
-                fields[i].setAccessible(true);
-                ps.setObject(i, fields[i].get(t));
+            long changed = changedColumns(values, snapshots.get(id));
+            if (changed == 0) {
+                return t;
             }
+            String query = updateQueries.computeIfAbsent(changed, this::createUpdateQuery);
 
-            fields[0].setAccessible(true);
-            ps.setObject(fields.length, fields[0].get(t));
+            try (Connection connection = ConnectionFactory.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(query)) {
 
-            ps.executeUpdate();
-        } catch (SQLException | IllegalAccessException e) {
+                int index = 1;
+                for (int i = 1; i < columns.length; i++) {
+                    if ((changed & (1L << i)) != 0) {
+                        mapping.bind(ps, index++, t, i);
+                    }
+                }
+                if (versionColumn >= 0) {
+                    ps.setInt(index++, expectedVersion + 1);
+                }
+                ps.setInt(index++, id);
+                if (versionColumn >= 0) {
+                    ps.setInt(index, expectedVersion);
+                }
+
+                updatedRows = ps.executeUpdate();
+            }
+
+            if (updatedRows > 0) {
+                int rowId = id;
+                int newVersion = expectedVersion + 1;
+                TransactionManager.afterRollback(() -> snapshots.remove(rowId));
+                TransactionManager.afterCommit(() -> {
+                    if (versionColumn >= 0) {
+                        mapping.setVersion(t, newVersion);
+                        values[versionColumn] = newVersion;
+                    }
+                    snapshots.put(rowId, values);
+                });
+            }
+        } catch (SQLException | IllegalStateException e) {
             LOGGER.log(Level.WARNING, "Update failed for " + type.getName() + ": " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+            snapshots.remove(id);
+        }
+
+        if (versionColumn >= 0 && updatedRows == 0) {
+            snapshots.remove(id);
+            throw new OptimisticLockException(type.getSimpleName(), id, expectedVersion);
         }
         return t;
     }
 
+    /**
+     * Computes which columns of an object differ from its snapshot.
+     * Bit i of the result stands for column i; the id (bit 0) and the version column are never included
+     * because they are always part of the WHERE and SET clauses respectively.
+     * @param values The current column values of the object.
+     * @param snapshot The last known database values of the row, or null.
+     * @return The bit mask of changed columns; all columns if the snapshot is missing or from another version.
+     */
+    private long changedColumns(Object[] values, Object[] snapshot) {
+        boolean usable = snapshot != null
+                && (versionColumn < 0 || Objects.equals(values[versionColumn], snapshot[versionColumn]));
+        long changed = 0;
+        for (int i = 1; i < columns.length; i++) {
+            if (i != versionColumn && (!usable || !Objects.equals(values[i], snapshot[i]))) {
+                changed |= 1L << i;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Builds the UPDATE statement for one set of changed columns.
+     * Statements are cached per mask so that the driver sees the same SQL text for the same change set.
+     * @param changed The bit mask of changed columns.
+     * @return The SQL UPDATE query string.
+     */
+    private String createUpdateQuery(long changed) {
+        StringBuilder sb = new StringBuilder("UPDATE " + tableName + " SET ");
+        String separator = "";
+        for (int i = 1; i < columns.length; i++) {
+            if ((changed & (1L << i)) != 0) {
+                sb.append(separator).append(columns[i]).append("=?");
+                separator = ", ";
+            }
+        }
+        if (versionColumn >= 0) {
+            sb.append(separator).append(columns[versionColumn]).append("=?");
+        }
+        sb.append(" WHERE ").append(columns[0]).append("=?");
+        if (versionColumn >= 0) {
+            sb.append(" AND ").append(columns[versionColumn]).append("=?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Records the current column values of an object as the last known database state of its row.
+     * @param t The object that was just loaded or written.
+     */
+    private void remember(T t) {
+        snapshots.put(mapping.getId(t), mapping.values(t));
+    }
+
     /**
      * Deletes an object of type T from the database by its ID.
-     * Dynamically generates the DELETE query.
      * @param id The ID of the object to delete.
      */
     public void deleteById(int id) {
-        String query = "DELETE FROM " + tableName + " WHERE id = ?";
         try (Connection connection = ConnectionFactory.getConnection();
-             PreparedStatement ps = connection.prepareStatement(query)) {
+             PreparedStatement ps = connection.prepareStatement(deleteQuery)) {
             ps.setInt(1, id);
             ps.executeUpdate();
+            snapshots.remove(id);
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Delete failed for " + type.getName() + ": " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,260 @@
+/**
+ * One HTTP request being answered by the API, with helpers to read its path parameters, query parameters and
+ * JSON body and to write a JSON response.
+ * Single responses are built in memory and sent with a Content-Length; list responses are streamed with chunked
+ * transfer encoding as they are produced. Each worker thread keeps one JsonOutput, whose buffer is reused for
+ * every response it writes.
+ */
+package org.example.a3.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.example.a3.BusinessLogic.importer.LineParsers;
+import org.example.a3.Model.json.JsonCodec;
+import org.example.a3.Model.json.JsonInput;
+import org.example.a3.Model.json.JsonOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ApiExchange {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final ThreadLocal<JsonOutput> OUTPUT = ThreadLocal.withInitial(JsonOutput::new);
+
+    /**
+     * Writes the content of a response.
+     */
+    @FunctionalInterface
+    public interface Body {
+        /**
+         * Writes the response content.
+         * @param json The output to write to.
+         * @throws IOException if writing failed.
+         */
+        void write(JsonOutput json) throws IOException;
+    }
+
+    private final HttpExchange exchange;
+    private final String[] pathParameters;
+    private Map<String, String> query;
+    private int status;
+    private boolean aborted;
+
+    /**
+     * Constructs an ApiExchange.
+     * @param exchange The underlying exchange.
+     * @param pathParameters The values of the route's path parameters, in order.
+     */
+    ApiExchange(HttpExchange exchange, String[] pathParameters) {
+        this.exchange = exchange;
+        this.pathParameters = pathParameters;
+    }
+
+    /**
+     * Returns a path parameter as an int.
+     * @param index The position of the parameter in the route.
+     * @return The value.
+     * @throws IllegalArgumentException if the parameter is not a number.
+     */
+    public int pathInt(int index) {
+        return parseInt("path parameter", pathParameters[index]);
+    }
+
+    /**
+     * Returns a path parameter as a long.
+     * @param index The position of the parameter in the route.
+     * @return The value.
+     * @throws IllegalArgumentException if the parameter is not a number.
+     */
+    public long pathLong(int index) {
+        String value = pathParameters[index];
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The path parameter '" + value + "' is not a number.");
+        }
+    }
+
+    /**
+     * Returns a query parameter.
+     * @param name The name of the parameter.
+     * @return The decoded value, or null if absent.
+     */
+    public String query(String name) {
+        if (query == null) {
+            query = new HashMap<>();
+            String raw = exchange.getRequestURI().getRawQuery();
+            if (raw != null) {
+                for (String pair : raw.split("&")) {
+                    int eq = pair.indexOf('=');
+                    String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                    String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                    query.putIfAbsent(key, value);
+                }
+            }
+        }
+        return query.get(name);
+    }
+
+    /**
+     * Returns a query parameter as an int.
+     * @param name The name of the parameter.
+     * @param defaultValue The value returned if the parameter is absent.
+     * @return The value.
+     * @throws IllegalArgumentException if the parameter is not a number.
+     */
+    public int queryInt(String name, int defaultValue) {
+        String value = query(name);
+        return value == null || value.isEmpty() ? defaultValue : parseInt(name, value);
+    }
+
+    /**
+     * Returns a request header.
+     * @param name The name of the header.
+     * @return The first value of the header, or null if absent.
+     */
+    public String header(String name) {
+        return exchange.getRequestHeaders().getFirst(name);
+    }
+
+    /**
+     * Reads the request body as a flat JSON object.
+     * @return The values by key; numbers and booleans as their literal text.
+     * @throws IOException if reading failed.
+     * @throws IllegalArgumentException if the body is too large or not a flat JSON object.
+     */
+    public Map<String, String> jsonBody() throws IOException {
+        return LineParsers.parseJsonObject(readBody().toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the request body as one object of a model type.
+     * @param codec The codec of the type.
+     * @param <T> The type of the object.
+     * @return The object; members absent from the body keep the codec's defaults.
+     * @throws IOException if reading failed.
+     * @throws IllegalArgumentException if the body is too large or not valid JSON of the expected shape.
+     */
+    public <T> T body(JsonCodec<T> codec) throws IOException {
+        return codec.read(new JsonInput(readBody().toByteArray()));
+    }
+
+    /**
+     * Sends a JSON response built in memory.
+     * @param status The HTTP status.
+     * @param body Writes the response content.
+     * @throws IOException if writing failed.
+     */
+    public void respond(int status, Body body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        JsonOutput json = OUTPUT.get().reset(buffer);
+        body.write(json);
+        json.flush();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        begin(status, buffer.size());
+        exchange.getResponseBody().write(buffer.toByteArray());
+    }
+
+    /**
+     * Sends a 200 JSON response streamed while it is written, for lists of any length.
+     * The status is only sent with the first full buffer, so a body failing early (e.g. because its query
+     * failed) can still be answered with an error. If it fails later, the exchange is marked aborted and the
+     * server drops the connection without the final chunk, so the client sees a broken chunked stream
+     * instead of a complete response with truncated JSON.
+     * @param body Writes the response content.
+     * @throws IOException if writing failed.
+     */
+    public void stream(Body body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        JsonOutput json = OUTPUT.get().reset(new FilterOutputStream(exchange.getResponseBody()) {
+            @Override
+            public void write(int b) throws IOException {
+                started();
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                started();
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                started();
+                out.flush();
+            }
+
+            private void started() throws IOException {
+                if (status == 0) {
+                    begin(200, 0);
+                }
+            }
+        });
+        try {
+            body.write(json);
+        } catch (IOException | RuntimeException e) {
+            aborted = status != 0;
+            throw e;
+        }
+        json.flush(); // not reached on failure, so nothing buffered is sent
+    }
+
+    /**
+     * Sends a response without content.
+     * @param status The HTTP status.
+     * @throws IOException if writing failed.
+     */
+    public void respondEmpty(int status) throws IOException {
+        begin(status, -1);
+    }
+
+    /**
+     * Returns true if a streamed response failed after it had started, so it must be cut off instead of completed.
+     * @return Whether the response was aborted.
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Returns the status sent, or 0 if no response has been started yet.
+     * @return The HTTP status.
+     */
+    public int status() {
+        return status;
+    }
+
+    private void begin(int status, long length) throws IOException {
+        this.status = status;
+        exchange.sendResponseHeaders(status, length);
+    }
+
+    private ByteArrayOutputStream readBody() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (body.size() + n > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("The request body is larger than " + MAX_BODY_BYTES + " bytes.");
+                }
+                body.write(buffer, 0, n);
+            }
+        }
+        return body;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The " + name + " '" + value + "' is not a number.");
+        }
+    }
+}
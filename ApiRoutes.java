@@ -0,0 +1,298 @@
+/**
+ * The routes of the HTTP API, each a thin translation between JSON and a BLL call.
+ * Lists of all clients and products are streamed from the shared in-memory reference data, and the order list
+ * from a database cursor, so no list is materialized for a response. Search and paging parameters use the same
+ * BLL methods as the windows. Models are written with their ModelCodecs. Creates and updates copy only the
+ * editable fields of a request body, so a body cannot choose the id or version of a row.
+ * Reservations hold stock during checkout: POST /reservations creates one, and
+ * POST /reservations/{id}/confirm and /release end it, and GET /products/{id}/available reports the stock
+ * not held by any reservation.
+ */
+package org.example.a3.server;
+
+import org.example.a3.BusinessLogic.ApplicationContext;
+import org.example.a3.BusinessLogic.ClientBLL;
+import org.example.a3.BusinessLogic.OrderBLL;
+import org.example.a3.BusinessLogic.ProductBLL;
+import org.example.a3.BusinessLogic.inventory.Reservation;
+import org.example.a3.Model.Client;
+import org.example.a3.Model.ClientListItem;
+import org.example.a3.Model.ClientOrderSummary;
+import org.example.a3.Model.Order;
+import org.example.a3.Model.OrderDetail;
+import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductListItem;
+import org.example.a3.Model.json.ModelCodecs;
+import org.example.a3.connection.TransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+final class ApiRoutes {
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_LIMIT = 1_000;
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ApiRoutes() {}
+
+    /**
+     * Registers all routes on a server.
+     * @param server The server.
+     * @param context The context providing the BLLs.
+     */
+    static void register(ApiServer server, ApplicationContext context) {
+        ClientBLL clientBLL = context.clientBLL();
+        ProductBLL productBLL = context.productBLL();
+        OrderBLL orderBLL = context.orderBLL();
+
+        server.route("GET", "/health", exchange -> exchange.respond(200,
+                json -> json.beginObject().name("status").value("ok").endObject()));
+
+        server.route("GET", "/clients", exchange -> {
+            String q = exchange.query("q");
+            if (q != null) {
+                List<ClientListItem> found = clientBLL.searchClients(q, limit(exchange, DEFAULT_SEARCH_LIMIT));
+                exchange.respond(200, json -> ModelCodecs.CLIENT_LIST_ITEM.writeArray(found, json));
+                return;
+            }
+            List<Client> all = clientBLL.getClientData().getAll();
+            exchange.stream(json -> ModelCodecs.CLIENT.writeArray(all, json));
+        });
+        server.route("GET", "/clients/{id}", exchange -> {
+            Client c = clientBLL.findClientById(exchange.pathInt(0));
+            exchange.respond(200, json -> ModelCodecs.CLIENT.write(c, json));
+        });
+        server.route("GET", "/clients/{id}/summary", exchange -> {
+            ClientOrderSummary s = clientBLL.findClientSummary(exchange.pathInt(0));
+            exchange.respond(200, json -> ModelCodecs.CLIENT_ORDER_SUMMARY.write(s, json));
+        });
+        server.route("POST", "/clients", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            Client c = new Client(); // the id and version are assigned by the database, never by the body
+            c.setName(requiredString(body, "name"));
+            applyClient(body, c);
+            Client inserted = clientBLL.insertClient(c);
+            exchange.respond(201, json -> ModelCodecs.CLIENT.write(inserted, json));
+        });
+        server.route("PUT", "/clients/{id}", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            Client updated = clientBLL.updateClient(exchange.pathInt(0), c -> applyClient(body, c));
+            exchange.respond(200, json -> ModelCodecs.CLIENT.write(updated, json));
+        });
+        server.route("DELETE", "/clients/{id}", exchange -> {
+            clientBLL.deleteClient(exchange.pathInt(0));
+            exchange.respondEmpty(204);
+        });
+
+        server.route("GET", "/products", exchange -> {
+            String q = exchange.query("q");
+            if (q != null) {
+                List<ProductListItem> found = productBLL.searchProducts(q, limit(exchange, DEFAULT_SEARCH_LIMIT));
+                exchange.respond(200, json -> ModelCodecs.PRODUCT_LIST_ITEM.writeArray(found, json));
+                return;
+            }
+            List<Product> all = productBLL.getProductData().getAll();
+            exchange.stream(json -> ModelCodecs.PRODUCT.writeArray(all, json));
+        });
+        server.route("GET", "/products/{id}", exchange -> {
+            Product p = productBLL.findProductById(exchange.pathInt(0));
+            exchange.respond(200, json -> ModelCodecs.PRODUCT.write(p, json));
+        });
+        server.route("POST", "/products", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            Product p = new Product(); // the id and version are assigned by the database, never by the body
+            p.setName(requiredString(body, "name"));
+            applyProduct(body, p);
+            Product inserted = productBLL.insertProduct(p);
+            exchange.respond(201, json -> ModelCodecs.PRODUCT.write(inserted, json));
+        });
+        server.route("PUT", "/products/{id}", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            Product updated = productBLL.updateProduct(exchange.pathInt(0), p -> applyProduct(body, p));
+            exchange.respond(200, json -> ModelCodecs.PRODUCT.write(updated, json));
+        });
+        server.route("GET", "/products/{id}/available", exchange -> {
+            int productId = exchange.pathInt(0);
+            int available = orderBLL.availableStock(productId);
+            exchange.respond(200, json -> json.beginObject().name("productId").value(productId)
+                    .name("available").value(available).endObject());
+        });
+        server.route("DELETE", "/products/{id}", exchange -> {
+            productBLL.deleteProduct(exchange.pathInt(0));
+            exchange.respondEmpty(204);
+        });
+
+        server.route("GET", "/orders", exchange -> {
+            if (exchange.query("limit") != null) {
+                List<OrderDetail> page = orderBLL.findOrderDetails(exchange.queryInt("after", 0),
+                        limit(exchange, MAX_LIMIT));
+                exchange.respond(200, json -> ModelCodecs.ORDER_DETAIL.writeArray(page, json));
+                return;
+            }
+            exchange.stream(json -> {
+                json.beginArray();
+                try {
+                    orderBLL.forEachOrderDetail(d -> {
+                        try {
+                            ModelCodecs.ORDER_DETAIL.write(d, json);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                json.endArray();
+            });
+        });
+        server.route("POST", "/orders", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            Order o = new Order(0, requiredInt(body, "clientId"), requiredInt(body, "productId"),
+                    requiredInt(body, "quantity"));
+            String key = body.containsKey("clientOrderId") ? body.get("clientOrderId") : exchange.header("Idempotency-Key");
+            if (key != null) {
+                o.setClientOrderId(UUID.fromString(key));
+            }
+            Order stored;
+            try {
+                stored = orderBLL.insertOrderOnce(o);
+            } catch (TransactionException e) {
+                if (FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) { // the product was found, so it is the client
+                    throw new NoSuchElementException("The client with id = " + o.getClientId() + " was not found!");
+                }
+                throw e;
+            }
+            int status = stored == o ? 201 : 200; // a resubmission answers with the order stored the first time
+            exchange.respond(status, json -> ModelCodecs.ORDER.write(stored, json));
+        });
+
+        server.route("POST", "/reservations", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            int ttlSeconds = requiredInt(body, "ttlSeconds");
+            Reservation r = orderBLL.reserveStock(requiredInt(body, "productId"), requiredInt(body, "quantity"),
+                    Duration.ofSeconds(ttlSeconds));
+            exchange.respond(201, json -> json.beginObject()
+                    .name("id").value(r.id())
+                    .name("productId").value(r.productId())
+                    .name("quantity").value(r.quantity())
+                    .name("expiresAt").value(r.expiresAt().toString())
+                    .endObject());
+        });
+        server.route("POST", "/reservations/{id}/confirm", exchange -> {
+            Map<String, String> body = exchange.jsonBody();
+            int clientId = requiredInt(body, "clientId");
+            Order stored;
+            try {
+                stored = orderBLL.confirmReservation(exchange.pathLong(0), clientId);
+            } catch (TransactionException e) {
+                if (FOREIGN_KEY_VIOLATION.equals(e.getSQLState())) {
+                    throw new NoSuchElementException("The client with id = " + clientId + " was not found!");
+                }
+                throw e;
+            }
+            exchange.respond(201, json -> ModelCodecs.ORDER.write(stored, json));
+        });
+        server.route("POST", "/reservations/{id}/release", exchange -> {
+            long reservationId = exchange.pathLong(0);
+            if (!orderBLL.releaseReservation(reservationId)) {
+                throw new NoSuchElementException("Reservation " + reservationId + " is no longer active.");
+            }
+            exchange.respondEmpty(204);
+        });
+    }
+
+    private static int limit(ApiExchange exchange, int defaultLimit) {
+        int limit = exchange.queryInt("limit", defaultLimit);
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+
+    /**
+     * Copies the client fields present in a request body; absent fields keep their value.
+     */
+    private static void applyClient(Map<String, String> body, Client c) {
+        if (body.containsKey("name")) {
+            c.setName(body.get("name"));
+        }
+        if (body.containsKey("address")) {
+            c.setAddress(body.get("address"));
+        }
+        if (body.containsKey("email")) {
+            c.setEmail(body.get("email"));
+        }
+        if (body.containsKey("phone")) {
+            c.setPhone(body.get("phone"));
+        }
+        if (body.containsKey("age")) {
+            c.setAge(requiredInt(body, "age"));
+        }
+    }
+
+    /**
+     * Copies the product fields present in a request body; absent fields keep their value.
+     */
+    private static void applyProduct(Map<String, String> body, Product p) {
+        if (body.containsKey("name")) {
+            p.setName(body.get("name"));
+        }
+        if (body.containsKey("description")) {
+            p.setDescription(body.get("description"));
+        }
+        if (body.containsKey("price")) {
+            double price = parseDouble(body, "price");
+            if (price < 0) {
+                throw new IllegalArgumentException("The price must not be negative.");
+            }
+            p.setPrice(price);
+        }
+        if (body.containsKey("stock")) {
+            int stock = requiredInt(body, "stock");
+            if (stock < 0) {
+                throw new IllegalArgumentException("The stock must not be negative.");
+            }
+            p.setStock(stock);
+        }
+    }
+
+    private static String requiredString(Map<String, String> body, String key) {
+        String value = body.get(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("The field '" + key + "' is required.");
+        }
+        return value;
+    }
+
+    private static int requiredInt(Map<String, String> body, String key) {
+        String value = body.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("The field '" + key + "' is required.");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The field '" + key + "' must be an integer.");
+        }
+    }
+
+    private static double parseDouble(Map<String, String> body, String key) {
+        String value = body.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("The field '" + key + "' is required.");
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The field '" + key + "' must be a number.");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Headless server mode: exposes ClientBLL, ProductBLL and OrderBLL as an HTTP/JSON API on the JDK's built-in
+ * HttpServer, so the application can be driven without the Swing windows, e.g. by the web shop or a load test.
+ * Requests are handled on a fixed pool of worker threads; every request borrows a thread for its whole
+ * duration, including its database calls, so the pool size bounds the number of concurrent database
+ * connections. Every request is timed per route; GET /metrics reports the counts and latency percentiles.
+ * Exceptions of the business layer map to statuses: IllegalArgumentException to 400,
+ * NoSuchElementException to 404, OptimisticLockException to 409, anything else to 500. A streamed response
+ * that fails after it has started is cut off by dropping the connection.
+ */
+package org.example.a3.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.a3.BusinessLogic.ApplicationContext;
+import org.example.a3.dao.OptimisticLockException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ApiServer {
+    private static final Logger LOGGER = Logger.getLogger(ApiServer.class.getName());
+    /** System property holding the port to listen on. */
+    private static final String PORT_PROPERTY = "api.port";
+    /** System property holding the number of worker threads. */
+    private static final String THREADS_PROPERTY = "api.threads";
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_THREADS = 32;
+    private static final int BACKLOG = 256;
+    private static final int STOP_DELAY_SECONDS = 2;
+    private static final Pattern PARAMETER = Pattern.compile("\\{[^/}]+}");
+
+    /**
+     * Handles the requests of one route.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * Answers a request.
+         * @param exchange The request and its response.
+         * @throws IOException if reading the request or writing the response failed.
+         */
+        void handle(ApiExchange exchange) throws IOException;
+    }
+
+    private record Route(String method, String name, Pattern path, Handler handler) {
+    }
+
+    private final int port;
+    private final int threads;
+    private final List<Route> routes = new ArrayList<>();
+    private final RequestMetrics metrics = new RequestMetrics();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructs an ApiServer serving the API of the shared ApplicationContext.
+     * @param port The port to listen on; 0 picks a free port.
+     * @param threads The number of worker threads.
+     */
+    public ApiServer(int port, int threads) {
+        this.port = port;
+        this.threads = threads;
+        ApiRoutes.register(this, ApplicationContext.get());
+        route("GET", "/metrics", exchange -> exchange.respond(200, json -> {
+            json.beginArray();
+            for (RequestMetrics.Snapshot s : metrics.snapshot()) {
+                json.beginObject()
+                        .name("route").value(s.route())
+                        .name("requests").value(s.requests())
+                        .name("clientErrors").value(s.clientErrors())
+                        .name("serverErrors").value(s.serverErrors())
+                        .name("inFlight").value(s.inFlight())
+                        .name("meanMicros").value(s.meanMicros())
+                        .name("p50Micros").value(s.p50Micros())
+                        .name("p90Micros").value(s.p90Micros())
+                        .name("p99Micros").value(s.p99Micros())
+                        .name("maxMicros").value(s.maxMicros())
+                        .endObject();
+            }
+            json.endArray();
+        }));
+    }
+
+    /**
+     * Registers a route. Path segments written as {name} match any single segment and are passed to the
+     * handler as path parameters, in order.
+     * @param method The HTTP method.
+     * @param path The path pattern, e.g. "/clients/{id}".
+     * @param handler The handler.
+     */
+    public void route(String method, String path, Handler handler) {
+        String regex = PARAMETER.matcher(Pattern.quote(path)).replaceAll("\\\\E([^/]+)\\\\Q");
+        routes.add(new Route(method, method + " " + path, Pattern.compile(regex), handler));
+    }
+
+    /**
+     * Returns the request metrics of this server.
+     * @return The metrics.
+     */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts listening.
+     * @return The port listened on.
+     * @throws IOException if the port could not be bound.
+     */
+    public synchronized int start() throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "api-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/", this::dispatch);
+        server.start();
+        int bound = server.getAddress().getPort();
+        LOGGER.info("API listening on port " + bound + " with " + threads + " worker threads");
+        return bound;
+    }
+
+    /**
+     * Stops accepting requests, waits briefly for the running ones and shuts the worker threads down.
+     */
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(STOP_DELAY_SECONDS);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(STOP_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    private void dispatch(HttpExchange httpExchange) throws IOException {
+        long start = System.nanoTime();
+        String path = httpExchange.getRequestURI().getPath();
+        String method = httpExchange.getRequestMethod();
+        Route route = null;
+        Matcher matcher = null;
+        boolean pathMatched = false;
+        for (Route candidate : routes) {
+            Matcher m = candidate.path().matcher(path);
+            if (m.matches()) {
+                pathMatched = true;
+                if (candidate.method().equals(method)) {
+                    route = candidate;
+                    matcher = m;
+                    break;
+                }
+            }
+        }
+
+        String name = route != null ? route.name() : "unmatched";
+        String[] parameters = new String[matcher == null ? 0 : matcher.groupCount()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = matcher.group(i + 1);
+        }
+        ApiExchange exchange = new ApiExchange(httpExchange, parameters);
+        metrics.started(name);
+        try {
+            if (route == null) {
+                error(exchange, pathMatched ? 405 : 404, pathMatched ? "Method not allowed." : "Not found.");
+            } else {
+                route.handler().handle(exchange);
+            }
+        } catch (IllegalArgumentException e) {
+            error(exchange, 400, e.getMessage());
+        } catch (NoSuchElementException e) {
+            error(exchange, 404, e.getMessage());
+        } catch (OptimisticLockException e) {
+            error(exchange, 409, e.getMessage());
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, name + " could not be answered: " + e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, name + " failed", e);
+            error(exchange, 500, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        } finally {
+            if (!exchange.isAborted()) {
+                httpExchange.close();
+            }
+            int status = exchange.status() == 0 || exchange.isAborted() ? 500 : exchange.status();
+            metrics.completed(name, status, System.nanoTime() - start);
+        }
+        if (exchange.isAborted()) {
+            // closing the exchange would send the final chunk; a handler exception makes the server drop the connection
+            throw new IOException(name + " failed after its response had started");
+        }
+    }
+
+    /**
+     * Sends an error response, unless a response has already been started; then only the status is recorded.
+     */
+    private static void error(ApiExchange exchange, int status, String message) {
+        if (exchange.status() != 0) {
+            LOGGER.warning("Response already started when failing with " + status + ": " + message);
+            return;
+        }
+        try {
+            exchange.respond(status, json -> json.beginObject().name("error").value(message).endObject());
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not send error response: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the server in the foreground. The port and the number of worker threads are taken from the
+     * api.port and api.threads system properties, or from the first two arguments.
+     * @param args Optional port and thread count.
+     * @throws IOException if the port could not be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+
+        ApplicationContext context = ApplicationContext.get();
+        context.warmUp().thenRun(context::orderJournal) // starts replaying orders journaled during an outage
+                .exceptionally(e -> {
+                    LOGGER.log(Level.SEVERE, "Could not warm up or start the order journal", e);
+                    return null;
+                });
+        ApiServer server = new ApiServer(port, threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "api-shutdown"));
+        server.start();
+    }
+}
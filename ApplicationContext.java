@@ -0,0 +1,290 @@
+/**
+ * Application-wide registry of the DAOs and BLLs, so windows share one instance of each instead of
+ * building their own on every click. Every component is created lazily on first use and then reused;
+ * DAOs and BLLs hold no per-caller state, so sharing them across windows and threads is safe.
+ * warmUp() touches the database connection path and builds the DAOs (and with them the entity mappings and
+ * prepared SQL) on a background thread while the dashboard is showing, and startup timings are logged
+ * relative to JVM start.
+ */
+package org.example.a3.BusinessLogic;
+
+import org.example.a3.BusinessLogic.inventory.InventoryLedger;
+import org.example.a3.BusinessLogic.inventory.StockReservations;
+import org.example.a3.BusinessLogic.journal.OrderJournal;
+import org.example.a3.BusinessLogic.reference.ReferenceDataStore;
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.dao.BillDAO;
+import org.example.a3.dao.ClientDAO;
+import org.example.a3.dao.ClientSummaryDAO;
+import org.example.a3.dao.OrderDAO;
+import org.example.a3.dao.OrderDetailDAO;
+import org.example.a3.dao.OutboxDAO;
+import org.example.a3.dao.ProductDAO;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class ApplicationContext {
+    private static final Logger LOGGER = Logger.getLogger(ApplicationContext.class.getName());
+
+    private static final class Holder {
+        private static final ApplicationContext INSTANCE = new ApplicationContext();
+    }
+
+    /**
+     * A value created on first use by its factory and cached afterwards.
+     */
+    private static final class Lazy<T> implements Supplier<T> {
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        private Lazy(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = factory.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private final Lazy<ClientDAO> clientDAO = new Lazy<>(ClientDAO::new);
+    private final Lazy<ProductDAO> productDAO = new Lazy<>(ProductDAO::new);
+    private final Lazy<OrderDAO> orderDAO = new Lazy<>(OrderDAO::new);
+    private final Lazy<BillDAO> billDAO = new Lazy<>(BillDAO::new);
+    private final Lazy<OrderDetailDAO> orderDetailDAO = new Lazy<>(OrderDetailDAO::new);
+    private final Lazy<ClientSummaryDAO> clientSummaryDAO = new Lazy<>(ClientSummaryDAO::new);
+    private final Lazy<OutboxDAO> outboxDAO = new Lazy<>(OutboxDAO::new);
+
+    private final Lazy<ClientBLL> clientBLL = new Lazy<>(() -> new ClientBLL(clientDAO(), clientSummaryDAO()));
+    private final Lazy<ProductBLL> productBLL = new Lazy<>(() -> new ProductBLL(productDAO()));
+    /** Empty when no ledger is configured; a failed open is not cached, so the next call tries again. */
+    private final Lazy<Optional<InventoryLedger>> inventoryLedger = new Lazy<>(ApplicationContext::openInventoryLedger);
+    private final Lazy<StockReservations> stockReservations = new Lazy<>(() -> new StockReservations(productDAO(),
+            inventoryLedger()));
+    private final Lazy<OrderBLL> orderBLL = new Lazy<>(() -> new OrderBLL(orderDAO(), productDAO(), billDAO(),
+            orderDetailDAO(), clientSummaryDAO(), outboxDAO(), stockReservations(), inventoryLedger()));
+    /** Empty when no journal is configured; a failed open is not cached, so the next call tries again. */
+    private final Lazy<Optional<OrderJournal>> orderJournal = new Lazy<>(ApplicationContext::openOrderJournal);
+
+    private final Instant processStart = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+    private final Map<String, Duration> firstShown = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<Duration> warmUp;
+
+    private ApplicationContext() {
+    }
+
+    /**
+     * Returns the application context.
+     * @return The shared instance.
+     */
+    public static ApplicationContext get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the shared ClientDAO.
+     * @return The ClientDAO.
+     */
+    public ClientDAO clientDAO() { return clientDAO.get(); }
+
+    /**
+     * Returns the shared ProductDAO.
+     * @return The ProductDAO.
+     */
+    public ProductDAO productDAO() { return productDAO.get(); }
+
+    /**
+     * Returns the shared OrderDAO.
+     * @return The OrderDAO.
+     */
+    public OrderDAO orderDAO() { return orderDAO.get(); }
+
+    /**
+     * Returns the shared BillDAO.
+     * @return The BillDAO.
+     */
+    public BillDAO billDAO() { return billDAO.get(); }
+
+    /**
+     * Returns the shared OrderDetailDAO.
+     * @return The OrderDetailDAO.
+     */
+    public OrderDetailDAO orderDetailDAO() { return orderDetailDAO.get(); }
+
+    /**
+     * Returns the shared ClientSummaryDAO.
+     * @return The ClientSummaryDAO.
+     */
+    public ClientSummaryDAO clientSummaryDAO() { return clientSummaryDAO.get(); }
+
+    /**
+     * Returns the shared OutboxDAO.
+     * @return The OutboxDAO.
+     */
+    public OutboxDAO outboxDAO() { return outboxDAO.get(); }
+
+    /**
+     * Returns the shared ClientBLL.
+     * @return The ClientBLL.
+     */
+    public ClientBLL clientBLL() { return clientBLL.get(); }
+
+    /**
+     * Returns the shared ProductBLL.
+     * @return The ProductBLL.
+     */
+    public ProductBLL productBLL() { return productBLL.get(); }
+
+    /**
+     * Returns the shared OrderBLL.
+     * @return The OrderBLL.
+     */
+    public OrderBLL orderBLL() { return orderBLL.get(); }
+
+    /**
+     * Returns the shared inventory ledger, opening it on first use.
+     * If opening fails, the failure is logged and thrown, and the next call tries again.
+     * @return The InventoryLedger, or null if none is configured.
+     * @throws IllegalStateException if the configured ledger could not be opened or replayed.
+     */
+    public InventoryLedger inventoryLedger() { return inventoryLedger.get().orElse(null); }
+
+    /**
+     * Returns the shared stock reservations, which use the inventory ledger if one is configured.
+     * @return The StockReservations.
+     * @throws IllegalStateException if the configured inventory ledger could not be opened.
+     */
+    public StockReservations stockReservations() { return stockReservations.get(); }
+
+    /**
+     * Returns the shared order journal, opening it on first use, which starts replaying the orders left
+     * pending by the previous run. If opening fails, the failure is logged and thrown, and the next call tries again.
+     * @return The OrderJournal, or null if none is configured.
+     * @throws IllegalStateException if the configured journal could not be opened.
+     */
+    public OrderJournal orderJournal() { return orderJournal.get().orElse(null); }
+
+    /**
+     * Returns the shared in-memory clients and products the windows display.
+     * @return The ReferenceDataStore.
+     */
+    public ReferenceDataStore referenceData() { return ReferenceDataStore.getDefault(); }
+
+    /**
+     * Starts warming up on a background daemon thread: opens and closes one database connection, so the
+     * JDBC driver, its classes and the server connection path are initialized, then creates every DAO and BLL
+     * and loads the reference data and search indexes, so the first window opens without a query.
+     * Calling it again returns the warm-up already started.
+     * @return A future completed with the warm-up duration. Failures to reach the database or create a component
+     *         are logged and do not fail it; it completes exceptionally only if the warm-up thread itself fails,
+     *         e.g. with an Error.
+     */
+    public CompletableFuture<Duration> warmUp() {
+        CompletableFuture<Duration> started = warmUp;
+        if (started == null) {
+            synchronized (this) {
+                started = warmUp;
+                if (started == null) {
+                    started = new CompletableFuture<>();
+                    warmUp = started;
+                    CompletableFuture<Duration> result = started;
+                    Thread thread = new Thread(() -> {
+                        try {
+                            result.complete(runWarmUp());
+                        } catch (Throwable t) {
+                            result.completeExceptionally(t);
+                        }
+                    }, "warmup");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+            }
+        }
+        return started;
+    }
+
+    private static Optional<InventoryLedger> openInventoryLedger() {
+        ApplicationContext context = get();
+        try {
+            return Optional.ofNullable(InventoryLedger.openConfigured(context.productDAO(), context.orderDAO()));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Could not open the inventory ledger; orders are refused until it opens", e);
+            throw e;
+        }
+    }
+
+    private static Optional<OrderJournal> openOrderJournal() {
+        try {
+            return Optional.ofNullable(get().orderBLL().openConfiguredJournal());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Could not open the order journal; orders are refused until it opens", e);
+            throw e;
+        }
+    }
+
+    private Duration runWarmUp() {
+        long start = System.nanoTime();
+        try (Connection connection = ConnectionFactory.getConnection()) {
+            if (connection == null) {
+                LOGGER.warning("Warm-up could not reach the database");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Warm-up could not reach the database: " + e.getMessage());
+        }
+        long connected = System.nanoTime();
+        try {
+            clientBLL();
+            productBLL();
+            orderBLL();
+            referenceData().clients().getAll();
+            referenceData().products().getAll();
+            referenceData().loadSearchIndexes();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Warm-up could not create the data access layer", e);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        LOGGER.info("Warm-up finished in " + elapsed.toMillis() + " ms (connection "
+                + Duration.ofNanos(connected - start).toMillis() + " ms)");
+        return elapsed;
+    }
+
+    /**
+     * Records that a window has become visible; the first time for each name, logs the time since the JVM started.
+     * @param name The name of the window.
+     * @return The time from JVM start until the window was first shown.
+     */
+    public Duration windowShown(String name) {
+        return firstShown.computeIfAbsent(name, n -> {
+            Duration sinceStart = Duration.between(processStart, Instant.now());
+            LOGGER.info("Time to first " + n + " window: " + sinceStart.toMillis() + " ms after JVM start");
+            return sinceStart;
+        });
+    }
+
+    /**
+     * Returns the startup times recorded so far.
+     * @return A snapshot from window name to the time from JVM start until it was first shown.
+     */
+    public Map<String, Duration> getStartupTimes() {
+        return Map.copyOf(firstShown);
+    }
+}
@@ -7,6 +7,7 @@ package org.example.a3.dao;
 
 import org.example.a3.Model.Bill; // Using Bill record
 import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -46,6 +47,7 @@ public class BillDAO {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Insert failed for Bill: " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
         return bill;
     }
@@ -70,6 +72,7 @@ public class BillDAO {
 
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "BillDAO:findAll " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
         return list;
     }
@@ -95,6 +98,7 @@ public class BillDAO {
             }
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "BillDAO:findById " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
         }
         return null;
     }
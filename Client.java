@@ -1,16 +1,33 @@
 /**
  * Represents a client in the Orders Management system.
- * This class stores client details such as ID, name, email, phone, address, and age.
+ * This class stores client details such as ID, name, email, phone, address, and age,
+ * plus a version number used for optimistic locking.
  */
 package org.example.a3.Model;
 
+import org.example.a3.dao.mapping.Column;
+import org.example.a3.dao.mapping.GenerateMapping;
+import org.example.a3.dao.mapping.Generated;
+import org.example.a3.dao.mapping.Id;
+import org.example.a3.dao.mapping.Table;
+
+@GenerateMapping
+@Table("client")
 public class Client {
+    @Id @Generated
     private int id;
+    @Column(order = 1)
     private String name;
+    @Column(order = 2)
     private String email;
+    @Column(order = 3)
     private String phone;
+    @Column(order = 4)
     private String address;
+    @Column(order = 5)
     private int age;
+    @Column(order = 6)
+    private int version;
 
     /**
      * Default constructor for Client.
@@ -101,6 +118,17 @@ public class Client {
      */
     public void setAge(int age) { this.age = age; }
 
+    /**
+     * Returns the optimistic-locking version of the client row, incremented on every update.
+     * @return The row version.
+     */
+    public int getVersion() { return version; }
+    /**
+     * Sets the optimistic-locking version of the client row.
+     * @param version The row version as loaded from the database.
+     */
+    public void setVersion(int version) { this.version = version; }
+
     /**
      * Returns a string representation of the client, primarily their name.
      * @return The client's name.
@@ -6,6 +6,8 @@ package org.example.a3.BusinessLogic.validators;
 
 import org.example.a3.Model.Client;
 
+import java.util.function.Consumer;
+
 public class ClientAgeValidator implements Validator<Client> {
     private static final int MIN_AGE = 7;
     private static final int MAX_AGE = 30;
@@ -16,8 +18,23 @@ public class ClientAgeValidator implements Validator<Client> {
      * @throws IllegalArgumentException if the client's age is outside the allowed range.
      */
     public void validate(Client t) {
-        if (t.getAge() < MIN_AGE || t.getAge() > MAX_AGE) {
-            throw new IllegalArgumentException("The Client Age limit is not respected! Age must be between " + MIN_AGE + " and " + MAX_AGE + ".");
+        if (!isValid(t)) {
+            throw new IllegalArgumentException(message());
+        }
+    }
+
+    @Override
+    public void check(Client t, Consumer<String> violations) {
+        if (!isValid(t)) {
+            violations.accept(message());
         }
     }
-}
\ No newline at end of file
+
+    private static boolean isValid(Client t) {
+        return t.getAge() >= MIN_AGE && t.getAge() <= MAX_AGE;
+    }
+
+    private static String message() {
+        return "The Client Age limit is not respected! Age must be between " + MIN_AGE + " and " + MAX_AGE + ".";
+    }
+}
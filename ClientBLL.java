@@ -5,29 +5,67 @@
 package org.example.a3.BusinessLogic;
 
 import org.example.a3.Model.Client;
+import org.example.a3.Model.ClientListItem;
+import org.example.a3.Model.ClientOrderSummary;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.connection.TransactionManager;
 import org.example.a3.dao.ClientDAO;
+import org.example.a3.dao.ClientSummaryDAO;
+import org.example.a3.dao.OptimisticLockException;
+import org.example.a3.BusinessLogic.importer.ImportFormat;
+import org.example.a3.BusinessLogic.importer.ImportPipeline;
+import org.example.a3.BusinessLogic.importer.ImportProgress;
+import org.example.a3.BusinessLogic.importer.ImportReport;
+import org.example.a3.BusinessLogic.importer.ImportRow;
+import org.example.a3.BusinessLogic.reference.ReferenceData;
+import org.example.a3.BusinessLogic.reference.ReferenceDataStore;
+import org.example.a3.BusinessLogic.validators.ValidationEngine;
+import org.example.a3.BusinessLogic.validators.ValidationReport;
 import org.example.a3.BusinessLogic.validators.Validator;
 import org.example.a3.BusinessLogic.validators.ClientAgeValidator;
 import org.example.a3.BusinessLogic.validators.EmailValidator;
+import org.example.a3.BusinessLogic.validators.UniqueEmailValidator;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 public class ClientBLL {
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final ClientDAO clientDAO;
+    private final ClientSummaryDAO clientSummaryDAO;
     private final List<Validator<Client>> validators;
+    private final ValidationEngine<Client> validation;
+    private final ReferenceData<Client> clients;
 
     /**
      * Constructs a new ClientBLL instance.
-     * Initializes the ClientDAO and sets up a list of validators for Client objects.
+     * Initializes the ClientDAO and ClientSummaryDAO and sets up a list of validators for Client objects
+     * and the ValidationEngine that runs them. Writes are reported to the shared ReferenceDataStore.
      */
     public ClientBLL() {
-        this.clientDAO = new ClientDAO();
+        this(new ClientDAO(), new ClientSummaryDAO());
+    }
+
+    /**
+     * Constructs a ClientBLL on shared DAOs.
+     * @param clientDAO The DAO for clients.
+     * @param clientSummaryDAO The DAO for the client order summaries.
+     */
+    public ClientBLL(ClientDAO clientDAO, ClientSummaryDAO clientSummaryDAO) {
+        this.clientDAO = clientDAO;
+        this.clientSummaryDAO = clientSummaryDAO;
         this.validators = new ArrayList<>();
         // Add specific validator instances
         this.validators.add(new EmailValidator());
         this.validators.add(new ClientAgeValidator());
+        this.validators.add(new UniqueEmailValidator(clientDAO));
+        this.validation = new ValidationEngine<>(validators);
+        this.clients = ReferenceDataStore.getDefault().clients();
     }
 
     /**
@@ -52,33 +90,168 @@ public class ClientBLL {
         return clientDAO.findAll();
     }
 
+    /**
+     * Finds several clients with a single query.
+     * @param ids The IDs of the clients to find.
+     * @return A map from ID to Client; IDs that were not found are absent.
+     */
+    public Map<Integer, Client> findClientsByIds(int[] ids) {
+        return clientDAO.findByIds(ids);
+    }
+
+    /**
+     * Returns the shared in-memory clients, loaded once and kept current by this BLL's writes.
+     * Windows read and observe it instead of querying the client table.
+     * @return The shared client data.
+     */
+    public ReferenceData<Client> getClientData() {
+        return clients;
+    }
+
+    /**
+     * Finds the clients whose name or email, or a word of them, starts with the given text, for type-ahead pickers.
+     * Answered from the shared in-memory search index; queries the database only when the index has no match.
+     * @param text What the user typed; case and accents are ignored.
+     * @param limit The maximum number of clients to return.
+     * @return The matching clients.
+     */
+    public List<ClientListItem> searchClients(String text, int limit) {
+        return ReferenceDataStore.getDefault().searchClients(text, limit);
+    }
+
+    /**
+     * Retrieves the id and name of all clients, for pickers that do not need full Client objects.
+     * @return A list of ClientListItem projections.
+     */
+    public List<ClientListItem> findAllClientListItems() {
+        return clientDAO.findAll(ClientListItem.class);
+    }
+
+    /**
+     * Returns the lifetime order count, quantity and spend of a client.
+     * Reads the incrementally maintained summary row instead of scanning the order and log tables.
+     * @param clientId The ID of the client.
+     * @return The client's summary; all totals are zero if the client has not placed any orders.
+     */
+    public ClientOrderSummary findClientSummary(int clientId) {
+        ClientOrderSummary summary = clientSummaryDAO.findByClientId(clientId);
+        return summary == null ? ClientOrderSummary.empty(clientId) : summary;
+    }
+
+    /**
+     * Recomputes all client summaries from the order and log tables and compares them with the stored ones.
+     * @param repair Whether to replace stored summaries that do not match.
+     * @return The verification or rebuild report.
+     */
+    public ClientSummaryRebuilder.Report verifyClientSummaries(boolean repair) {
+        ClientSummaryRebuilder rebuilder = new ClientSummaryRebuilder(clientSummaryDAO);
+        return repair ? rebuilder.rebuild() : rebuilder.verify();
+    }
+
     /**
      * Inserts a new client into the database after validating it.
      * @param c The Client object to insert.
      * @return The inserted Client object.
-     * @throws IllegalArgumentException if the client fails any validation rules.
+     * @throws IllegalArgumentException listing every validation rule the client fails, including an email
+     *                                  address already used by another client.
      */
     public Client insertClient(Client c) {
-        validators.forEach(v -> v.validate(c));
-        return clientDAO.insert(c);
+        validation.validate(c);
+        Client inserted = clientDAO.insert(c);
+        validation.stored(inserted);
+        if (inserted.getId() != 0) { // 0: the DAO failed and logged why
+            TransactionManager.afterCommit(() -> clients.put(inserted));
+        }
+        return inserted;
+    }
+
+    /**
+     * Imports clients from a CSV file (header with name, email, phone, address, age) or a JSON Lines file
+     * with the same keys. Rows go through the same validators as insertClient, in parallel, and are inserted
+     * in batches; rejected rows are written to the reject file with their line number and reason.
+     * @param input The file to import; the format is chosen by its extension.
+     * @param rejectFile The file receiving the rejected rows.
+     * @param progress Receives progress after every chunk of the file; may be null.
+     * @return The import report.
+     * @throws IllegalStateException if the files cannot be accessed.
+     */
+    public ImportReport importClients(Path input, Path rejectFile, Consumer<ImportProgress> progress) {
+        ImportPipeline<Client> pipeline = new ImportPipeline<>(clientDAO, ClientBLL::parseClient, validators);
+        ImportReport report = pipeline.run(input, ImportFormat.of(input), rejectFile, progress);
+        if (report.accepted() > 0) {
+            clients.reload();
+        }
+        return report;
+    }
+
+    /**
+     * Validates a batch of clients in parallel without storing them, collecting every violation of every client.
+     * Email uniqueness is checked for the whole batch with one query, including duplicates within the batch.
+     * @param clients The clients to validate.
+     * @return The report with the violations by list index and the time spent in each validator.
+     */
+    public ValidationReport validateClients(List<Client> clients) {
+        return validation.validateAll(clients);
+    }
+
+    private static Client parseClient(ImportRow row) {
+        return new Client(0, row.require("name"), row.get("address"), row.get("email"), row.get("phone"), row.getInt("age"));
     }
 
     /**
      * Updates an existing client in the database after validating it.
+     * The update runs in a transaction (joining an outer one), so the reference data only receives the client
+     * once it has been committed.
      * @param c The Client object to update.
      * @return The updated Client object.
-     * @throws IllegalArgumentException if the client fails any validation rules.
+     * @throws IllegalArgumentException listing every validation rule the client fails, including an email
+     *                                  address already used by another client.
+     * @throws OptimisticLockException if the client was modified by someone else since it was loaded.
+     * @throws TransactionException if the update failed and was rolled back.
      */
     public Client updateClient(Client c) {
-        validators.forEach(v -> v.validate(c));
-        return clientDAO.update(c);
+        validation.validate(c);
+        return TransactionManager.inTransaction(() -> {
+            Client updated = clientDAO.update(c);
+            validation.stored(updated);
+            TransactionManager.afterCommit(() -> clients.put(updated));
+            return updated;
+        });
+    }
+
+    /**
+     * Applies a change to the latest state of a client and saves it, retrying on concurrent modification.
+     * The client is reloaded before every attempt, so no lock is held between reading and writing.
+     * @param id The ID of the client to update.
+     * @param change The modification to apply to the freshly loaded client.
+     * @return The updated Client object.
+     * @throws NoSuchElementException if no client with the given ID is found.
+     * @throws IllegalArgumentException if the changed client fails any validation rules.
+     * @throws OptimisticLockException if the client was still changing after the last attempt.
+     */
+    public Client updateClient(int id, Consumer<Client> change) {
+        for (int attempt = 1; ; attempt++) {
+            Client c = findClientById(id);
+            change.accept(c);
+            try {
+                return updateClient(c);
+            } catch (OptimisticLockException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
     /**
-     * Deletes a client from the database by their ID.
+     * Deletes a client from the database by their ID, and from the reference data once the delete has committed.
      * @param id The ID of the client to delete.
+     * @throws TransactionException if the delete failed and was rolled back.
      */
     public void deleteClient(int id) {
-        clientDAO.deleteById(id);
+        TransactionManager.inTransaction(() -> {
+            clientDAO.deleteById(id);
+            TransactionManager.afterCommit(() -> clients.remove(id));
+        });
     }
 }
\ No newline at end of file
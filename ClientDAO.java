@@ -5,12 +5,55 @@
 package org.example.a3.dao;
 
 import org.example.a3.Model.Client;
+import org.example.a3.Model.ClientSearchKey;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class ClientDAO extends AbstractDAO<Client> {
     /**
      * Constructs a new ClientDAO.
      */
     public ClientDAO() {
-        super();
+        super(Client.class);
+    }
+
+    /**
+     * Streams every distinct client email, lower-cased.
+     * @param consumer Receives each email.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public void forEachEmail(Consumer<String> consumer) {
+        forEachLowerCaseValue("email", consumer);
+    }
+
+    /**
+     * Finds the clients having any of the given emails, ignoring case, with one query.
+     * @param emails The lower-cased emails to look up.
+     * @return A map from email to the ids of the clients using it; null if the query failed.
+     */
+    public Map<String, List<Integer>> findIdsByEmails(Collection<String> emails) {
+        return findIdsByLowerCaseValues("email", emails);
+    }
+
+    /**
+     * Streams the id, name and email of every client.
+     * @param consumer Receives each client's search key.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public void forEachSearchKey(Consumer<ClientSearchKey> consumer) {
+        forEach(ClientSearchKey.class, consumer);
+    }
+
+    /**
+     * Finds the clients whose name or email, or a word of them, starts with a prefix, ignoring case.
+     * @param lowerCasePrefix The prefix, already lower-cased.
+     * @param limit The maximum number of clients to return.
+     * @return The search keys of the matching clients, ordered by id; empty if the query failed.
+     */
+    public List<ClientSearchKey> findByNameOrEmailPrefix(String lowerCasePrefix, int limit) {
+        return findByPrefix(ClientSearchKey.class, lowerCasePrefix, limit, "name", "email");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+/**
+ * Lightweight projection of a client holding only what pickers and listings display.
+ * Loaded with ClientDAO.findAll(ClientListItem.class), which selects just these columns.
+ */
+package org.example.a3.Model;
+
+public record ClientListItem(int id, String name) {
+
+    /**
+     * Returns a string representation of the client, primarily their name.
+     * @return The client's name.
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -3,19 +3,27 @@
  */
 package org.example.a3.presentation;
 
+import org.example.a3.BusinessLogic.ApplicationContext;
 import org.example.a3.BusinessLogic.ClientBLL;
+import org.example.a3.BusinessLogic.reference.ReferenceData;
 import org.example.a3.Model.Client;
+import org.example.a3.dao.OptimisticLockException;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 public class ClientManagementWindow extends JFrame {
     private final ClientBLL clientBLL;
+    private final ReferenceData<Client> clients;
+    private final Runnable onDataChanged = () -> SwingUtilities.invokeLater(this::refreshTable);
     private JTable clientTable;
+    private boolean refreshing;
 
     private JTextField nameField;
     private JTextField addressField;
@@ -28,11 +36,19 @@ public class ClientManagementWindow extends JFrame {
      * Initializes the GUI components and sets up event listeners.
      */
     public ClientManagementWindow() {
-        this.clientBLL = new ClientBLL();
+        this.clientBLL = ApplicationContext.get().clientBLL();
+        this.clients = clientBLL.getClientData();
 
         setTitle("Client Management");
         setSize(800, 500);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        clients.subscribe(onDataChanged);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                clients.unsubscribe(onDataChanged);
+            }
+        });
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
@@ -90,6 +106,7 @@ public class ClientManagementWindow extends JFrame {
                 int id = (int) clientTable.getValueAt(row, 0);
                 Client c = new Client(id, nameField.getText().trim(), addressField.getText().trim(), // Trimmed
                         emailField.getText().trim(), phoneField.getText().trim(), Integer.parseInt(ageField.getText())); // Trimmed
+                c.setVersion(selectedVersion(row));
                 clientBLL.updateClient(c);
                 refreshTable();
                 clearFields();
@@ -98,6 +115,9 @@ public class ClientManagementWindow extends JFrame {
                 showError("Age must be a valid number.");
             } catch (IllegalArgumentException ex) {
                 showError("Validation Error: " + ex.getMessage());
+            } catch (OptimisticLockException ex) {
+                showError(ex.getMessage() + " The table has been refreshed, please try again.");
+                clients.reload();
             } catch (NoSuchElementException ex) {
                 showError(ex.getMessage());
             } catch (Exception ex) {
@@ -125,12 +145,12 @@ public class ClientManagementWindow extends JFrame {
             }
         });
 
-        refreshBtn.addActionListener(e -> refreshTable());
+        refreshBtn.addActionListener(e -> clients.reload());
 
         clientTable.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
             @Override
             public void valueChanged(ListSelectionEvent e) {
-                if (!e.getValueIsAdjusting()) {
+                if (!e.getValueIsAdjusting() && !refreshing) {
                     int row = clientTable.getSelectedRow();
                     if (row >= 0 && row < clientTable.getRowCount()) {
                         nameField.setText(String.valueOf(clientTable.getValueAt(row, 1)));
@@ -147,16 +167,30 @@ public class ClientManagementWindow extends JFrame {
 
         refreshTable();
         setVisible(true);
+        ApplicationContext.get().windowShown(getTitle());
     }
 
     /**
-     * Refreshes the client table with the latest data from the database.
+     * Refreshes the client table from the shared client data, without a query.
+     * The selected client stays selected and the form keeps what the user typed.
      */
     private void refreshTable() {
-        List<Client> clients = clientBLL.findAllClients();
-        JTable newTable = TableUtils.buildTableFromList(clients);
-        clientTable.setModel(newTable.getModel());
-        clientTable.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        int selectedId = clientTable.getSelectedRow() >= 0 ? (int) clientTable.getValueAt(clientTable.getSelectedRow(), 0) : -1;
+        List<Client> all = clients.getAll();
+        JTable newTable = TableUtils.buildTableFromList(all);
+        refreshing = true;
+        try {
+            clientTable.setModel(newTable.getModel());
+            clientTable.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            for (int row = 0; row < clientTable.getRowCount(); row++) {
+                if ((int) clientTable.getValueAt(row, 0) == selectedId) {
+                    clientTable.setRowSelectionInterval(row, row);
+                    break;
+                }
+            }
+        } finally {
+            refreshing = false;
+        }
     }
 
     /**
@@ -170,6 +204,15 @@ public class ClientManagementWindow extends JFrame {
         ageField.setText("");
     }
 
+    /**
+     * Returns the optimistic-locking version of the client shown in the given table row.
+     * @param row The selected table row.
+     * @return The version the row had when the table was loaded.
+     */
+    private int selectedVersion(int row) {
+        return (int) clientTable.getValueAt(row, clientTable.getColumnModel().getColumnIndex("version"));
+    }
+
     /**
      * Displays an error message dialog.
      * @param msg The message to display.
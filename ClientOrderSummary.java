@@ -0,0 +1,17 @@
+/**
+ * Per-client order totals stored in the client_summary table.
+ * Kept up to date incrementally by OrderBLL.insertOrder, so reading it is a single primary-key lookup.
+ */
+package org.example.a3.Model;
+
+public record ClientOrderSummary(int clientId, int orderCount, long totalQuantity, double totalSpend, int lastOrderId) {
+
+    /**
+     * Returns the summary of a client that has not placed any orders.
+     * @param clientId The ID of the client.
+     * @return A summary with all totals at zero.
+     */
+    public static ClientOrderSummary empty(int clientId) {
+        return new ClientOrderSummary(clientId, 0, 0, 0, 0);
+    }
+}
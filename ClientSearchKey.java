@@ -0,0 +1,16 @@
+/**
+ * Projection of a client holding the texts the client pickers search by.
+ * Streamed with ClientDAO.forEach(ClientSearchKey.class, ...) to build the client search index.
+ */
+package org.example.a3.Model;
+
+public record ClientSearchKey(int id, String name, String email) {
+
+    /**
+     * Returns the list item shown for this client.
+     * @return The client's id and name.
+     */
+    public ClientListItem toListItem() {
+        return new ClientListItem(id, name);
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Data Access Object for the client_summary table.
+ * The table is a materialized aggregate of "order" and log per client
+ * (clientId primary key, orderCount, totalQuantity, totalSpend, lastOrderId).
+ * It does NOT extend AbstractDAO: rows are only ever upserted incrementally or rebuilt per id range.
+ */
+package org.example.a3.dao;
+
+import org.example.a3.Model.ClientOrderSummary;
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ClientSummaryDAO {
+    protected static final Logger LOGGER = Logger.getLogger(ClientSummaryDAO.class.getName());
+    private static final String TABLE_NAME = "client_summary";
+    private static final String COLUMNS = "clientId, orderCount, totalQuantity, totalSpend, lastOrderId";
+
+    private static final String APPLY_QUERY = "INSERT INTO " + TABLE_NAME + " (" + COLUMNS + ") VALUES (?, 1, ?, ?, ?) "
+            + "ON CONFLICT (clientId) DO UPDATE SET "
+            + "orderCount = " + TABLE_NAME + ".orderCount + 1, "
+            + "totalQuantity = " + TABLE_NAME + ".totalQuantity + EXCLUDED.totalQuantity, "
+            + "totalSpend = " + TABLE_NAME + ".totalSpend + EXCLUDED.totalSpend, "
+            + "lastOrderId = GREATEST(" + TABLE_NAME + ".lastOrderId, EXCLUDED.lastOrderId)";
+    private static final String FIND_QUERY = "SELECT " + COLUMNS + " FROM " + TABLE_NAME + " WHERE clientId = ?";
+    private static final String FIND_RANGE_QUERY = "SELECT " + COLUMNS + " FROM " + TABLE_NAME
+            + " WHERE clientId >= ? AND clientId < ? ORDER BY clientId";
+    // bills are summed per order first, so an order with several bills is still counted once
+    private static final String COMPUTE_RANGE_QUERY = "SELECT o.clientId, COUNT(*), SUM(o.quantity), "
+            + "SUM(COALESCE(l.totalAmount, 0)), MAX(o.id) "
+            + "FROM \"order\" o LEFT JOIN LATERAL (SELECT SUM(totalAmount) AS totalAmount FROM log WHERE orderId = o.id) l ON true "
+            + "WHERE o.clientId >= ? AND o.clientId < ? GROUP BY o.clientId ORDER BY o.clientId";
+    private static final String DELETE_RANGE_QUERY = "DELETE FROM " + TABLE_NAME + " WHERE clientId >= ? AND clientId < ?";
+    private static final String INSERT_QUERY = "INSERT INTO " + TABLE_NAME + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)";
+    private static final String MAX_CLIENT_QUERY = "SELECT GREATEST("
+            + "(SELECT COALESCE(MAX(id), 0) FROM client), "
+            + "(SELECT COALESCE(MAX(clientId), 0) FROM " + TABLE_NAME + "), "
+            + "(SELECT COALESCE(MAX(clientId), 0) FROM \"order\"))";
+
+    /**
+     * Adds one order to the summary of its client, creating the summary row if needed.
+     * Call it in the same transaction as the order insert so the summary never drifts.
+     * @param clientId The ID of the client that placed the order.
+     * @param quantity The ordered quantity.
+     * @param amount The billed amount.
+     * @param orderId The ID of the new order.
+     */
+    public void apply(int clientId, int quantity, double amount, int orderId) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement ps = connection.prepareStatement(APPLY_QUERY)) {
+
+            ps.setInt(1, clientId);
+            ps.setLong(2, quantity);
+            ps.setDouble(3, amount);
+            ps.setInt(4, orderId);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "ClientSummaryDAO:apply " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+    }
+
+    /**
+     * Finds the summary of a client.
+     * @param clientId The ID of the client.
+     * @return The summary, or null if the client has no summary row.
+     */
+    public ClientOrderSummary findByClientId(int clientId) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_QUERY)) {
+
+            statement.setInt(1, clientId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return read(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "ClientSummaryDAO:findByClientId " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the stored summaries of a range of clients.
+     * @param fromClientId The first client ID of the range (inclusive).
+     * @param toClientId The end of the range (exclusive).
+     * @return The stored summaries, ordered by client ID.
+     */
+    public List<ClientOrderSummary> findRange(int fromClientId, int toClientId) {
+        return queryRange(FIND_RANGE_QUERY, fromClientId, toClientId, "findRange");
+    }
+
+    /**
+     * Recomputes the summaries of a range of clients from the "order" and log tables.
+     * @param fromClientId The first client ID of the range (inclusive).
+     * @param toClientId The end of the range (exclusive).
+     * @return The computed summaries, ordered by client ID; clients without orders are absent.
+     */
+    public List<ClientOrderSummary> computeRange(int fromClientId, int toClientId) {
+        return queryRange(COMPUTE_RANGE_QUERY, fromClientId, toClientId, "computeRange");
+    }
+
+    /**
+     * Replaces the stored summaries of a range of clients with the given ones.
+     * Should run inside a transaction so readers never see the range half-written.
+     * @param fromClientId The first client ID of the range (inclusive).
+     * @param toClientId The end of the range (exclusive).
+     * @param summaries The new summaries of the range.
+     */
+    public void replaceRange(int fromClientId, int toClientId, List<ClientOrderSummary> summaries) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement delete = connection.prepareStatement(DELETE_RANGE_QUERY);
+             PreparedStatement insert = connection.prepareStatement(INSERT_QUERY)) {
+
+            delete.setInt(1, fromClientId);
+            delete.setInt(2, toClientId);
+            delete.executeUpdate();
+
+            for (ClientOrderSummary summary : summaries) {
+                insert.setInt(1, summary.clientId());
+                insert.setInt(2, summary.orderCount());
+                insert.setLong(3, summary.totalQuantity());
+                insert.setDouble(4, summary.totalSpend());
+                insert.setInt(5, summary.lastOrderId());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "ClientSummaryDAO:replaceRange " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+    }
+
+    /**
+     * Returns the highest client ID found in the client, summary or order table, so a range up to it covers
+     * every stored summary, including those of clients that were deleted or have no orders.
+     * @return The highest client ID, or 0 if all three tables are empty.
+     */
+    public int findMaxClientId() {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MAX_CLIENT_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            if (resultSet.next()) {
+                return resultSet.getInt(1);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "ClientSummaryDAO:findMaxClientId " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return 0;
+    }
+
+    private List<ClientOrderSummary> queryRange(String query, int fromClientId, int toClientId, String operation) {
+        List<ClientOrderSummary> list = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+
+            statement.setInt(1, fromClientId);
+            statement.setInt(2, toClientId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    list.add(read(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "ClientSummaryDAO:" + operation + " " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return list;
+    }
+
+    private ClientOrderSummary read(ResultSet resultSet) throws SQLException {
+        return new ClientOrderSummary(resultSet.getInt(1), resultSet.getInt(2), resultSet.getLong(3),
+                resultSet.getDouble(4), resultSet.getInt(5));
+    }
+}
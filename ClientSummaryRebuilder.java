@@ -0,0 +1,166 @@
+/**
+ * Recomputes the client_summary table from scratch in parallel chunks of client IDs.
+ * In verify mode it only compares the stored summaries with freshly computed ones and reports mismatches;
+ * in rebuild mode it also replaces each chunk, one SERIALIZABLE transaction per chunk.
+ * A chunk that fails with a serialization failure (SQLState 40001) is retried a few times before it counts as failed.
+ */
+package org.example.a3.BusinessLogic;
+
+import org.example.a3.Model.ClientOrderSummary;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.ClientSummaryDAO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ClientSummaryRebuilder {
+    private static final Logger LOGGER = Logger.getLogger(ClientSummaryRebuilder.class.getName());
+    private static final int DEFAULT_CHUNK_SIZE = 5_000;
+    private static final double SPEND_TOLERANCE = 0.005;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    /**
+     * Outcome of a verification or rebuild run.
+     * @param chunks The number of client ID chunks processed.
+     * @param clients The number of clients with orders found in the source tables.
+     * @param mismatches The number of clients whose stored summary differed from the computed one.
+     * @param failedChunks The number of chunks that could not be processed.
+     */
+    public record Report(int chunks, int clients, int mismatches, int failedChunks) {
+    }
+
+    private final ClientSummaryDAO clientSummaryDAO;
+    private final int chunkSize;
+    private final int parallelism;
+
+    /**
+     * Constructs a ClientSummaryRebuilder using one worker per available processor.
+     * @param clientSummaryDAO The DAO used to read and write summaries.
+     */
+    public ClientSummaryRebuilder(ClientSummaryDAO clientSummaryDAO) {
+        this(clientSummaryDAO, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a ClientSummaryRebuilder.
+     * @param clientSummaryDAO The DAO used to read and write summaries.
+     * @param chunkSize The number of client IDs per chunk.
+     * @param parallelism The number of chunks processed concurrently.
+     */
+    public ClientSummaryRebuilder(ClientSummaryDAO clientSummaryDAO, int chunkSize, int parallelism) {
+        this.clientSummaryDAO = clientSummaryDAO;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Compares every stored summary with one recomputed from the order and log tables, without writing.
+     * @return The verification report.
+     */
+    public Report verify() {
+        return run(false);
+    }
+
+    /**
+     * Recomputes every summary and replaces the stored ones.
+     * @return The rebuild report; mismatches counts the summaries that were corrected.
+     */
+    public Report rebuild() {
+        return run(true);
+    }
+
+    private Report run(boolean replace) {
+        int maxClientId = clientSummaryDAO.findMaxClientId();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int from = 0; from <= maxClientId; from += chunkSize) {
+                int chunkFrom = from;
+                int chunkTo = from + chunkSize;
+                futures.add(executor.submit(() -> processChunk(chunkFrom, chunkTo, replace)));
+            }
+
+            int clients = 0;
+            int mismatches = 0;
+            int failed = 0;
+            for (Future<int[]> future : futures) {
+                try {
+                    int[] result = future.get();
+                    clients += result[0];
+                    mismatches += result[1];
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Client summary chunk failed: " + e.getCause().getMessage());
+                    failed++;
+                }
+            }
+            return new Report(futures.size(), clients, mismatches, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Client summary rebuild was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Processes one chunk of client IDs, retrying it when its transaction hit a serialization failure.
+     * @return {clients computed, mismatching summaries}
+     */
+    private int[] processChunk(int fromClientId, int toClientId, boolean replace) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return processChunkOnce(fromClientId, toClientId, replace);
+            } catch (TransactionException e) {
+                if (!SERIALIZATION_FAILURE.equals(e.getSQLState()) || attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.log(Level.FINE, "Retrying client summary chunk " + fromClientId + " after a serialization failure");
+            }
+        }
+    }
+
+    /**
+     * Compares, and in rebuild mode replaces, one chunk in a single SERIALIZABLE transaction.
+     */
+    private int[] processChunkOnce(int fromClientId, int toClientId, boolean replace) {
+        return TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                TransactionManager.Isolation.SERIALIZABLE, !replace, () -> {
+                    List<ClientOrderSummary> computed = clientSummaryDAO.computeRange(fromClientId, toClientId);
+                    Map<Integer, ClientOrderSummary> stored = new HashMap<>();
+                    for (ClientOrderSummary summary : clientSummaryDAO.findRange(fromClientId, toClientId)) {
+                        stored.put(summary.clientId(), summary);
+                    }
+
+                    int mismatches = 0;
+                    for (ClientOrderSummary summary : computed) {
+                        if (!matches(summary, stored.remove(summary.clientId()))) {
+                            mismatches++;
+                        }
+                    }
+                    mismatches += stored.size(); // summaries of clients that no longer have orders
+
+                    if (replace && mismatches > 0) {
+                        clientSummaryDAO.replaceRange(fromClientId, toClientId, computed);
+                    }
+                    return new int[]{computed.size(), mismatches};
+                });
+    }
+
+    private static boolean matches(ClientOrderSummary expected, ClientOrderSummary actual) {
+        return actual != null
+                && expected.orderCount() == actual.orderCount()
+                && expected.totalQuantity() == actual.totalQuantity()
+                && expected.lastOrderId() == actual.lastOrderId()
+                && Math.abs(expected.totalSpend() - actual.totalSpend()) < SPEND_TOLERANCE;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Maps a field to a column and fixes its position among the mapped columns.
+ * Columns are ordered by order() and then by field name, so the mapping never depends on
+ * the order in which the JVM reports declared fields. The id column always comes first.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Column {
+    /**
+     * The column name; empty means the field name.
+     * @return The column name.
+     */
+    String value() default "";
+
+    /**
+     * The position of the column among the mapped columns.
+     * @return The column order.
+     */
+    int order() default Integer.MAX_VALUE;
+}
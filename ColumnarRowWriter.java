@@ -0,0 +1,225 @@
+/**
+ * Writes rows in a compact columnar binary layout, a dependency-free stand-in for Parquet that keeps its
+ * main property: the values of a column are stored contiguously per row group, so a reader can load
+ * or skip whole columns, and numbers are stored as fixed-width binary instead of text.
+ * All integers are little-endian.
+ * <pre>
+ * file   := MAGIC group* footer footerLength:int MAGIC
+ * group  := rowCount:int { nullBitmapLength:int nullBitmap dataLength:int data } per column
+ * data   := INT: 4 bytes per row, LONG and DOUBLE: 8 bytes per row, TEXT: length:int + UTF-8 bytes per row
+ * footer := columnCount:int { type:byte nameLength:int name } groupCount:int { offset:long rowCount:int }
+ * </pre>
+ * Bit i of the null bitmap is set when row i is NULL; a bitmap length of 0 means the column has no NULLs in
+ * the group. NULL values still occupy their slot in the data (zero, or an empty string).
+ * Column buffers are allocated once and reused for every row group.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+final class ColumnarRowWriter implements RowWriter {
+    static final byte[] MAGIC = {'A', '3', 'C', 'O', 'L', '1', 0, 0};
+
+    private static final int ROW_GROUP_ROWS = 64 * 1024;
+    private static final int ROW_GROUP_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * The buffered values of one column in the current row group.
+     */
+    private static final class Chunk {
+        private final ExportColumn.Type type;
+        private final byte[] nulls = new byte[ROW_GROUP_ROWS / 8];
+        private final ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer dataHeader = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        private ByteBuffer data;
+        private boolean hasNulls;
+
+        private Chunk(ExportColumn.Type type) {
+            this.type = type;
+            int width = type == ExportColumn.Type.INT ? 4 : 8;
+            this.data = ByteBuffer.allocate(ROW_GROUP_ROWS * width).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void setNull(int row) {
+            nulls[row >> 3] |= (byte) (1 << (row & 7));
+            hasNulls = true;
+        }
+
+        private void ensure(int bytes) {
+            if (data.remaining() < bytes) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(data.capacity() * 2, data.position() + bytes))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                data.flip();
+                grown.put(data);
+                data = grown;
+            }
+        }
+
+        private void reset() {
+            data.clear();
+            if (hasNulls) {
+                Arrays.fill(nulls, (byte) 0);
+                hasNulls = false;
+            }
+        }
+    }
+
+    private final List<ExportColumn> columns;
+    private final Chunk[] chunks;
+    private final ExportFiles files;
+    private final ByteBuffer groupHeader = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer[] gather;
+
+    private int rows;
+    private long buffered;
+    private long[] groupOffsets = new long[16];
+    private int[] groupRows = new int[16];
+    private int groups;
+
+    ColumnarRowWriter(ExportTable table, ExportFiles files) {
+        this.columns = table.columns();
+        this.chunks = new Chunk[columns.size()];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(columns.get(i).type());
+        }
+        this.files = files;
+        this.gather = new ByteBuffer[1 + 4 * chunks.length];
+    }
+
+    @Override
+    public void write(ResultSet resultSet) throws SQLException, IOException {
+        if (!files.isOpen()) {
+            startPart();
+        }
+        long before = 0;
+        long after = 0;
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk chunk = chunks[i];
+            before += chunk.data.position();
+            switch (chunk.type) {
+                case INT -> {
+                    chunk.ensure(4);
+                    chunk.data.putInt(resultSet.getInt(i + 1));
+                }
+                case LONG -> {
+                    chunk.ensure(8);
+                    chunk.data.putLong(resultSet.getLong(i + 1));
+                }
+                case DOUBLE -> {
+                    chunk.ensure(8);
+                    chunk.data.putDouble(resultSet.getDouble(i + 1));
+                }
+                case TEXT -> {
+                    String value = resultSet.getString(i + 1);
+                    int length = value == null ? 0 : Utf8.length(value);
+                    chunk.ensure(4 + length + Utf8.MAX_BYTES_PER_CHAR);
+                    chunk.data.putInt(length);
+                    for (int c = 0; value != null && c < value.length(); ) {
+                        c = Utf8.put(chunk.data, value, c);
+                    }
+                }
+            }
+            if (resultSet.wasNull()) {
+                chunk.setNull(rows);
+            }
+            after += chunk.data.position();
+        }
+        rows++;
+        buffered += after - before;
+
+        if (rows == ROW_GROUP_ROWS || buffered >= ROW_GROUP_BYTES || files.isFull(buffered)) {
+            writeGroup();
+            if (files.isFull(0)) {
+                finishPart();
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (files.files().isEmpty()) {
+            startPart(); // an empty table still gets a file with the schema
+        }
+        if (files.isOpen()) {
+            if (rows > 0) {
+                writeGroup();
+            }
+            finishPart();
+        }
+    }
+
+    private void startPart() throws IOException {
+        files.openPart();
+        files.write(ByteBuffer.wrap(MAGIC));
+        groups = 0;
+    }
+
+    private void writeGroup() throws IOException {
+        if (groups == groupOffsets.length) {
+            groupOffsets = Arrays.copyOf(groupOffsets, groups * 2);
+            groupRows = Arrays.copyOf(groupRows, groups * 2);
+        }
+        groupOffsets[groups] = files.partBytes();
+        groupRows[groups] = rows;
+        groups++;
+
+        int bitmapLength = (rows + 7) / 8;
+        groupHeader.clear();
+        groupHeader.putInt(rows).flip();
+        gather[0] = groupHeader;
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk chunk = chunks[i];
+            int nullBytes = chunk.hasNulls ? bitmapLength : 0;
+            chunk.header.clear();
+            chunk.header.putInt(nullBytes).flip();
+            chunk.data.flip();
+            chunk.dataHeader.clear();
+            chunk.dataHeader.putInt(chunk.data.remaining()).flip();
+            gather[1 + 4 * i] = chunk.header;
+            gather[2 + 4 * i] = ByteBuffer.wrap(chunk.nulls, 0, nullBytes);
+            gather[3 + 4 * i] = chunk.dataHeader;
+            gather[4 + 4 * i] = chunk.data;
+        }
+        files.write(gather);
+
+        for (Chunk chunk : chunks) {
+            chunk.reset();
+        }
+        rows = 0;
+        buffered = 0;
+    }
+
+    private void finishPart() throws IOException {
+        byte[][] names = new byte[columns.size()][];
+        int size = 4 + 4 + groups * 12;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = columns.get(i).name().getBytes(StandardCharsets.UTF_8);
+            size += 1 + 4 + names[i].length;
+        }
+
+        ByteBuffer footer = ByteBuffer.allocate(size + 4 + MAGIC.length).order(ByteOrder.LITTLE_ENDIAN);
+        footer.putInt(names.length);
+        for (int i = 0; i < names.length; i++) {
+            footer.put((byte) columns.get(i).type().ordinal());
+            footer.putInt(names[i].length);
+            footer.put(names[i]);
+        }
+        footer.putInt(groups);
+        for (int g = 0; g < groups; g++) {
+            footer.putLong(groupOffsets[g]);
+            footer.putInt(groupRows[g]);
+        }
+        footer.putInt(size);
+        footer.put(MAGIC);
+        footer.flip();
+        files.write(footer);
+        files.closePart();
+    }
+}
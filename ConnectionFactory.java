@@ -51,12 +51,35 @@ public class ConnectionFactory {
 
     /**
      * Retrieves a database connection from the singleton instance.
+     * Inside a TransactionManager scope this returns the scope's connection, whose close() is a no-op,
+     * so DAOs can keep closing what they get without ending the transaction.
      * @return A database Connection.
      */
     public static Connection getConnection() {
+        Connection bound = TransactionManager.currentConnection();
+        if (bound != null) {
+            return bound;
+        }
         return singleInstance.createConnection();
     }
 
+    /**
+     * Opens a physical connection regardless of any active transaction scope.
+     * Used by TransactionManager to start a new transaction.
+     * @return A new Connection object, or null if a connection error occurs.
+     */
+    static Connection openConnection() {
+        return singleInstance.createConnection();
+    }
+
+    /**
+     * Releases a physical connection previously obtained through openConnection().
+     * @param connection The Connection to release.
+     */
+    static void release(Connection connection) {
+        close(connection);
+    }
+
     /**
      * Closes a database connection.
      * @param connection The Connection to close.
@@ -4,6 +4,7 @@
  */
 package org.example.a3.presentation;
 
+import org.example.a3.BusinessLogic.ApplicationContext;
 import org.example.a3.BusinessLogic.ClientBLL;
 import org.example.a3.BusinessLogic.OrderBLL;
 import org.example.a3.BusinessLogic.ProductBLL;
@@ -20,12 +21,13 @@ public class Controller {
 
     /**
      * Constructs a new Controller instance.
-     * Initializes the Business Logic Layer components.
+     * Uses the shared Business Logic Layer components of the ApplicationContext.
      */
     public Controller() {
-        this.clientBLL = new ClientBLL();
-        this.productBLL = new ProductBLL();
-        this.orderBLL = new OrderBLL();
+        ApplicationContext context = ApplicationContext.get();
+        this.clientBLL = context.clientBLL();
+        this.productBLL = context.productBLL();
+        this.orderBLL = context.orderBLL();
     }
 
     /**
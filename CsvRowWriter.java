@@ -0,0 +1,179 @@
+/**
+ * Writes rows as RFC 4180 CSV with a header line at the top of every part file.
+ * Values are encoded directly into a reusable direct buffer that is flushed to the file channel when it
+ * fills up: integers are written digit by digit, text is escaped and UTF-8 encoded character by character.
+ * NULL values are written as empty fields.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+final class CsvRowWriter implements RowWriter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_NUMBER_LENGTH = 32;
+
+    private final List<ExportColumn> columns;
+    private final ExportColumn.Type[] types;
+    private final ExportFiles files;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder number = new StringBuilder(MAX_NUMBER_LENGTH);
+    private final byte[] digits = new byte[20];
+
+    CsvRowWriter(ExportTable table, ExportFiles files) {
+        this.columns = table.columns();
+        this.types = new ExportColumn.Type[columns.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = columns.get(i).type();
+        }
+        this.files = files;
+    }
+
+    @Override
+    public void write(ResultSet resultSet) throws SQLException, IOException {
+        if (!files.isOpen()) {
+            startPart();
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                ensure(1);
+                buffer.put((byte) ',');
+            }
+            switch (types[i]) {
+                case INT -> {
+                    int value = resultSet.getInt(i + 1);
+                    if (!resultSet.wasNull()) {
+                        putLong(value);
+                    }
+                }
+                case LONG -> {
+                    long value = resultSet.getLong(i + 1);
+                    if (!resultSet.wasNull()) {
+                        putLong(value);
+                    }
+                }
+                case DOUBLE -> {
+                    double value = resultSet.getDouble(i + 1);
+                    if (!resultSet.wasNull()) {
+                        putDouble(value);
+                    }
+                }
+                case TEXT -> {
+                    String value = resultSet.getString(i + 1);
+                    if (value != null) {
+                        putText(value);
+                    }
+                }
+            }
+        }
+        ensure(2);
+        buffer.put((byte) '\r').put((byte) '\n');
+
+        if (files.isFull(buffer.position())) {
+            flush();
+            files.closePart();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (files.files().isEmpty()) {
+            startPart(); // an empty table still gets a file with the header
+        }
+        if (files.isOpen()) {
+            flush();
+            files.closePart();
+        }
+    }
+
+    private void startPart() throws IOException {
+        files.openPart();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                ensure(1);
+                buffer.put((byte) ',');
+            }
+            putText(columns.get(i).name());
+        }
+        ensure(2);
+        buffer.put((byte) '\r').put((byte) '\n');
+    }
+
+    private void putLong(long value) throws IOException {
+        ensure(MAX_NUMBER_LENGTH);
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (n > 0) {
+            buffer.put(digits[--n]);
+        }
+    }
+
+    private void putDouble(double value) throws IOException {
+        ensure(MAX_NUMBER_LENGTH);
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            putLong((long) value);
+            return;
+        }
+        number.setLength(0);
+        number.append(value);
+        for (int i = 0; i < number.length(); i++) {
+            buffer.put((byte) number.charAt(i));
+        }
+    }
+
+    private void putAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+    }
+
+    private void putText(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (quote) {
+            ensure(1);
+            buffer.put((byte) '"');
+        }
+        int i = 0;
+        while (i < value.length()) {
+            ensure(Utf8.MAX_BYTES_PER_CHAR + 1);
+            if (value.charAt(i) == '"') {
+                buffer.put((byte) '"');
+            }
+            i = Utf8.put(buffer, value, i);
+        }
+        if (quote) {
+            ensure(1);
+            buffer.put((byte) '"');
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        files.write(buffer);
+        buffer.clear();
+    }
+}
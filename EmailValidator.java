@@ -5,6 +5,8 @@
 package org.example.a3.BusinessLogic.validators;
 
 import org.example.a3.Model.Client;
+
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 public class EmailValidator implements Validator<Client> {
@@ -20,12 +22,28 @@ public class EmailValidator implements Validator<Client> {
 
     @Override
     public void validate(Client client) {
+        String violation = violation(client);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation);
+        }
+    }
+
+    @Override
+    public void check(Client client, Consumer<String> violations) {
+        String violation = violation(client);
+        if (violation != null) {
+            violations.accept(violation);
+        }
+    }
+
+    private static String violation(Client client) {
         String email = client.getEmail();
         if (email == null || email.isEmpty()) {
-            throw new IllegalArgumentException("Email address cannot be empty.");
+            return "Email address cannot be empty.";
         }/*
         if (!EMAIL_PATTERN.matcher(email).matches()) {
-            throw new IllegalArgumentException("Invalid email address format! Please use a format like 'user@example.com'.");
+            return "Invalid email address format! Please use a format like 'user@example.com'.";
         }*/
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+/**
+ * Describes how a model class is stored in its table and how to move values between
+ * objects and JDBC statements/result sets.
+ * AbstractDAO performs every operation through a mapping: either one generated at compile time
+ * by MappingProcessor (direct getter/setter calls) or the ReflectiveMapping fallback.
+ * Column index 0 is always the id column; the column order is fixed by EntityMetadata.
+ * @param <T> The model type being mapped.
+ */
+package org.example.a3.dao.mapping;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface EntityMapping<T> {
+    /**
+     * Returns the mapped model class.
+     * @return The model class.
+     */
+    Class<T> type();
+
+    /**
+     * Returns the table name, already quoted if it is a reserved word.
+     * @return The SQL table name.
+     */
+    String table();
+
+    /**
+     * Returns the column names in mapping order; index 0 is the id column.
+     * @return A fresh array of column names.
+     */
+    String[] columns();
+
+    /**
+     * Returns the index of the optimistic-locking version column.
+     * @return The version column index, or -1 if the model is not versioned.
+     */
+    int versionColumn();
+
+    /**
+     * Returns true if the id column is generated by the database and therefore left out of INSERTs.
+     * @return Whether the id is database-generated.
+     */
+    boolean generatedId();
+
+    /**
+     * Creates an object from the current row of a result set.
+     * The result set must contain exactly the mapped columns, in column order.
+     * @param resultSet The result set, positioned on a row.
+     * @return The mapped object.
+     * @throws SQLException if a column cannot be read.
+     */
+    T read(ResultSet resultSet) throws SQLException;
+
+    /**
+     * Returns the values of all mapped columns of an object, in column order.
+     * @param t The object to read.
+     * @return A fresh array of column values.
+     */
+    Object[] values(T t);
+
+    /**
+     * Binds one column value of an object to a statement parameter.
+     * @param statement The statement to bind to.
+     * @param parameterIndex The 1-based parameter index.
+     * @param t The object holding the value.
+     * @param column The column index.
+     * @throws SQLException if the parameter cannot be set.
+     */
+    void bind(PreparedStatement statement, int parameterIndex, T t, int column) throws SQLException;
+
+    /**
+     * Returns the id of an object.
+     * @param t The object to read.
+     * @return The id.
+     */
+    int getId(T t);
+
+    /**
+     * Stores a database-generated id into an object.
+     * @param t The object to update.
+     * @param id The generated id.
+     */
+    void setId(T t, int id);
+
+    /**
+     * Stores a new optimistic-locking version into an object.
+     * @param t The object to update.
+     * @param version The new version.
+     * @throws UnsupportedOperationException if the model is not versioned.
+     */
+    void setVersion(T t, int version);
+}
@@ -0,0 +1,52 @@
+/**
+ * Registry resolving the EntityMapping of each model class once per JVM.
+ * Prefers the class generated by MappingProcessor and falls back to ReflectiveMapping.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class EntityMappings {
+    private static final Logger LOGGER = Logger.getLogger(EntityMappings.class.getName());
+
+    /** Suffix appended to the model class name by MappingProcessor. */
+    public static final String GENERATED_SUFFIX = "_Mapping";
+
+    private static final Map<Class<?>, EntityMapping<?>> MAPPINGS = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private EntityMappings() {}
+
+    /**
+     * Returns the mapping for the given model class, creating it on first use.
+     * @param type The model class.
+     * @param <T> The model type.
+     * @return The shared mapping instance.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMapping<T> forType(Class<T> type) {
+        return (EntityMapping<T>) MAPPINGS.computeIfAbsent(type, EntityMappings::create);
+    }
+
+    private static <T> EntityMapping<T> create(Class<T> type) {
+        String generatedName = type.getName() + GENERATED_SUFFIX;
+        try {
+            Class<?> generated = Class.forName(generatedName, true, type.getClassLoader());
+            @SuppressWarnings("unchecked")
+            EntityMapping<T> mapping = (EntityMapping<T>) generated.getDeclaredConstructor().newInstance();
+            LOGGER.log(Level.FINE, "Using generated mapping " + generatedName);
+            return mapping;
+        } catch (ClassNotFoundException e) {
+            LOGGER.log(Level.FINE, "No generated mapping for " + type.getName() + ", using reflection");
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(Level.WARNING, "Could not instantiate generated mapping " + generatedName + ", using reflection", e);
+        }
+        return new ReflectiveMapping<>(type);
+    }
+}
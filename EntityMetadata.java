@@ -0,0 +1,181 @@
+/**
+ * Table mapping of a model class, resolved once from the @Table, @Id, @Column, @Transient and
+ * @Generated annotations and cached for the lifetime of the JVM.
+ * The id column is always at index 0; the other columns follow in @Column order, then by field name.
+ * MappingProcessor applies the same rules at compile time, so generated and reflective mappings agree.
+ * @param <T> The model type being described.
+ */
+package org.example.a3.dao.mapping;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class EntityMetadata<T> {
+    private static final Logger LOGGER = Logger.getLogger(EntityMetadata.class.getName());
+
+    /** Name of the int field that enables optimistic locking. */
+    public static final String VERSION_FIELD = "version";
+
+    private static final Map<Class<?>, EntityMetadata<?>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * A mapped field with its column name and setter.
+     */
+    public static final class Property {
+        private final Field field;
+        private final String column;
+        private final Method setter;
+        private final int order;
+
+        private Property(Field field, String column, Method setter, int order) {
+            this.field = field;
+            this.column = column;
+            this.setter = setter;
+            this.order = order;
+        }
+
+        /**
+         * Returns the accessible field backing this column.
+         * @return The field.
+         */
+        public Field getField() { return field; }
+
+        /**
+         * Returns the column name.
+         * @return The column name.
+         */
+        public String getColumn() { return column; }
+
+        /**
+         * Returns the setter used to populate the field, or null if there is none.
+         * @return The setter method.
+         */
+        public Method getSetter() { return setter; }
+    }
+
+    private final Class<T> type;
+    private final String table;
+    private final List<Property> properties;
+    private final int versionColumn;
+    private final boolean generatedId;
+
+    private EntityMetadata(Class<T> type) {
+        this.type = type;
+
+        Table tableAnnotation = type.getAnnotation(Table.class);
+        String name = tableAnnotation == null ? type.getSimpleName().toLowerCase() : tableAnnotation.value();
+        this.table = tableAnnotation != null && tableAnnotation.quoted() ? "\"" + name + "\"" : name;
+
+        Property id = null;
+        boolean generated = false;
+        List<Property> columns = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || field.isAnnotationPresent(Transient.class)) {
+                continue;
+            }
+            field.setAccessible(true);
+            Column column = field.getAnnotation(Column.class);
+            String columnName = column == null || column.value().isEmpty() ? field.getName() : column.value();
+            int order = column == null ? Integer.MAX_VALUE : column.order();
+            Property property = new Property(field, columnName, findSetter(type, field), order);
+
+            if (field.isAnnotationPresent(Id.class) || (id == null && field.getName().equals("id") && !hasIdAnnotation(type))) {
+                if (field.getType() != int.class) {
+                    throw new IllegalArgumentException("The id of " + type.getName() + " must be an int.");
+                }
+                id = property;
+                generated = field.isAnnotationPresent(Generated.class) || !field.isAnnotationPresent(Id.class);
+            } else {
+                columns.add(property);
+            }
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("No @Id field found in " + type.getName());
+        }
+
+        columns.sort(Comparator.comparingInt((Property p) -> p.order).thenComparing(p -> p.field.getName()));
+        columns.add(0, id);
+        this.properties = Collections.unmodifiableList(columns);
+        this.generatedId = generated;
+
+        int version = -1;
+        for (int i = 1; i < columns.size(); i++) {
+            Field field = columns.get(i).field;
+            if (field.getName().equals(VERSION_FIELD) && field.getType() == int.class) {
+                version = i;
+            }
+        }
+        this.versionColumn = version;
+    }
+
+    /**
+     * Returns the metadata of the given model class, resolving it on first use.
+     * @param type The model class.
+     * @param <T> The model type.
+     * @return The shared metadata instance.
+     * @throws IllegalArgumentException if the class has no usable id field.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMetadata<T> of(Class<T> type) {
+        return (EntityMetadata<T>) CACHE.computeIfAbsent(type, EntityMetadata::new);
+    }
+
+    /**
+     * Returns the mapped model class.
+     * @return The model class.
+     */
+    public Class<T> getType() { return type; }
+
+    /**
+     * Returns the table name, quoted if requested by @Table.
+     * @return The SQL table name.
+     */
+    public String getTable() { return table; }
+
+    /**
+     * Returns the mapped properties in column order; index 0 is the id.
+     * @return An unmodifiable list of properties.
+     */
+    public List<Property> getProperties() { return properties; }
+
+    /**
+     * Returns the index of the optimistic-locking version column.
+     * @return The version column index, or -1 if the model is not versioned.
+     */
+    public int getVersionColumn() { return versionColumn; }
+
+    /**
+     * Returns true if the id is generated by the database.
+     * @return Whether the id is database-generated.
+     */
+    public boolean isGeneratedId() { return generatedId; }
+
+    private static boolean hasIdAnnotation(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Id.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Method findSetter(Class<?> type, Field field) {
+        try {
+            return new PropertyDescriptor(field.getName(), type).getWriteMethod();
+        } catch (IntrospectionException e) {
+            LOGGER.log(Level.WARNING, "No setter for field " + field.getName() + " of " + type.getName());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Small thread-safe cache whose entries expire a fixed time after they were added.
+ * Entries are kept in insertion order, which with a fixed time-to-live is also expiry order, so expired
+ * entries are purged from the head in constant time per entry; once the size limit is reached the oldest
+ * entry is evicted.
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+package org.example.a3.BusinessLogic;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ExpiringCache<K, V> {
+
+    /**
+     * A cached value and the time it expires.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtNanos;
+
+        private Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * Constructs an ExpiringCache.
+     * @param maxSize The maximum number of entries kept.
+     * @param ttl How long an entry stays in the cache after it was added.
+     */
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for a key.
+     * @param key The key.
+     * @return The value, or null if the key is absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos - System.nanoTime() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Adds or replaces a value; a replaced value restarts its time-to-live.
+     * @param key The key.
+     * @param value The value.
+     */
+    public synchronized void put(K key, V value) {
+        long now = System.nanoTime();
+        purgeExpired(now);
+        entries.remove(key);
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+    }
+
+    /**
+     * Removes a key.
+     * @param key The key.
+     */
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Returns the number of entries, including expired ones not purged yet.
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAtNanos - now <= 0) {
+            iterator.remove();
+        }
+    }
+}
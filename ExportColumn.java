@@ -0,0 +1,23 @@
+/**
+ * A column of an exported table.
+ * @param name The column name written to the output.
+ * @param type How the column is read and encoded.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+public record ExportColumn(String name, Type type) {
+
+    /**
+     * Column types; each has a fixed-width or length-prefixed encoding in the columnar format.
+     */
+    public enum Type {
+        /** 32-bit integer. */
+        INT,
+        /** 64-bit integer. */
+        LONG,
+        /** 64-bit floating point number. */
+        DOUBLE,
+        /** UTF-8 text. */
+        TEXT
+    }
+}
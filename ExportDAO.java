@@ -0,0 +1,121 @@
+/**
+ * Data Access Object that streams the rows of an export query to a handler.
+ * The query runs in its own read-only transaction with a fetch size, so the driver reads the rows through a
+ * server-side cursor instead of materializing the whole table; the handler reads each row in place.
+ * Several queries, possibly on different threads, read one consistent state of the database when they run
+ * inside withSnapshot() and pass its PostgreSQL snapshot id, which each transaction adopts before its query.
+ * It does NOT extend AbstractDAO: it serves arbitrary export queries and creates no model objects.
+ */
+package org.example.a3.dao;
+
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.connection.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ExportDAO {
+    protected static final Logger LOGGER = Logger.getLogger(ExportDAO.class.getName());
+    private static final int FETCH_SIZE = 5_000;
+    private static final String EXPORT_SNAPSHOT_QUERY = "SELECT pg_export_snapshot()";
+
+    /**
+     * Receives the rows of an export query. The ResultSet is positioned on the current row and must not be
+     * advanced or kept after the call returns.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Handles one row.
+         * @param resultSet The result set, positioned on the row.
+         * @throws SQLException if a column cannot be read.
+         */
+        void row(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Opens a read-only REPEATABLE READ transaction, exports its snapshot and runs the work with the snapshot id
+     * while the transaction stays open, so streams started with that id see exactly the same data.
+     * @param work Receives the snapshot id; it must finish every stream using it before returning.
+     * @param <R> The result type.
+     * @return The value returned by the work.
+     * @throws org.example.a3.connection.TransactionException if the snapshot could not be exported.
+     */
+    public <R> R withSnapshot(Function<String, R> work) {
+        return TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                TransactionManager.Isolation.REPEATABLE_READ, true, () -> {
+                    String snapshot = null;
+                    try (Connection connection = ConnectionFactory.getConnection();
+                         Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(EXPORT_SNAPSHOT_QUERY)) {
+                        if (resultSet.next()) {
+                            snapshot = resultSet.getString(1);
+                        }
+                    } catch (SQLException e) {
+                        LOGGER.log(Level.WARNING, "ExportDAO:withSnapshot " + e.getMessage());
+                        TransactionManager.setRollbackOnly(e);
+                    }
+                    if (snapshot == null) {
+                        throw new TransactionException("Could not export a snapshot.");
+                    }
+                    return work.apply(snapshot);
+                });
+    }
+
+    /**
+     * Runs a query and hands each row to the handler.
+     * @param query The SELECT statement; only trusted, fixed queries may be passed.
+     * @param handler Receives every row, in query order.
+     * @return The number of rows streamed.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public long stream(String query, RowHandler handler) {
+        return stream(query, null, handler);
+    }
+
+    /**
+     * Runs a query on a snapshot exported by withSnapshot() and hands each row to the handler.
+     * @param query The SELECT statement; only trusted, fixed queries may be passed.
+     * @param snapshot The snapshot id from withSnapshot(), or null to read the current state.
+     * @param handler Receives every row, in query order.
+     * @return The number of rows streamed.
+     * @throws IllegalArgumentException if the snapshot id is malformed.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public long stream(String query, String snapshot, RowHandler handler) {
+        if (snapshot != null && !snapshot.matches("[0-9A-Fa-f-]+")) {
+            throw new IllegalArgumentException("Invalid snapshot id: " + snapshot);
+        }
+        return TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                TransactionManager.Isolation.REPEATABLE_READ, true, () -> {
+                    long rows = 0;
+                    try (Connection connection = ConnectionFactory.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(query)) {
+
+                        if (snapshot != null) {
+                            try (Statement set = connection.createStatement()) {
+                                set.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'"); // must precede the query
+                            }
+                        }
+                        statement.setFetchSize(FETCH_SIZE);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                handler.row(resultSet);
+                                rows++;
+                            }
+                        }
+                    } catch (SQLException e) {
+                        LOGGER.log(Level.WARNING, "ExportDAO:stream " + e.getMessage());
+                        TransactionManager.setRollbackOnly(e);
+                    }
+                    return rows;
+                });
+    }
+}
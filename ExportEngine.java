@@ -0,0 +1,117 @@
+/**
+ * Exports tables to CSV or columnar files, streaming each table through a server-side cursor so memory use
+ * stays constant regardless of table size. Tables are exported in parallel, each in its own read-only
+ * transaction and on its own thread, all reading one exported database snapshot, so the files are consistent
+ * with each other (e.g. no bill without its order); output is split into part files of a bounded size.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import org.example.a3.dao.ExportDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ExportEngine {
+    private static final Logger LOGGER = Logger.getLogger(ExportEngine.class.getName());
+
+    private final ExportDAO exportDAO;
+
+    /**
+     * Constructs an ExportEngine.
+     * @param exportDAO The DAO used to stream the tables.
+     */
+    public ExportEngine(ExportDAO exportDAO) {
+        this.exportDAO = exportDAO;
+    }
+
+    /**
+     * Exports the given tables into a directory.
+     * @param tables The tables to export; each one is written to its own series of part files.
+     * @param format The output format.
+     * @param directory The target directory; created if missing. Existing part files with the same names are overwritten.
+     * @param maxFileBytes The size after which output rolls over to a new part file; 0 for a single file per table.
+     * @return One result per table, in the order given.
+     * @throws IllegalStateException if a table could not be read or written.
+     * @throws org.example.a3.connection.TransactionException if the database snapshot could not be exported.
+     */
+    public List<ExportResult> export(List<ExportTable> tables, ExportFormat format, Path directory, long maxFileBytes) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create export directory " + directory, e);
+        }
+
+        return exportDAO.withSnapshot(snapshot -> exportAll(tables, format, directory, maxFileBytes, snapshot));
+    }
+
+    /**
+     * Exports every table on its own thread, all from the given snapshot, and waits for them.
+     */
+    private List<ExportResult> exportAll(List<ExportTable> tables, ExportFormat format, Path directory,
+                                         long maxFileBytes, String snapshot) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, tables.size()), r -> {
+            Thread thread = new Thread(r, "export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<ExportResult>> futures = new ArrayList<>();
+            for (ExportTable table : tables) {
+                futures.add(executor.submit(() -> exportTable(table, format, directory, maxFileBytes, snapshot)));
+            }
+
+            List<ExportResult> results = new ArrayList<>();
+            RuntimeException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Export of " + tables.get(i).name() + " failed: " + e.getCause().getMessage());
+                    if (failure == null) {
+                        failure = new IllegalStateException("Export of " + tables.get(i).name() + " failed", e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Export was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExportResult exportTable(ExportTable table, ExportFormat format, Path directory, long maxFileBytes,
+                                     String snapshot) throws IOException {
+        long start = System.nanoTime();
+        try (ExportFiles files = new ExportFiles(directory, table.name(), format, maxFileBytes)) {
+            RowWriter writer = RowWriter.of(format, table, files);
+            long rows = exportDAO.stream(table.query(), snapshot, resultSet -> {
+                try {
+                    writer.write(resultSet);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not write " + table.name() + ": " + e.getMessage(), e);
+                }
+            });
+            writer.finish();
+
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            LOGGER.info("Exported " + rows + " rows of " + table.name() + " into " + files.files().size()
+                    + " file(s), " + files.totalBytes() + " bytes in " + elapsed.toMillis() + " ms");
+            return new ExportResult(table.name(), rows, files.files(), files.totalBytes(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * The output files of one exported table: table-00001.ext, table-00002.ext, ...
+ * A writer rolls over to the next part once the current one has reached the maximum size; rolling only
+ * happens between rows (CSV) or row groups (columnar), so a part may overshoot the limit by one of those.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+final class ExportFiles implements AutoCloseable {
+    private final Path directory;
+    private final String baseName;
+    private final String extension;
+    private final long maxBytes;
+    private final List<Path> files = new ArrayList<>();
+
+    private FileChannel channel;
+    private long partBytes;
+    private long totalBytes;
+
+    ExportFiles(Path directory, String baseName, ExportFormat format, long maxBytes) {
+        this.directory = directory;
+        this.baseName = baseName;
+        this.extension = format.getExtension();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens the next part file; the previous one must have been finished with closePart().
+     */
+    void openPart() throws IOException {
+        Path path = directory.resolve(String.format("%s-%05d.%s", baseName, files.size() + 1, extension));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        files.add(path);
+        partBytes = 0;
+    }
+
+    boolean isOpen() {
+        return channel != null;
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the current part.
+     */
+    void write(ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        partBytes += length;
+        totalBytes += length;
+    }
+
+    /**
+     * Writes the remaining bytes of the buffers to the current part with one gathering write per pass.
+     */
+    void write(ByteBuffer[] buffers) throws IOException {
+        long length = 0;
+        for (ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        long written = 0;
+        while (written < length) {
+            written += channel.write(buffers);
+        }
+        partBytes += length;
+        totalBytes += length;
+    }
+
+    /**
+     * Returns the bytes written to the current part so far.
+     */
+    long partBytes() {
+        return partBytes;
+    }
+
+    /**
+     * Returns true if the current part, plus the given bytes still to be written, has reached the limit.
+     */
+    boolean isFull(long pendingBytes) {
+        return maxBytes > 0 && partBytes + pendingBytes >= maxBytes;
+    }
+
+    void closePart() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    List<Path> files() {
+        return List.copyOf(files);
+    }
+
+    long totalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closePart();
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * Output formats of the ExportEngine.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+public enum ExportFormat {
+    /** Comma-separated values with a header line in every file. */
+    CSV("csv"),
+    /** The compact columnar binary layout described in ColumnarRowWriter. */
+    COLUMNAR("a3col");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the file extension of the format.
+     * @return The extension, without the dot.
+     */
+    public String getExtension() { return extension; }
+}
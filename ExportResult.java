@@ -0,0 +1,17 @@
+/**
+ * Outcome of exporting one table.
+ * @param table The name of the table.
+ * @param rows The number of rows written.
+ * @param files The files written, in order.
+ * @param bytes The total size of the files.
+ * @param elapsed How long the export took.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+public record ExportResult(String table, long rows, List<Path> files, long bytes, Duration elapsed) {
+
+}
@@ -0,0 +1,28 @@
+/**
+ * A table to export: the query that streams it and the columns it returns, in select order.
+ * @param name The name used for the output files.
+ * @param query The SELECT statement.
+ * @param columns The selected columns.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.util.List;
+
+public record ExportTable(String name, String query, List<ExportColumn> columns) {
+
+    /** All orders, by id. */
+    public static final ExportTable ORDERS = new ExportTable("orders",
+            "SELECT id, clientId, productId, quantity, CAST(clientOrderId AS text) FROM \"order\" ORDER BY id",
+            List.of(new ExportColumn("id", ExportColumn.Type.INT),
+                    new ExportColumn("clientId", ExportColumn.Type.INT),
+                    new ExportColumn("productId", ExportColumn.Type.INT),
+                    new ExportColumn("quantity", ExportColumn.Type.INT),
+                    new ExportColumn("clientOrderId", ExportColumn.Type.TEXT)));
+
+    /** All bills of the log table, by bill id. */
+    public static final ExportTable BILLS = new ExportTable("bills",
+            "SELECT billId, orderId, totalAmount FROM log ORDER BY billId",
+            List.of(new ExportColumn("billId", ExportColumn.Type.INT),
+                    new ExportColumn("orderId", ExportColumn.Type.INT),
+                    new ExportColumn("totalAmount", ExportColumn.Type.DOUBLE)));
+}
@@ -0,0 +1,66 @@
+/**
+ * OutboxSink that appends each event as one JSON line to a file and forces it to disk before returning,
+ * for consumers that tail the file.
+ */
+package org.example.a3.BusinessLogic.outbox;
+
+import org.example.a3.Model.OutboxEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class FileOutboxSink implements OutboxSink, AutoCloseable {
+    private final FileChannel channel;
+
+    /**
+     * Constructs a FileOutboxSink, creating the file if needed and appending to it otherwise.
+     * @param file The file to append to.
+     * @throws IllegalStateException if the file cannot be opened.
+     */
+    public FileOutboxSink(Path file) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open outbox file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        StringBuilder lines = new StringBuilder(events.size() * 160);
+        for (OutboxEvent event : events) {
+            lines.append("{\"id\":").append(event.id())
+                    .append(",\"type\":\"").append(event.type())
+                    .append("\",\"aggregateId\":").append(event.aggregateId())
+                    .append(",\"createdAt\":\"").append(event.createdAt())
+                    .append("\",\"payload\":").append(event.payload())
+                    .append("}\n");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not append to the outbox file", e);
+        }
+    }
+
+    /**
+     * Closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close the outbox file", e);
+        }
+    }
+}
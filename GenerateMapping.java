@@ -0,0 +1,16 @@
+/**
+ * Marks a model class for which MappingProcessor generates an EntityMapping at compile time.
+ * The generated class is named after the model with a "_Mapping" suffix, lives in the model's package,
+ * and is picked up automatically by AbstractDAO; without it, AbstractDAO falls back to reflection.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateMapping {
+}
@@ -0,0 +1,15 @@
+/**
+ * Marks the identifier as generated by the database.
+ * Generated ids are left out of INSERT statements and read back from the generated keys.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Generated {
+}
@@ -0,0 +1,15 @@
+/**
+ * Marks the identifier field of a model class. The field must be an int.
+ * Without this annotation a field named "id" is used.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Id {
+}
@@ -0,0 +1,25 @@
+/**
+ * Input formats understood by the ImportPipeline.
+ * Both are line oriented, so a file can be split into chunks at line breaks and parsed in parallel;
+ * quoted CSV fields therefore must not contain line breaks.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+import java.nio.file.Path;
+
+public enum ImportFormat {
+    /** Comma-separated values with a header line naming the columns; fields may be double-quoted. */
+    CSV,
+    /** One flat JSON object per line (JSON Lines); keys name the columns. */
+    JSON_LINES;
+
+    /**
+     * Picks the format from a file's extension: .json, .jsonl and .ndjson are JSON Lines, anything else is CSV.
+     * @param file The input file.
+     * @return The format of the file.
+     */
+    public static ImportFormat of(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSON_LINES : CSV;
+    }
+}
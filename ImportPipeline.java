@@ -0,0 +1,363 @@
+/**
+ * Streams a CSV or JSON Lines file into a table.
+ * The file is split at line breaks into chunks that worker threads map into memory, parse, validate
+ * and insert in batches, each batch in its own transaction. The calling thread collects the chunk results
+ * in file order, writes rejected rows with their line number and reason to a reject file, and reports progress.
+ * At most two chunks per worker are in flight, so memory stays bounded however large the file is and
+ * reading never runs far ahead of the database.
+ * @param <T> The type of model object being imported.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+import org.example.a3.BusinessLogic.validators.ValidationEngine;
+import org.example.a3.BusinessLogic.validators.ValidationReport;
+import org.example.a3.BusinessLogic.validators.Validator;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.AbstractDAO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class ImportPipeline<T> {
+    private static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int CHUNKS_PER_WORKER = 2;
+    private static final int SCAN_BYTES = 64 * 1024;
+
+    /**
+     * A rejected line of a chunk.
+     */
+    private record Reject(long line, String reason, String input) {
+    }
+
+    /**
+     * What a worker did with one chunk. Line numbers of rejects are relative to the chunk.
+     */
+    private record ChunkResult(long endOffset, long physicalLines, long lines, long accepted, List<Reject> rejects) {
+    }
+
+    private final AbstractDAO<T> dao;
+    private final RowParser<T> parser;
+    private final ValidationEngine<T> validation;
+    private final int parallelism;
+    private final int chunkBytes;
+    private final int batchSize;
+
+    /**
+     * Constructs an ImportPipeline with one worker per available processor, 8 MiB chunks and batches of 1000 rows.
+     * @param dao The DAO used to insert the accepted rows.
+     * @param parser Builds a model object from a row.
+     * @param validators The validators every row must pass; a rejected row lists all of its violations.
+     */
+    public ImportPipeline(AbstractDAO<T> dao, RowParser<T> parser, List<Validator<T>> validators) {
+        this(dao, parser, validators, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an ImportPipeline.
+     * @param dao The DAO used to insert the accepted rows.
+     * @param parser Builds a model object from a row.
+     * @param validators The validators every row must pass; a rejected row lists all of its violations.
+     * @param parallelism The number of worker threads.
+     * @param chunkBytes The approximate size of the chunks the file is split into.
+     * @param batchSize The number of rows per batched insert.
+     */
+    public ImportPipeline(AbstractDAO<T> dao, RowParser<T> parser, List<Validator<T>> validators,
+                          int parallelism, int chunkBytes, int batchSize) {
+        this.dao = dao;
+        this.parser = parser;
+        this.validation = new ValidationEngine<>(validators);
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = Math.max(SCAN_BYTES, chunkBytes);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports a file.
+     * @param input The file to import.
+     * @param format The format of the file.
+     * @param rejectFile The CSV file (line, reason, input) receiving the rejected rows; overwritten if it exists.
+     * @param progress Receives progress after every chunk, on the calling thread; may be null.
+     * @return The import report.
+     * @throws IllegalArgumentException if a CSV file has no header line.
+     * @throws IllegalStateException if the input or reject file cannot be accessed, or the import was interrupted.
+     */
+    public ImportReport run(Path input, ImportFormat format, Path rejectFile, Consumer<ImportProgress> progress) {
+        long startNanos = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "import-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] totals = new long[4]; // physical lines before the next chunk, data lines, accepted, rejected
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+
+            long size = channel.size();
+            long position = 0;
+            Map<String, Integer> header = null;
+            if (format == ImportFormat.CSV) {
+                position = nextLineStart(channel, 0, size);
+                header = parseHeader(read(channel, 0, position));
+                totals[0] = 1;
+            }
+            rejects.write("line,reason,input\n");
+
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            while (position < size) {
+                long chunkStart = position;
+                long chunkEnd = nextLineStart(channel, Math.min(size, position + chunkBytes), size);
+                Map<String, Integer> columns = header;
+                inFlight.add(workers.submit(() -> processChunk(channel, chunkStart, chunkEnd, format, columns)));
+                position = chunkEnd;
+
+                if (inFlight.size() >= parallelism * CHUNKS_PER_WORKER) {
+                    collect(inFlight.poll(), totals, rejects, size, startNanos, progress);
+                }
+                while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+                    collect(inFlight.poll(), totals, rejects, size, startNanos, progress);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                collect(inFlight.poll(), totals, rejects, size, startNanos, progress);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Import of " + input + " failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import of " + input + " was interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        return new ImportReport(totals[1], totals[2], totals[3], elapsed, rate(totals[1], startNanos));
+    }
+
+    private void collect(Future<ChunkResult> future, long[] totals, BufferedWriter rejects, long size,
+                         long startNanos, Consumer<ImportProgress> progress) throws IOException, InterruptedException {
+        ChunkResult result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import chunk failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        for (Reject reject : result.rejects()) {
+            rejects.write(Long.toString(totals[0] + reject.line()));
+            rejects.write(',');
+            rejects.write(quote(reject.reason()));
+            rejects.write(',');
+            rejects.write(quote(reject.input()));
+            rejects.write('\n');
+        }
+        totals[0] += result.physicalLines();
+        totals[1] += result.lines();
+        totals[2] += result.accepted();
+        totals[3] += result.rejects().size();
+
+        if (progress != null) {
+            progress.accept(new ImportProgress(result.endOffset(), size, totals[1], totals[2], totals[3], rate(totals[1], startNanos)));
+        }
+    }
+
+    /**
+     * Parses, validates and inserts the lines of one chunk. Runs on a worker thread.
+     */
+    private ChunkResult processChunk(FileChannel channel, long start, long end, ImportFormat format,
+                                     Map<String, Integer> header) throws IOException {
+        CharBuffer chars = StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+        List<Reject> rejects = new ArrayList<>();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Reject> batchLines = new ArrayList<>(batchSize);
+        long physicalLines = 0;
+        long lines = 0;
+        long accepted = 0;
+
+        int lineStart = 0;
+        int length = chars.length();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && chars.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            CharSequence line = chars.subSequence(lineStart, contentEnd);
+            lineStart = lineEnd + 1;
+            physicalLines++;
+            if (isBlank(line)) {
+                continue;
+            }
+            lines++;
+
+            try {
+                ImportRow row = format == ImportFormat.CSV
+                        ? csvRow(header, LineParsers.splitCsv(line))
+                        : jsonRow(LineParsers.parseJsonObject(line));
+                batch.add(parser.parse(row));
+                batchLines.add(new Reject(physicalLines, null, line.toString()));
+            } catch (IllegalArgumentException e) {
+                rejects.add(new Reject(physicalLines, e.getMessage(), line.toString()));
+            }
+
+            if (batch.size() >= batchSize) {
+                accepted += insert(batch, batchLines, rejects);
+            }
+        }
+        accepted += insert(batch, batchLines, rejects);
+        rejects.sort((a, b) -> Long.compare(a.line(), b.line()));
+        return new ChunkResult(end, physicalLines, lines, accepted, rejects);
+    }
+
+    /**
+     * Validates a batch, rejecting every row with all of its violations, and inserts the valid rows in their own
+     * transaction; if the insert fails, all of them are rejected with the database error.
+     */
+    private int insert(List<T> batch, List<Reject> batchLines, List<Reject> rejects) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        ValidationReport report = validation.validateAll(batch);
+        List<T> valid = batch;
+        if (!report.isValid()) {
+            valid = new ArrayList<>(batch.size());
+            List<Reject> validLines = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                List<String> violations = report.violationsOf(i);
+                if (violations.isEmpty()) {
+                    valid.add(batch.get(i));
+                    validLines.add(batchLines.get(i));
+                } else {
+                    Reject line = batchLines.get(i);
+                    rejects.add(new Reject(line.line(), String.join(" ", violations), line.input()));
+                }
+            }
+            batchLines.clear();
+            batchLines.addAll(validLines);
+        }
+
+        List<T> rows = valid;
+        int inserted = 0;
+        try {
+            if (!rows.isEmpty()) {
+                inserted = TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                        TransactionManager.Isolation.DEFAULT, false, () -> dao.insertAll(rows));
+                rows.forEach(validation::stored);
+            }
+        } catch (RuntimeException e) {
+            for (Reject line : batchLines) {
+                rejects.add(new Reject(line.line(), "Database error: " + e.getMessage(), line.input()));
+            }
+            inserted = 0;
+        }
+        batch.clear();
+        batchLines.clear();
+        return inserted;
+    }
+
+    private static ImportRow csvRow(Map<String, Integer> header, String[] fields) {
+        return column -> {
+            Integer index = header.get(column);
+            if (index == null || index >= fields.length) {
+                return null;
+            }
+            String value = fields[index].trim();
+            return value.isEmpty() ? null : value;
+        };
+    }
+
+    private static ImportRow jsonRow(Map<String, String> values) {
+        return column -> {
+            String value = values.get(column);
+            return value == null || value.isEmpty() ? null : value;
+        };
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        line = line.strip();
+        if (line.isEmpty()) {
+            throw new IllegalArgumentException("The CSV file has no header line.");
+        }
+        String[] names = LineParsers.splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            header.put(names[i].trim(), i);
+        }
+        return header;
+    }
+
+    /**
+     * Returns the offset just after the first line break at or after from, or size if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static String read(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+            // keep reading until the range is complete
+        }
+        buffer.flip();
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    private static boolean isBlank(CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + "\"";
+    }
+
+    private static double rate(long rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? rows / seconds : 0;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Progress of a running import, reported after every chunk.
+ * @param bytesRead The number of input bytes processed so far.
+ * @param totalBytes The size of the input file.
+ * @param lines The number of data lines processed so far.
+ * @param accepted The number of rows inserted so far.
+ * @param rejected The number of rows written to the reject file so far.
+ * @param rowsPerSecond The average processing rate since the import started.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+public record ImportProgress(long bytesRead, long totalBytes, long lines, long accepted, long rejected, double rowsPerSecond) {
+
+    /**
+     * Returns the processed share of the input.
+     * @return A value between 0 and 1.
+     */
+    public double fraction() {
+        return totalBytes == 0 ? 1 : (double) bytesRead / totalBytes;
+    }
+}
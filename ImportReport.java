@@ -0,0 +1,15 @@
+/**
+ * Outcome of a finished import.
+ * @param lines The number of data lines read, excluding the CSV header and blank lines.
+ * @param accepted The number of rows inserted.
+ * @param rejected The number of rows written to the reject file.
+ * @param elapsed How long the import took.
+ * @param rowsPerSecond The average processing rate.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+import java.time.Duration;
+
+public record ImportReport(long lines, long accepted, long rejected, Duration elapsed, double rowsPerSecond) {
+
+}
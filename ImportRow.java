@@ -0,0 +1,59 @@
+/**
+ * One parsed input line, giving access to its values by column name.
+ * The typed getters throw IllegalArgumentException with a message naming the column, which ends up in the reject file.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+public interface ImportRow {
+
+    /**
+     * Returns the raw value of a column.
+     * @param column The column name.
+     * @return The value, or null if the column is missing or empty.
+     */
+    String get(String column);
+
+    /**
+     * Returns the value of a required column.
+     * @param column The column name.
+     * @return The value.
+     * @throws IllegalArgumentException if the column is missing or empty.
+     */
+    default String require(String column) {
+        String value = get(column);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value for column '" + column + "'.");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of a required integer column.
+     * @param column The column name.
+     * @return The value.
+     * @throws IllegalArgumentException if the column is missing or not an integer.
+     */
+    default int getInt(String column) {
+        String value = require(column);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Column '" + column + "' must be an integer, got '" + value + "'.");
+        }
+    }
+
+    /**
+     * Returns the value of a required decimal column.
+     * @param column The column name.
+     * @return The value.
+     * @throws IllegalArgumentException if the column is missing or not a number.
+     */
+    default double getDouble(String column) {
+        String value = require(column);
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Column '" + column + "' must be a number, got '" + value + "'.");
+        }
+    }
+}
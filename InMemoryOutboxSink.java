@@ -0,0 +1,37 @@
+/**
+ * OutboxSink that keeps the published events in memory, for in-process consumers and for trying the relay
+ * without external infrastructure.
+ */
+package org.example.a3.BusinessLogic.outbox;
+
+import org.example.a3.Model.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    /**
+     * Returns the events published so far.
+     * @return A copy of the published events, in publication order.
+     */
+    public synchronized List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Removes and returns the events published so far.
+     * @return The published events, in publication order.
+     */
+    public synchronized List<OutboxEvent> drain() {
+        List<OutboxEvent> drained = new ArrayList<>(events);
+        events.clear();
+        return drained;
+    }
+}
@@ -0,0 +1,650 @@
+/**
+ * Optional in-memory owner of available stock, for order rates at which the product row becomes a lock hotspot.
+ * Each product's available stock is an AtomicInteger taken with compare-and-set, so concurrent orders never
+ * oversell and never wait for a row lock. Every change is appended to a journal and forced to disk before
+ * take() returns; callers arriving together share one force (group commit).
+ * Stock taken for an order is tentative until the order's transaction commits: commit() then appends a commit
+ * marker, and only marked changes are added to the product table. A rolled-back order's stock is returned in
+ * memory by abort() without touching the journal.
+ * Committed changes are aggregated per product and added to the product table every flush interval, in one
+ * transaction with the journal position, after which fully flushed journal segments are deleted; segments
+ * holding a take that is still waiting for its commit are kept.
+ * On the next start, committed changes that were not flushed are replayed. A take without a commit marker is
+ * replayed only if its order exists, found by its client order id, which covers a crash between the order's
+ * commit and its marker.
+ * While the ledger is active the stock column lags behind it by up to one flush interval.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+import org.example.a3.Model.Product;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.InventoryLedgerDAO;
+import org.example.a3.dao.OrderDAO;
+import org.example.a3.dao.ProductDAO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+public class InventoryLedger implements StockListener, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(InventoryLedger.class.getName());
+
+    /** System property naming the journal directory; the ledger is disabled when it is not set. */
+    public static final String DIRECTORY_PROPERTY = "inventory.ledger.dir";
+
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+    private static final int RECORD_BYTES = 40; // seq (8), kind (4), productId (4), delta (4), order key (16), CRC32C (4)
+    private static final int CHECKSUMMED_BYTES = 36;
+    private static final int APPLIED = 0; // a change that counts as soon as it is journaled
+    private static final int TAKEN = 1; // stock taken for an order that has not committed yet
+    private static final int COMMITTED = 2; // the commit marker of a TAKEN record with the same order key
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_BATCH = 4096;
+    private static final int QUEUE_CAPACITY = 65_536;
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * A stock change waiting to be journaled.
+     */
+    private static final class Entry {
+        private final int kind;
+        private final int productId;
+        private final int delta;
+        private final UUID orderKey;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+        private volatile long seq = -1; // set once journaled
+
+        private Entry(int kind, int productId, int delta, UUID orderKey) {
+            this.kind = kind;
+            this.productId = productId;
+            this.delta = delta;
+            this.orderKey = orderKey;
+        }
+    }
+
+    /**
+     * A journal file and the sequence number of its first record.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long firstSeq;
+
+        private Segment(Path path, long firstSeq) {
+            this.path = path;
+            this.firstSeq = firstSeq;
+        }
+    }
+
+    private static final Entry STOP = new Entry(APPLIED, 0, 0, null);
+
+    private final String name;
+    private final Path directory;
+    private final ProductDAO productDAO;
+    private final OrderDAO orderDAO;
+    private final InventoryLedgerDAO ledgerDAO;
+    private final Map<Integer, AtomicInteger> available = new ConcurrentHashMap<>();
+    /** Takes waiting for their order to commit or roll back, by order key. */
+    private final Map<UUID, Entry> uncommitted = new ConcurrentHashMap<>();
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Deque<Segment> segments = new ConcurrentLinkedDeque<>();
+
+    /** Serializes flushes with loads of a product's stock, so a load never misses changes being flushed. */
+    private final Object flushMonitor = new Object();
+    /** Guards unflushed and journaledSeq, which the journal thread updates after every force. */
+    private final Object pendingLock = new Object();
+    private Map<Integer, Integer> unflushed = new HashMap<>();
+    private long journaledSeq;
+
+    private final Thread journalThread;
+    private final ScheduledExecutorService flusher;
+    private FileChannel channel;
+    private long nextSeq;
+    private volatile boolean closed;
+
+    /**
+     * Constructs an InventoryLedger, replays any unflushed journal entries into the product table
+     * and starts the journal and flush threads.
+     * @param directory The directory holding the journal segments.
+     * @param productDAO The DAO used to load the stock of a product on first use.
+     * @param orderDAO The DAO used to check, while replaying, whether the order of an unmarked take exists.
+     * @param ledgerDAO The DAO used to flush stock changes.
+     * @param flushInterval How often journaled changes are written to the product table.
+     * @throws IllegalStateException if the journal cannot be opened or replayed.
+     */
+    public InventoryLedger(Path directory, ProductDAO productDAO, OrderDAO orderDAO, InventoryLedgerDAO ledgerDAO,
+                           Duration flushInterval) {
+        this.directory = directory;
+        this.name = directory.toAbsolutePath().normalize().toString();
+        this.productDAO = productDAO;
+        this.orderDAO = orderDAO;
+        this.ledgerDAO = ledgerDAO;
+
+        try {
+            Files.createDirectories(directory);
+            long lastSeq = recover();
+            nextSeq = lastSeq + 1;
+            journaledSeq = lastSeq;
+            openSegment();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the inventory journal in " + directory, e);
+        }
+
+        this.journalThread = new Thread(this::journalLoop, "inventory-journal");
+        journalThread.setDaemon(true);
+        journalThread.start();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the ledger configured through the inventory.ledger.dir system property and subscribes it to
+     * StockEvents. Called once by ApplicationContext, which shares the ledger.
+     * @param productDAO The DAO used to load the stock of a product on first use.
+     * @param orderDAO The DAO used to check, while replaying, whether the order of an unmarked take exists.
+     * @return The opened ledger, or null if no journal directory is configured.
+     * @throws IllegalStateException if the journal cannot be opened or replayed; opening can be retried.
+     */
+    public static InventoryLedger openConfigured(ProductDAO productDAO, OrderDAO orderDAO) {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        InventoryLedger ledger = new InventoryLedger(Path.of(directory), productDAO, orderDAO,
+                new InventoryLedgerDAO(), DEFAULT_FLUSH_INTERVAL);
+        StockEvents.subscribe(ledger);
+        return ledger;
+    }
+
+    /**
+     * Takes stock of a product for an order, waiting until the change is durable in the journal.
+     * The change stays tentative: call commit() once the order's transaction has committed, or abort() if it
+     * rolled back. Until then the units are unavailable to other orders but not written to the product table.
+     * @param productId The ID of the product.
+     * @param quantity The number of units to take.
+     * @param orderKey The client order id of the order, which identifies it if the application stops before
+     *                 commit() or abort().
+     * @return The stock left after the change.
+     * @throws IllegalArgumentException if the quantity is not positive or not enough stock is available.
+     * @throws NoSuchElementException if the product is not found.
+     * @throws IllegalStateException if the change could not be journaled, or another take for the same order is
+     *                               still uncommitted; the stock is then left unchanged.
+     */
+    public int take(int productId, int quantity, UUID orderKey) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("The quantity must be positive.");
+        }
+        AtomicInteger counter = counter(productId);
+        int remaining;
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                throw new IllegalArgumentException("Not enough stock available for product with ID " + productId + ". Available: " + Math.max(0, current) + ", Requested: " + quantity);
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                remaining = current - quantity;
+                break;
+            }
+        }
+
+        Entry entry = new Entry(TAKEN, productId, -quantity, orderKey);
+        if (uncommitted.putIfAbsent(orderKey, entry) != null) {
+            counter.addAndGet(quantity);
+            throw new IllegalStateException("Stock for order " + orderKey + " is already being taken.");
+        }
+        try {
+            journal(entry);
+        } catch (RuntimeException e) {
+            uncommitted.remove(orderKey, entry);
+            counter.addAndGet(quantity);
+            throw e;
+        }
+        return remaining;
+    }
+
+    /**
+     * Makes the stock taken for an order final, once the order's transaction has committed, by journaling a
+     * commit marker. Does not wait for the marker to be durable: if it is lost, the order is found by its key
+     * on the next start. Does nothing if no stock was taken for the order.
+     * @param orderKey The client order id of the order.
+     */
+    public void commit(UUID orderKey) {
+        Entry taken = uncommitted.get(orderKey);
+        if (taken == null) {
+            return;
+        }
+        Entry marker = new Entry(COMMITTED, taken.productId, taken.delta, orderKey);
+        try {
+            enqueue(marker);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "InventoryLedger:commit " + e.getMessage() + "; order " + orderKey + " is resolved on the next start");
+        }
+    }
+
+    /**
+     * Returns the stock taken for an order whose transaction rolled back. Nothing is journaled: a take
+     * without a commit marker whose order does not exist is ignored on the next start.
+     * Does nothing if no stock was taken for the order.
+     * @param orderKey The client order id of the order.
+     */
+    public void abort(UUID orderKey) {
+        Entry taken = uncommitted.remove(orderKey);
+        if (taken != null) {
+            counter(taken.productId).addAndGet(-taken.delta);
+        }
+    }
+
+    /**
+     * Returns stock of a product, e.g. after a return, waiting until the change is durable.
+     * @param productId The ID of the product.
+     * @param quantity The number of units to return.
+     * @return The stock after the change.
+     * @throws IllegalArgumentException if the quantity is not positive.
+     * @throws NoSuchElementException if the product is not found.
+     * @throws IllegalStateException if the change could not be journaled; the stock is then left unchanged.
+     */
+    public int give(int productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("The quantity must be positive.");
+        }
+        AtomicInteger counter = counter(productId);
+        int remaining = counter.addAndGet(quantity);
+        try {
+            journal(new Entry(APPLIED, productId, quantity, null));
+        } catch (RuntimeException e) {
+            counter.addAndGet(-quantity);
+            throw e;
+        }
+        return remaining;
+    }
+
+    /**
+     * Returns the available stock of a product as owned by the ledger.
+     * @param productId The ID of the product.
+     * @return The available stock.
+     * @throws NoSuchElementException if the product is not found.
+     */
+    public int available(int productId) {
+        return counter(productId).get();
+    }
+
+    /**
+     * Reloads a product whose stock level was set directly (delta 0), e.g. by an operator restocking it.
+     * The new level is read back from the product table together with the changes not flushed yet;
+     * orders being journaled at that moment may still be counted against the old level.
+     * @param change The committed stock change.
+     */
+    @Override
+    public void stockChanged(StockChange change) {
+        if (change.delta() != 0 || !available.containsKey(change.productId())) {
+            return;
+        }
+        synchronized (flushMonitor) {
+            Product product = productDAO.findById(change.productId());
+            if (product == null) {
+                available.remove(change.productId());
+            } else {
+                available.get(change.productId()).set(product.getStock() + pending(change.productId()));
+            }
+        }
+    }
+
+    /**
+     * Stops accepting changes, journals the queued ones and flushes everything to the product table.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            queue.put(STOP);
+            journalThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private AtomicInteger counter(int productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        synchronized (flushMonitor) {
+            counter = available.get(productId);
+            if (counter != null) {
+                return counter;
+            }
+            Product product = productDAO.findById(productId);
+            if (product == null) {
+                throw new NoSuchElementException("Product with ID " + productId + " not found.");
+            }
+            counter = new AtomicInteger(product.getStock() + pending(productId));
+            available.put(productId, counter);
+            return counter;
+        }
+    }
+
+    /**
+     * Returns the changes of a product that are not in the product table yet: committed but unflushed ones,
+     * and takes still waiting for their order.
+     */
+    private int pending(int productId) {
+        synchronized (pendingLock) {
+            int delta = unflushed.getOrDefault(productId, 0);
+            for (Entry entry : uncommitted.values()) {
+                if (entry.productId == productId) {
+                    delta += entry.delta;
+                }
+            }
+            return delta;
+        }
+    }
+
+    private void journal(Entry entry) {
+        enqueue(entry);
+        try {
+            entry.durable.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not journal a stock change of product " + entry.productId, e.getCause());
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        if (closed) {
+            throw new IllegalStateException("The inventory ledger is closed.");
+        }
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while journaling a stock change of product " + entry.productId, e);
+        }
+    }
+
+    private void journalLoop() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BATCH * RECORD_BYTES);
+        CRC32C crc = new CRC32C();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            running = !batch.remove(STOP);
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            long firstSeq = nextSeq;
+            long startPosition = -1;
+            try {
+                startPosition = channel.position();
+                buffer.clear();
+                for (Entry entry : batch) {
+                    int start = buffer.position();
+                    UUID key = entry.orderKey;
+                    buffer.putLong(nextSeq++).putInt(entry.kind).putInt(entry.productId).putInt(entry.delta)
+                            .putLong(key == null ? 0 : key.getMostSignificantBits())
+                            .putLong(key == null ? 0 : key.getLeastSignificantBits());
+                    crc.reset();
+                    crc.update(buffer.duplicate().position(start).limit(start + CHECKSUMMED_BYTES));
+                    buffer.putInt((int) crc.getValue());
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "InventoryLedger:journal " + e.getMessage());
+                nextSeq = firstSeq;
+                discardFrom(startPosition);
+                batch.forEach(entry -> entry.durable.completeExceptionally(e));
+                batch.clear();
+                continue;
+            }
+
+            long seq = firstSeq;
+            synchronized (pendingLock) {
+                for (Entry entry : batch) {
+                    entry.seq = seq++;
+                    if (entry.kind != TAKEN) {
+                        unflushed.merge(entry.productId, entry.delta, Integer::sum);
+                    }
+                    if (entry.kind == COMMITTED) {
+                        uncommitted.remove(entry.orderKey);
+                    }
+                }
+                journaledSeq = nextSeq - 1;
+            }
+            batch.forEach(entry -> entry.durable.complete(null));
+            batch.clear();
+
+            try {
+                if (channel.position() >= SEGMENT_BYTES) {
+                    channel.close();
+                    openSegment();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "InventoryLedger:roll " + e.getMessage());
+            }
+        }
+
+        IllegalStateException stopped = new IllegalStateException("The inventory ledger is closed.");
+        queue.forEach(entry -> entry.durable.completeExceptionally(stopped));
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "InventoryLedger:close " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuts off a batch that failed to write, so the next batch does not follow a torn record.
+     */
+    private void discardFrom(long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "InventoryLedger:discard " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        long seq;
+        synchronized (flushMonitor) {
+            Map<Integer, Integer> deltas;
+            synchronized (pendingLock) {
+                seq = journaledSeq;
+                if (unflushed.isEmpty()) {
+                    deleteFlushedSegments(seq);
+                    return;
+                }
+                deltas = unflushed;
+                unflushed = new HashMap<>();
+            }
+            deltas.values().removeIf(delta -> delta == 0);
+
+            try {
+                TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                        TransactionManager.Isolation.DEFAULT, false, () -> {
+                            ledgerDAO.applyStockDeltas(name, deltas, seq);
+                            return null;
+                        });
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "InventoryLedger:flush " + e.getMessage());
+                synchronized (pendingLock) {
+                    deltas.forEach((productId, delta) -> unflushed.merge(productId, delta, Integer::sum));
+                }
+                return;
+            }
+        }
+        deleteFlushedSegments(seq);
+    }
+
+    /**
+     * Deletes every segment, except the current one, whose records are all covered by the flushed sequence
+     * and which holds no take still waiting for its order.
+     */
+    private void deleteFlushedSegments(long flushedSeq) {
+        for (Entry entry : uncommitted.values()) {
+            long seq = entry.seq;
+            if (seq >= 0 && seq <= flushedSeq) {
+                flushedSeq = seq - 1;
+            }
+        }
+        while (segments.size() > 1) {
+            Iterator<Segment> iterator = segments.iterator();
+            Segment oldest = iterator.next();
+            Segment following = iterator.next();
+            if (following.firstSeq - 1 > flushedSeq) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "InventoryLedger:delete " + e.getMessage());
+                return;
+            }
+            segments.pollFirst();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segments.addLast(new Segment(path, nextSeq));
+    }
+
+    /**
+     * Applies the journal records newer than the stored checkpoint to the product table, then removes the old segments.
+     * Applied changes and commit markers count; a take without a marker counts only if its order was stored.
+     * Reading stops at the first record with a bad checksum, which is a write torn by a crash.
+     * @return The last sequence number used.
+     */
+    private long recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> {
+                String fileName = p.getFileName().toString();
+                return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+
+        long checkpoint = TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                TransactionManager.Isolation.DEFAULT, true, () -> ledgerDAO.findCheckpoint(name));
+        long lastSeq = checkpoint;
+        Map<Integer, Integer> deltas = new HashMap<>();
+        Map<UUID, Entry> unmarked = new HashMap<>();
+        Set<UUID> marked = new HashSet<>();
+        CRC32C crc = new CRC32C();
+
+        reading:
+        for (Path file : files) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer records = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                while (records.remaining() >= RECORD_BYTES) {
+                    int start = records.position();
+                    crc.reset();
+                    crc.update(records.duplicate().position(start).limit(start + CHECKSUMMED_BYTES));
+                    long seq = records.getLong();
+                    int kind = records.getInt();
+                    int productId = records.getInt();
+                    int delta = records.getInt();
+                    UUID key = new UUID(records.getLong(), records.getLong());
+                    if (records.getInt() != (int) crc.getValue()) {
+                        LOGGER.log(Level.WARNING, "InventoryLedger: torn journal record in " + file + " at offset " + start);
+                        break reading;
+                    }
+                    if (kind == TAKEN) {
+                        if (!marked.contains(key)) {
+                            unmarked.put(key, new Entry(TAKEN, productId, delta, key));
+                        }
+                    } else {
+                        if (kind == COMMITTED) {
+                            marked.add(key);
+                            unmarked.remove(key);
+                        }
+                        if (seq > checkpoint) {
+                            deltas.merge(productId, delta, Integer::sum);
+                        }
+                    }
+                    lastSeq = Math.max(lastSeq, seq);
+                }
+            }
+        }
+
+        if (!unmarked.isEmpty()) {
+            TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                    TransactionManager.Isolation.DEFAULT, true, () -> {
+                        for (Entry taken : unmarked.values()) {
+                            if (orderDAO.findByClientOrderId(taken.orderKey) != null) {
+                                deltas.merge(taken.productId, taken.delta, Integer::sum);
+                            }
+                        }
+                        return null;
+                    });
+        }
+
+        if (lastSeq > checkpoint) {
+            long replayedSeq = lastSeq;
+            deltas.values().removeIf(delta -> delta == 0);
+            TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRES_NEW,
+                    TransactionManager.Isolation.DEFAULT, false, () -> {
+                        ledgerDAO.applyStockDeltas(name, deltas, replayedSeq);
+                        return null;
+                    });
+            LOGGER.log(Level.INFO, "InventoryLedger: replayed journal up to " + replayedSeq + " for " + deltas.size() + " products");
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+        return lastSeq;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Data Access Object used by the InventoryLedger to write aggregated stock changes back to the product table.
+ * The inventory_ledger table (name primary key, seq) stores the last journal sequence number applied,
+ * written in the same transaction as the stock changes, so replaying the journal after a crash never applies
+ * an entry twice.
+ * It does NOT extend AbstractDAO: it only issues relative stock updates and reads a single checkpoint row.
+ */
+package org.example.a3.dao;
+
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class InventoryLedgerDAO {
+    protected static final Logger LOGGER = Logger.getLogger(InventoryLedgerDAO.class.getName());
+    private static final String TABLE_NAME = "inventory_ledger";
+
+    private static final String UPDATE_STOCK_QUERY = "UPDATE product SET stock = stock + ?, version = version + 1 WHERE id = ?";
+    private static final String FIND_CHECKPOINT_QUERY = "SELECT seq FROM " + TABLE_NAME + " WHERE name = ?";
+    private static final String SAVE_CHECKPOINT_QUERY = "INSERT INTO " + TABLE_NAME + " (name, seq) VALUES (?, ?) "
+            + "ON CONFLICT (name) DO UPDATE SET seq = GREATEST(" + TABLE_NAME + ".seq, EXCLUDED.seq)";
+
+    /**
+     * Finds the last journal sequence number applied to the product table.
+     * @param name The name of the ledger.
+     * @return The sequence number, or 0 if the ledger has never been flushed.
+     */
+    public long findCheckpoint(String name) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_CHECKPOINT_QUERY)) {
+
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "InventoryLedgerDAO:findCheckpoint " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the given stock changes to the product table in one batch and records the checkpoint.
+     * Must run inside a transaction so the changes and the checkpoint commit together.
+     * @param name The name of the ledger.
+     * @param deltas The stock change per product ID.
+     * @param seq The last journal sequence number included in the changes.
+     */
+    public void applyStockDeltas(String name, Map<Integer, Integer> deltas, long seq) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement update = connection.prepareStatement(UPDATE_STOCK_QUERY);
+             PreparedStatement checkpoint = connection.prepareStatement(SAVE_CHECKPOINT_QUERY)) {
+
+            for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+                update.setInt(1, delta.getValue());
+                update.setInt(2, delta.getKey());
+                update.addBatch();
+            }
+            update.executeBatch();
+
+            checkpoint.setString(1, name);
+            checkpoint.setLong(2, seq);
+            checkpoint.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "InventoryLedgerDAO:applyStockDeltas " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Measures the ModelCodecs against the reflective baseline in ReflectiveJson, writing arrays of clients and
+ * order details to a discarding stream and reading them back one object per document.
+ * Each case is warmed up before it is timed; the report gives the time and the bytes allocated per object
+ * and the throughput in JSON bytes. Before timing, both directions are checked to round-trip exactly.
+ * Run with: java org.example.a3.Model.json.JsonBenchmark [objects] [rounds]
+ */
+package org.example.a3.Model.json;
+
+import org.example.a3.Model.Client;
+import org.example.a3.Model.OrderDetail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class JsonBenchmark {
+    private static final int DEFAULT_OBJECTS = 100_000;
+    private static final int DEFAULT_ROUNDS = 5;
+    private static final int WARM_UP_ROUNDS = 3;
+
+    /**
+     * One timed pass over all objects.
+     */
+    @FunctionalInterface
+    private interface Pass {
+        /**
+         * Runs the pass.
+         * @return The number of JSON bytes written or read.
+         */
+        long run() throws IOException;
+    }
+
+    /**
+     * An OutputStream that only counts what is written to it.
+     */
+    private static final class CountingStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink; // keeps read objects alive so the reads are not optimized away
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private JsonBenchmark() {}
+
+    /**
+     * Runs the benchmark and prints one line per case.
+     * @param args The number of objects per pass and the number of timed rounds, both optional.
+     * @throws IOException if writing failed.
+     */
+    public static void main(String[] args) throws IOException {
+        int objects = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OBJECTS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        List<Client> clients = new ArrayList<>(objects);
+        List<OrderDetail> details = new ArrayList<>(objects);
+        for (int i = 1; i <= objects; i++) {
+            String name = (i % 10 == 0 ? "\u0218tefan Pop" : "Client") + " " + i;
+            Client c = new Client(i, name, "Str. Memorandumului " + (i % 300) + ", Cluj-Napoca",
+                    "client" + i + "@example.com", "07" + (10_000_000 + i), 18 + i % 60);
+            c.setVersion(i % 4);
+            clients.add(c);
+            double unitPrice = 4.99 + (i % 200) * 0.25;
+            int quantity = 1 + i % 7;
+            details.add(new OrderDetail(i, i, name, i % 500 + 1, "Product \"" + (i % 500) + "\"", quantity,
+                    unitPrice, i, quantity * unitPrice));
+        }
+
+        System.out.printf("%d objects, %d rounds after %d warm-up rounds%n", objects, rounds, WARM_UP_ROUNDS);
+        System.out.printf("%-32s %12s %12s %14s%n", "case", "ns/object", "MB/s", "bytes/object");
+        compare("Client", clients, Client.class, ModelCodecs.CLIENT, objects, rounds);
+        compare("OrderDetail", details, OrderDetail.class, ModelCodecs.ORDER_DETAIL, objects, rounds);
+    }
+
+    private static <T> void compare(String label, List<T> values, Class<T> type, JsonCodec<T> codec,
+                                    int objects, int rounds) throws IOException {
+        byte[][] documents = new byte[values.size()][];
+        for (int i = 0; i < documents.length; i++) {
+            documents[i] = encode(codec, List.of(values.get(i)), false);
+        }
+        verify(label, values, type, codec, documents);
+
+        JsonOutput output = new JsonOutput();
+        CountingStream counter = new CountingStream();
+        measure(label + " write codec", objects, rounds, () -> {
+            counter.count = 0;
+            codec.writeArray(values, output.reset(counter));
+            output.flush();
+            return counter.count;
+        });
+        measure(label + " write reflective", objects, rounds, () -> {
+            counter.count = 0;
+            ReflectiveJson.writeArray(values, counter);
+            return counter.count;
+        });
+        measure(label + " read codec", objects, rounds, () -> {
+            long bytes = 0;
+            for (byte[] document : documents) {
+                sink = codec.read(new JsonInput(document));
+                bytes += document.length;
+            }
+            return bytes;
+        });
+        measure(label + " read reflective", objects, rounds, () -> {
+            long bytes = 0;
+            for (byte[] document : documents) {
+                sink = ReflectiveJson.read(document, type);
+                bytes += document.length;
+            }
+            return bytes;
+        });
+    }
+
+    /**
+     * Checks that reading what either side wrote, with either side, gives back the original values, by
+     * re-encoding the results with the codec and comparing the bytes.
+     */
+    private static <T> void verify(String label, List<T> values, Class<T> type, JsonCodec<T> codec,
+                                   byte[][] documents) throws IOException {
+        byte[] expected = encode(codec, values, true);
+
+        List<T> codecRead = codec.readArray(new JsonInput(expected));
+        ByteArrayOutputStream reflectiveBytes = new ByteArrayOutputStream();
+        ReflectiveJson.writeArray(values, reflectiveBytes);
+        List<T> fromReflective = codec.readArray(new JsonInput(reflectiveBytes.toByteArray()));
+        List<T> reflectiveRead = new ArrayList<>(documents.length);
+        for (byte[] document : documents) {
+            reflectiveRead.add(ReflectiveJson.read(document, type));
+        }
+
+        if (!Arrays.equals(expected, encode(codec, codecRead, true))
+                || !Arrays.equals(expected, encode(codec, fromReflective, true))
+                || !Arrays.equals(expected, encode(codec, reflectiveRead, true))) {
+            throw new IllegalStateException(label + " does not round-trip.");
+        }
+    }
+
+    private static <T> byte[] encode(JsonCodec<T> codec, List<T> values, boolean array) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonOutput out = new JsonOutput(bytes);
+        if (array) {
+            codec.writeArray(values, out);
+        } else {
+            codec.write(values.get(0), out);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void measure(String label, int objects, int rounds, Pass pass) throws IOException {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            pass.run();
+        }
+
+        long thread = Thread.currentThread().getId();
+        long nanos = 0;
+        long bytes = 0;
+        long allocated = 0;
+        for (int i = 0; i < rounds; i++) {
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            bytes += pass.run();
+            nanos += System.nanoTime() - start;
+            allocated += THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+        }
+
+        long total = (long) objects * rounds;
+        System.out.printf("%-32s %12.1f %12.1f %14.1f%n", label, (double) nanos / total,
+                bytes / 1e6 / (nanos / 1e9), (double) allocated / total);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Writes and reads one model type as a JSON object, field by field, without reflection.
+ * Implementations pre-encode their member names and look members up by index while reading; see ModelCodecs.
+ * @param <T> The model type.
+ */
+package org.example.a3.Model.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public interface JsonCodec<T> {
+
+    /**
+     * Writes a value as a JSON object.
+     * @param value The value; not null.
+     * @param out The output to write to.
+     * @throws IOException if writing failed.
+     */
+    void write(T value, JsonOutput out) throws IOException;
+
+    /**
+     * Reads a JSON object into a new value. Unknown members are skipped; absent ones keep their default.
+     * @param in The input positioned before the object.
+     * @return The value.
+     * @throws IOException if reading failed.
+     * @throws IllegalArgumentException if the input is not a JSON object of the expected shape.
+     */
+    T read(JsonInput in) throws IOException;
+
+    /**
+     * Writes values as a JSON array.
+     * @param values The values.
+     * @param out The output to write to.
+     * @throws IOException if writing failed.
+     */
+    default void writeArray(Iterable<? extends T> values, JsonOutput out) throws IOException {
+        out.beginArray();
+        for (T value : values) {
+            out.value(value, this);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Reads a JSON array of objects.
+     * @param in The input positioned before the array.
+     * @return The values, in order.
+     * @throws IOException if reading failed.
+     * @throws IllegalArgumentException if the input is not a JSON array of the expected objects.
+     */
+    default List<T> readArray(JsonInput in) throws IOException {
+        List<T> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(read(in));
+        }
+        in.endArray();
+        return values;
+    }
+}
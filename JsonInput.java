@@ -0,0 +1,549 @@
+/**
+ * Streaming JSON reader working on UTF-8 bytes, from a byte array or through a reusable buffer refilled
+ * from an InputStream.
+ * Member names are matched against pre-encoded candidates without creating strings, and numbers are parsed
+ * digit by digit, so reading an object allocates little more than its string values. Doubles with at most
+ * 15 significant digits and a small exponent are computed exactly with one division; others fall back to
+ * Double.parseDouble.
+ * Malformed input is reported with an IllegalArgumentException naming the byte offset. A JsonInput is not
+ * thread-safe, but can be reused for any number of documents through reset(), keeping its buffers.
+ */
+package org.example.a3.Model.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class JsonInput {
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private long offset; // position in the document of buffer[0]
+    private InputStream in;
+    private boolean[] first = new boolean[16]; // per nesting level: no member or element read yet
+    private int depth;
+    private boolean ready; // hasNext() has already consumed the separator of the next member or element
+    private byte[] scratch = new byte[64]; // the unescaped UTF-8 bytes of the last string, or a number's text
+    private int scratchLength;
+
+    /**
+     * Constructs a JsonInput with a 16 KiB buffer that must be given a stream through reset() before use.
+     */
+    public JsonInput() {
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Constructs a JsonInput with a 16 KiB buffer reading from a stream.
+     * @param in The stream to read from.
+     */
+    public JsonInput(InputStream in) {
+        this();
+        reset(in);
+    }
+
+    /**
+     * Constructs a JsonInput reading a whole document held in memory, without copying it.
+     * @param document The UTF-8 bytes of the document.
+     */
+    public JsonInput(byte[] document) {
+        this.buffer = document;
+        this.limit = document.length;
+    }
+
+    /**
+     * Starts reading a new document from another stream, keeping the buffers.
+     * @param in The stream to read from.
+     * @return This input.
+     */
+    public JsonInput reset(InputStream in) {
+        this.in = in;
+        this.position = 0;
+        this.limit = 0;
+        this.offset = 0;
+        this.depth = 0;
+        this.ready = false;
+        return this;
+    }
+
+    /**
+     * Encodes member names for nextName(byte[][]).
+     * @param names The member names.
+     * @return The UTF-8 bytes of each name, in the same order.
+     */
+    public static byte[][] encodeNames(String... names) {
+        byte[][] encoded = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    /**
+     * Consumes the start of an object.
+     * @throws IOException if reading failed.
+     */
+    public void beginObject() throws IOException {
+        open('{');
+    }
+
+    /**
+     * Consumes the end of the current object.
+     * @throws IOException if reading failed.
+     */
+    public void endObject() throws IOException {
+        close('}');
+    }
+
+    /**
+     * Consumes the start of an array.
+     * @throws IOException if reading failed.
+     */
+    public void beginArray() throws IOException {
+        open('[');
+    }
+
+    /**
+     * Consumes the end of the current array.
+     * @throws IOException if reading failed.
+     */
+    public void endArray() throws IOException {
+        close(']');
+    }
+
+    /**
+     * Returns true if the current object or array has another member or element, consuming the comma before it.
+     * @return Whether another member or element follows.
+     * @throws IOException if reading failed.
+     */
+    public boolean hasNext() throws IOException {
+        if (ready) {
+            return true;
+        }
+        int c = peek();
+        if (c == '}' || c == ']') {
+            return false;
+        }
+        if (first[depth]) {
+            first[depth] = false;
+        } else {
+            expect(',');
+        }
+        ready = true;
+        return true;
+    }
+
+    /**
+     * Reads the next member name and returns its index among the candidates.
+     * @param candidates The candidate names, encoded by encodeNames().
+     * @return The index of the matching candidate, or -1 if none matches.
+     * @throws IOException if reading failed.
+     */
+    public int nextName(byte[][] candidates) throws IOException {
+        readName();
+        for (int i = 0; i < candidates.length; i++) {
+            if (Arrays.equals(scratch, 0, scratchLength, candidates[i], 0, candidates[i].length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the next member name.
+     * @return The name.
+     * @throws IOException if reading failed.
+     */
+    public String nextName() throws IOException {
+        readName();
+        return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a string value, or null.
+     * @return The string, or null if the value is null.
+     * @throws IOException if reading failed.
+     */
+    public String nextString() throws IOException {
+        value();
+        if (peek() == 'n') {
+            literal("null");
+            return null;
+        }
+        readString();
+        return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a boolean value.
+     * @return The value.
+     * @throws IOException if reading failed.
+     */
+    public boolean nextBoolean() throws IOException {
+        value();
+        if (peek() == 't') {
+            literal("true");
+            return true;
+        }
+        literal("false");
+        return false;
+    }
+
+    /**
+     * Returns true if the next value is null, consuming it.
+     * @return Whether the next value was null.
+     * @throws IOException if reading failed.
+     */
+    public boolean nextNull() throws IOException {
+        value();
+        if (peek() != 'n') {
+            ready = true; // the value is still to be read
+            return false;
+        }
+        literal("null");
+        return true;
+    }
+
+    /**
+     * Reads an integer value that fits in an int.
+     * @return The value.
+     * @throws IOException if reading failed.
+     */
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("Integer out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads an integer value.
+     * @return The value.
+     * @throws IOException if reading failed.
+     */
+    public long nextLong() throws IOException {
+        value();
+        boolean negative = peek() == '-';
+        if (negative) {
+            position++;
+        }
+        int c = peekRaw();
+        if (c < '0' || c > '9') {
+            throw error("Expected an integer");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            int digit = c - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("Integer out of range");
+            }
+            value = value * 10 - digit; // accumulated negatively, so Long.MIN_VALUE fits
+            position++;
+            c = peekRaw();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw error("Expected an integer");
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw error("Integer out of range");
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Reads a number value.
+     * @return The value.
+     * @throws IOException if reading failed.
+     */
+    public double nextDouble() throws IOException {
+        value();
+        scratchLength = 0;
+        boolean negative = peek() == '-';
+        int c = negative ? take('-') : peekRaw();
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        while (c >= '0' && c <= '9') {
+            any = true;
+            if (mantissa != 0 || c != '0') {
+                digits++;
+            }
+            if (digits <= MAX_FAST_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+            }
+            c = take(c);
+        }
+        if (c == '.') {
+            c = take(c);
+            while (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                if (digits <= MAX_FAST_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    exponent--;
+                }
+                c = take(c);
+            }
+        }
+        if (!any) {
+            throw error("Expected a number");
+        }
+        boolean scientific = c == 'e' || c == 'E';
+        if (scientific) {
+            c = take(c);
+            if (c == '+' || c == '-') {
+                c = take(c);
+            }
+            if (c < '0' || c > '9') {
+                throw error("Expected an exponent");
+            }
+            while (c >= '0' && c <= '9') {
+                c = take(c);
+            }
+        }
+        if (!scientific && digits <= MAX_FAST_DIGITS && exponent >= -22) {
+            double value = mantissa / POWERS_OF_TEN[-exponent]; // both exact, so the one rounding is correct
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Skips the next value, including any nested objects and arrays.
+     * @throws IOException if reading failed.
+     */
+    public void skipValue() throws IOException {
+        value();
+        ready = true;
+        switch (peek()) {
+            case '{' -> {
+                beginObject();
+                while (hasNext()) {
+                    readName();
+                    skipValue();
+                }
+                endObject();
+            }
+            case '[' -> {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            }
+            case '"' -> nextString();
+            case 't', 'f' -> nextBoolean();
+            case 'n' -> nextNull();
+            default -> nextDouble();
+        }
+    }
+
+    private void open(char bracket) throws IOException {
+        value();
+        expect(bracket);
+        if (++depth == first.length) {
+            first = Arrays.copyOf(first, depth * 2);
+        }
+        first[depth] = true;
+    }
+
+    private void close(char bracket) throws IOException {
+        if (ready) {
+            throw error("Expected '" + bracket + "'");
+        }
+        expect(bracket);
+        depth--;
+    }
+
+    /**
+     * Prepares to read a value: inside an object or array, the separator must already have been consumed by
+     * hasNext() or, for a member value, by the name.
+     */
+    private void value() throws IOException {
+        if (depth > 0 && !ready) {
+            if (!hasNext()) {
+                throw error("Expected a value");
+            }
+        }
+        ready = false;
+    }
+
+    private void readName() throws IOException {
+        value();
+        readString();
+        expect(':');
+        ready = true; // the member value follows without a separator
+    }
+
+    /**
+     * Reads a string into the scratch buffer as unescaped UTF-8.
+     */
+    private void readString() throws IOException {
+        expect('"');
+        scratchLength = 0;
+        while (true) {
+            int c = readRaw();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                unescape();
+            } else if (c < 0x20 && c >= 0) {
+                throw error("Unescaped control character in string");
+            } else {
+                keep(c);
+            }
+        }
+    }
+
+    private void unescape() throws IOException {
+        int c = readRaw();
+        switch (c) {
+            case '"', '\\', '/' -> keep(c);
+            case 'b' -> keep('\b');
+            case 'f' -> keep('\f');
+            case 'n' -> keep('\n');
+            case 'r' -> keep('\r');
+            case 't' -> keep('\t');
+            case 'u' -> {
+                int unit = hex4();
+                int cp = unit;
+                if (Character.isHighSurrogate((char) unit) && peekRaw() == '\\') {
+                    position++;
+                    if (readRaw() != 'u') {
+                        throw error("Invalid escape sequence");
+                    }
+                    int low = hex4();
+                    cp = Character.isLowSurrogate((char) low) ? Character.toCodePoint((char) unit, (char) low) : '?';
+                } else if (Character.isSurrogate((char) unit)) {
+                    cp = '?';
+                }
+                keepCodePoint(cp);
+            }
+            default -> throw error("Invalid escape sequence");
+        }
+    }
+
+    private int hex4() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(readRaw(), 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private void keepCodePoint(int cp) {
+        if (cp < 0x80) {
+            keep(cp);
+        } else if (cp < 0x800) {
+            keep(0xC0 | (cp >> 6));
+            keep(0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            keep(0xE0 | (cp >> 12));
+            keep(0x80 | ((cp >> 6) & 0x3F));
+            keep(0x80 | (cp & 0x3F));
+        } else {
+            keep(0xF0 | (cp >> 18));
+            keep(0x80 | ((cp >> 12) & 0x3F));
+            keep(0x80 | ((cp >> 6) & 0x3F));
+            keep(0x80 | (cp & 0x3F));
+        }
+    }
+
+    /**
+     * Consumes a byte of a number, keeping it in the scratch buffer, and returns the next one.
+     */
+    private int take(int c) throws IOException {
+        keep(c);
+        position++;
+        return peekRaw();
+    }
+
+    private void keep(int b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratchLength * 2);
+        }
+        scratch[scratchLength++] = (byte) b;
+    }
+
+    private void literal(String expected) throws IOException {
+        for (int i = 0; i < expected.length(); i++) {
+            if (readRaw() != expected.charAt(i)) {
+                throw error("Expected " + expected);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Skips whitespace and returns the next byte without consuming it, or -1 at the end of the input.
+     */
+    private int peek() throws IOException {
+        while (true) {
+            int c = peekRaw();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Returns the next byte without consuming it, or -1 at the end of the input.
+     */
+    private int peekRaw() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private int readRaw() throws IOException {
+        int c = peekRaw();
+        if (c < 0) {
+            throw error("Unexpected end of input");
+        }
+        position++;
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + (offset + position) + ".");
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * Streaming JSON writer producing UTF-8 bytes straight into a reusable buffer, which is written to an
+ * OutputStream whenever it fills up.
+ * Numbers are formatted digit by digit into the buffer, so writing an int, long or double allocates nothing
+ * (doubles with more than three decimals fall back to Double.toString). Member names can be pre-encoded once
+ * with encodeName() and written as raw bytes; JsonCodecs keep theirs in static fields.
+ * Commas between members and elements are inserted automatically; the caller is responsible for balancing
+ * begin and end calls. A JsonOutput is not thread-safe, but can be reused for any number of documents through
+ * reset(), keeping its buffer.
+ */
+package org.example.a3.Model.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class JsonOutput {
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_BYTES_PER_CHAR = 6; // an escaped control character: backslash, u and four digits
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final double MAX_FAST_DOUBLE = 1e12;
+    private static final int FAST_DECIMALS = 3;
+    private static final long FAST_SCALE = 1_000;
+
+    private final byte[] buffer;
+    private int position;
+    private OutputStream out;
+    private boolean[] first = new boolean[16]; // per nesting level: no member or element written yet
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Constructs a JsonOutput with a 16 KiB buffer that must be given a stream through reset() before use.
+     */
+    public JsonOutput() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a JsonOutput that must be given a stream through reset() before use.
+     * @param bufferSize The size of the buffer; at least 64 bytes.
+     */
+    public JsonOutput(int bufferSize) {
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+    }
+
+    /**
+     * Constructs a JsonOutput with a 16 KiB buffer writing to a stream.
+     * @param out The stream to write to.
+     */
+    public JsonOutput(OutputStream out) {
+        this(DEFAULT_BUFFER_SIZE);
+        this.out = out;
+    }
+
+    /**
+     * Discards anything buffered and starts a new document on another stream, keeping the buffer.
+     * @param out The stream to write to.
+     * @return This output.
+     */
+    public JsonOutput reset(OutputStream out) {
+        this.out = out;
+        this.position = 0;
+        this.depth = 0;
+        this.afterName = false;
+        return this;
+    }
+
+    /**
+     * Pre-encodes a member name, with its quotes and the following colon, for name(byte[]).
+     * @param name The member name.
+     * @return The encoded name.
+     */
+    public static byte[] encodeName(String name) {
+        JsonOutput scratch = new JsonOutput(name.length() * MAX_BYTES_PER_CHAR + 64);
+        try {
+            scratch.string(name);
+        } catch (IOException e) {
+            throw new IllegalStateException("The name buffer was too small", e); // cannot happen: it never drains
+        }
+        scratch.buffer[scratch.position++] = ':';
+        return Arrays.copyOf(scratch.buffer, scratch.position);
+    }
+
+    /**
+     * Starts an object.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput beginObject() throws IOException {
+        return open('{');
+    }
+
+    /**
+     * Ends the current object.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput endObject() throws IOException {
+        return close('}');
+    }
+
+    /**
+     * Starts an array.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput beginArray() throws IOException {
+        return open('[');
+    }
+
+    /**
+     * Ends the current array.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput endArray() throws IOException {
+        return close(']');
+    }
+
+    /**
+     * Writes a member name pre-encoded by encodeName().
+     * @param encodedName The encoded name.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput name(byte[] encodedName) throws IOException {
+        separate();
+        raw(encodedName);
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a member name, encoding it on the fly.
+     * @param name The member name.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput name(String name) throws IOException {
+        separate();
+        string(name);
+        ensure(1);
+        buffer[position++] = ':';
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     * @param value The value.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            raw(NULL);
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a number value.
+     * @param value The value.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput value(long value) throws IOException {
+        separate();
+        digits(value);
+        return this;
+    }
+
+    /**
+     * Writes a number value; NaN and infinities, which JSON cannot represent, are written as null.
+     * Values with at most three decimals, such as prices, are formatted without allocating.
+     * @param value The value.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput value(double value) throws IOException {
+        separate();
+        if (!Double.isFinite(value)) {
+            raw(NULL);
+            return this;
+        }
+        if (Math.abs(value) < MAX_FAST_DOUBLE) {
+            long scaled = Math.round(value * FAST_SCALE);
+            if (scaled / (double) FAST_SCALE == value) {
+                fixed(scaled);
+                return this;
+            }
+        }
+        ascii(Double.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     * @param value The value.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput value(boolean value) throws IOException {
+        separate();
+        raw(value ? TRUE : FALSE);
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public JsonOutput nullValue() throws IOException {
+        separate();
+        raw(NULL);
+        return this;
+    }
+
+    /**
+     * Writes a value with its codec, or null.
+     * @param value The value.
+     * @param codec The codec of the value's type.
+     * @param <T> The type of the value.
+     * @return This output.
+     * @throws IOException if writing failed.
+     */
+    public <T> JsonOutput value(T value, JsonCodec<T> codec) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        codec.write(value, this);
+        return this;
+    }
+
+    /**
+     * Writes everything buffered to the stream and flushes it.
+     * @throws IOException if writing failed.
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private JsonOutput open(char bracket) throws IOException {
+        separate();
+        ensure(1);
+        buffer[position++] = (byte) bracket;
+        if (++depth == first.length) {
+            first = Arrays.copyOf(first, depth * 2);
+        }
+        first[depth] = true;
+        return this;
+    }
+
+    private JsonOutput close(char bracket) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) bracket;
+        depth--;
+        return this;
+    }
+
+    /**
+     * Writes the comma needed before a member or element, unless a member name was just written.
+     */
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (first[depth]) {
+                first[depth] = false;
+            } else {
+                ensure(1);
+                buffer[position++] = ',';
+            }
+        }
+    }
+
+    private void string(String s) throws IOException {
+        ensure(2);
+        buffer[position++] = '"';
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            ensure(MAX_BYTES_PER_CHAR);
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (cp >> 18));
+                buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c) || c == '\u2028' || c == '\u2029') {
+                escape(c); // lone surrogates cannot be encoded; the line separators break JavaScript parsers
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ensure(1);
+        buffer[position++] = '"';
+    }
+
+    private void escape(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = HEX[(c >> 12) & 0xF];
+                buffer[position++] = HEX[(c >> 8) & 0xF];
+                buffer[position++] = HEX[(c >> 4) & 0xF];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    /**
+     * Writes an integer in decimal.
+     */
+    private void digits(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            raw(MIN_LONG);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        reverse(start, position - 1);
+    }
+
+    /**
+     * Writes a number given in thousandths as its integer part, a point and one to three decimals.
+     */
+    private void fixed(long thousandths) throws IOException {
+        if (thousandths < 0) {
+            ensure(1);
+            buffer[position++] = '-';
+            thousandths = -thousandths;
+        }
+        digits(thousandths / FAST_SCALE);
+        ensure(1 + FAST_DECIMALS);
+        buffer[position++] = '.';
+        long fraction = thousandths % FAST_SCALE;
+        int decimals = FAST_DECIMALS;
+        while (decimals > 1 && fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+        for (int i = decimals - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        position += decimals;
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte b = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = b;
+        }
+    }
+
+    private void ascii(String s) throws IOException {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer[position++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void raw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            drain();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
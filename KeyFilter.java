@@ -0,0 +1,176 @@
+/**
+ * Bounded Bloom filter over the existing values of a unique column, used to skip the database lookup
+ * for keys that are certainly new.
+ * The filter is filled lazily by streaming the column on first use and rebuilt after the refresh interval or
+ * once it holds more keys than it was sized for. Keys written through this application are added as they are
+ * stored. Until the filter is loaded, or when loading failed, every key is reported as possibly present, so
+ * the caller always falls back to the query rather than to a wrong answer.
+ * Keys inserted by other application instances are only seen after the next refresh; the database's unique
+ * index remains the final guard for that window.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class KeyFilter {
+    private static final Logger LOGGER = Logger.getLogger(KeyFilter.class.getName());
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+    private static final long MIN_BITS = 1L << 16;
+    private static final long MAX_BITS = 1L << 26; // 8 MiB
+    private static final long RETRY_NANOS = Duration.ofSeconds(30).toNanos();
+
+    /**
+     * One generation of the filter: a fixed-size bit set that only ever gains bits.
+     */
+    private static final class Bits {
+        private final AtomicLongArray words;
+        private final long mask;
+        private final int capacity;
+        private final AtomicInteger count = new AtomicInteger();
+        private final long createdNanos = System.nanoTime();
+
+        private Bits(int capacity) {
+            long bits = Long.highestOneBit(Math.max(MIN_BITS, Math.min(MAX_BITS, (long) capacity * BITS_PER_KEY)) * 2 - 1);
+            this.words = new AtomicLongArray((int) (bits >>> 6));
+            this.mask = bits - 1;
+            this.capacity = (int) Math.min(capacity, bits / BITS_PER_KEY);
+        }
+
+        private void add(String key) {
+            long hash = hash(key);
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = (h1 + i * h2) & mask;
+                int word = (int) (bit >>> 6);
+                long bitMask = 1L << bit;
+                long current = words.get(word);
+                while ((current & bitMask) == 0 && !words.compareAndSet(word, current, current | bitMask)) {
+                    current = words.get(word);
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(String key) {
+            long hash = hash(key);
+            long h1 = hash;
+            long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = (h1 + i * h2) & mask;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Consumer<Consumer<String>> loader;
+    private final int expectedKeys;
+    private final long refreshNanos;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile Bits bits;
+    private volatile Bits loading;
+    private volatile long lastFailureNanos;
+    private volatile boolean failed;
+
+    /**
+     * Constructs a KeyFilter.
+     * @param loader Streams every existing key, already normalized, to the consumer it is given.
+     * @param expectedKeys The number of keys the first generation is sized for; later generations are sized
+     *                     from the number of keys actually loaded, up to 8 MiB of bits.
+     * @param refreshInterval How long a loaded filter is used before it is rebuilt from the database.
+     */
+    public KeyFilter(Consumer<Consumer<String>> loader, int expectedKeys, Duration refreshInterval) {
+        this.loader = loader;
+        this.expectedKeys = expectedKeys;
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Returns false if the key is certainly not stored, true if it may be.
+     * May load or rebuild the filter on the calling thread.
+     * @param key The normalized key.
+     * @return Whether the key needs to be looked up in the database.
+     */
+    public boolean mightContain(String key) {
+        Bits current = current();
+        return current == null || current.mightContain(key);
+    }
+
+    /**
+     * Records a key that has been stored.
+     * @param key The normalized key.
+     */
+    public void add(String key) {
+        Bits current = bits;
+        if (current != null) {
+            current.add(key);
+        }
+        Bits next = loading;
+        if (next != null) {
+            next.add(key);
+        }
+    }
+
+    /**
+     * Drops the loaded keys; the filter is rebuilt on next use.
+     */
+    public void invalidate() {
+        bits = null;
+    }
+
+    private Bits current() {
+        Bits current = bits;
+        long now = System.nanoTime();
+        boolean stale = current == null || now - current.createdNanos > refreshNanos
+                || current.count.get() > current.capacity;
+        if (!stale || (failed && now - lastFailureNanos < RETRY_NANOS) || !loadLock.tryLock()) {
+            return current;
+        }
+        try {
+            if (bits != current) {
+                return bits;
+            }
+            int capacity = current == null ? expectedKeys : Math.max(expectedKeys, current.count.get() * 2);
+            Bits next = new Bits(capacity);
+            loading = next;
+            loader.accept(next::add);
+            bits = next;
+            failed = false;
+            return next;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not load unique keys, checking against the database: " + e.getMessage());
+            failed = true;
+            lastFailureNanos = System.nanoTime();
+            return current;
+        } finally {
+            loading = null;
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters of the key, finished with a murmur mix.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
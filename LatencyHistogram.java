@@ -0,0 +1,124 @@
+/**
+ * Lock-free latency distribution: a log-linear histogram (eight buckets per power of two, so percentiles are
+ * accurate to about 12%) made of atomic counters, plus the total and maximum.
+ * Recording allocates nothing and memory is fixed no matter how many values are recorded, so one histogram
+ * can be shared by any number of threads for the lifetime of a server or a load test.
+ * Values are in whatever unit the caller records, typically microseconds.
+ */
+package org.example.a3.BusinessLogic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     * @param value The value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return The count.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return The mean, or 0 if nothing was recorded.
+     */
+    public long mean() {
+        long n = count.sum();
+        return n == 0 ? 0 : total.sum() / n;
+    }
+
+    /**
+     * Returns the highest recorded value.
+     * @return The maximum, or 0 if nothing was recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns percentiles of the recorded values, all taken from the same reading of the histogram.
+     * Each is the upper bound of the bucket holding it, so it overstates the exact value by at most 12%.
+     * @param fractions The percentiles as fractions, e.g. 0.99.
+     * @return The percentiles, in the same order; 0 if nothing was recorded.
+     */
+    public long[] percentiles(double... fractions) {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        long[] values = new long[fractions.length];
+        for (int i = 0; i < fractions.length; i++) {
+            values[i] = percentile(counts, n, fractions[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the histogram bucket of a value: values below 16 have their own bucket, larger ones share a bucket
+     * with the values having the same highest four bits.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the highest value falling into a bucket.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * fraction));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(counts.length - 1);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Parsers for single CSV and JSON Lines records, used by the ImportPipeline.
+ * The JSON object parser also reads the request bodies of the HTTP API.
+ * Both work on one line at a time and allocate only the resulting values.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class LineParsers {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private LineParsers() {}
+
+    /**
+     * Splits a CSV line into its fields. Fields may be enclosed in double quotes, with "" standing for a quote.
+     * @param line The line without its line break.
+     * @return The fields.
+     * @throws IllegalArgumentException if a quoted field is not closed.
+     */
+    static String[] splitCsv(CharSequence line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            field.setLength(0);
+            if (i < length && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Unterminated quoted field.");
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                while (i < length && line.charAt(i) != ',') {
+                    i++;
+                }
+            } else {
+                while (i < length && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString());
+            if (i >= length) {
+                return fields.toArray(new String[0]);
+            }
+            i++; // skip the comma
+        }
+    }
+
+    /**
+     * Parses a flat JSON object into its values, rendered as strings. Numbers and booleans keep their
+     * literal text; null becomes a Java null.
+     * @param line The line holding one JSON object.
+     * @return The values by key.
+     * @throws IllegalArgumentException if the line is not a flat JSON object.
+     */
+    public static Map<String, String> parseJsonObject(CharSequence line) {
+        Map<String, String> values = new HashMap<>();
+        int[] pos = {skipWhitespace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') {
+            pos[0]++;
+            return values;
+        }
+        while (true) {
+            String key = readString(line, pos);
+            expect(line, pos, ':');
+            char c = peek(line, pos);
+            String value;
+            if (c == '"') {
+                value = readString(line, pos);
+            } else if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Nested value for key '" + key + "' is not supported.");
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                String literal = line.subSequence(start, pos[0]).toString();
+                if (literal.isEmpty()) {
+                    throw new IllegalArgumentException("Missing value for key '" + key + "'.");
+                }
+                value = literal.equals("null") ? null : literal;
+            }
+            values.put(key, value);
+
+            char next = peek(line, pos);
+            pos[0]++;
+            if (next == '}') {
+                return values;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Expected ',' or '}' at position " + (pos[0] - 1) + ".");
+            }
+        }
+    }
+
+    private static String readString(CharSequence line, int[] pos) {
+        expect(line, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos[0] >= line.length()) {
+                throw new IllegalArgumentException("Unterminated string.");
+            }
+            char c = line.charAt(pos[0]++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= line.length()) {
+                throw new IllegalArgumentException("Unterminated escape sequence.");
+            }
+            char escaped = line.charAt(pos[0]++);
+            switch (escaped) {
+                case '"': case '\\': case '/': sb.append(escaped); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos[0] + 4 > line.length()) {
+                        throw new IllegalArgumentException("Invalid unicode escape.");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(line.subSequence(pos[0], pos[0] + 4).toString(), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid unicode escape.");
+                    }
+                    pos[0] += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid escape sequence '\\" + escaped + "'.");
+            }
+        }
+    }
+
+    private static void expect(CharSequence line, int[] pos, char expected) {
+        if (peek(line, pos) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at position " + pos[0] + ".");
+        }
+        pos[0]++;
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it, or 0 at the end of the line.
+     */
+    private static char peek(CharSequence line, int[] pos) {
+        pos[0] = skipWhitespace(line, pos[0]);
+        return pos[0] < line.length() ? line.charAt(pos[0]) : 0;
+    }
+
+    private static int skipWhitespace(CharSequence line, int i) {
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * Load and soak test of order placement through the BLL layer.
+ * A run seeds fresh clients and products through ClientBLL and ProductBLL, then lets a pool of buyer threads
+ * place orders through OrderBLL.insertOrder for a fixed time: each order is for a random seeded client, a
+ * product drawn from a Zipf distribution (so a few hot products take most of the orders and their rows and
+ * stock become contended) and a random quantity. Some placed orders are submitted a second time with the
+ * same client order id.
+ * Afterwards it checks the invariants order placement must keep under concurrency: no product has negative
+ * stock, every product's initial stock equals its remaining stock plus the stored ordered quantity, the
+ * stored orders and quantities match what the buyers were told was placed, every order has exactly one bill,
+ * and a resubmission never created a second order.
+ * Seeded rows are named after the run and left in the database.
+ * Run with: java -Dload.buyers=200 -Dload.products=10 ... org.example.a3.BusinessLogic.load.LoadGenerator;
+ * the exit status is 1 if an invariant was broken.
+ */
+package org.example.a3.BusinessLogic.load;
+
+import org.example.a3.BusinessLogic.ApplicationContext;
+import org.example.a3.BusinessLogic.ClientBLL;
+import org.example.a3.BusinessLogic.LatencyHistogram;
+import org.example.a3.BusinessLogic.OrderBLL;
+import org.example.a3.BusinessLogic.ProductBLL;
+import org.example.a3.BusinessLogic.inventory.InventoryLedger;
+import org.example.a3.Model.Client;
+import org.example.a3.Model.Order;
+import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductOrderTotals;
+import org.example.a3.dao.OptimisticLockException;
+import org.example.a3.dao.OrderDAO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LoadGenerator {
+    private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+    private static final int MIN_CLIENT_AGE = 7;
+    private static final int CLIENT_AGE_RANGE = 24;
+    private static final int MAX_LOGGED_FAILURES = 10;
+
+    /**
+     * Counters shared by the buyers of one run.
+     */
+    private static final class Tally {
+        private final LongAdder placed = new LongAdder();
+        private final LongAdder resubmitted = new LongAdder();
+        private final LongAdder outOfStock = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicInteger loggedFailures = new AtomicInteger();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLongArray ordered; // units placed, per product index
+        private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+
+        private Tally(int products) {
+            this.ordered = new AtomicLongArray(products);
+        }
+    }
+
+    private final LoadProfile profile;
+    private final ClientBLL clientBLL;
+    private final ProductBLL productBLL;
+    private final OrderBLL orderBLL;
+    private final OrderDAO orderDAO;
+
+    /**
+     * Constructs a LoadGenerator on the BLLs and DAOs of an application context.
+     * @param profile The settings of the run.
+     * @param context The context providing the BLLs.
+     */
+    public LoadGenerator(LoadProfile profile, ApplicationContext context) {
+        this.profile = profile;
+        this.clientBLL = context.clientBLL();
+        this.productBLL = context.productBLL();
+        this.orderBLL = context.orderBLL();
+        this.orderDAO = context.orderDAO();
+    }
+
+    /**
+     * Seeds the clients and products, runs the buyers for the profile's duration and checks the invariants.
+     * @param progress Receives a progress line every report interval and after each phase.
+     * @return The report of the run.
+     * @throws IllegalStateException if seeding failed, e.g. because the database is unavailable.
+     */
+    public LoadReport run(Consumer<String> progress) {
+        String run = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService buyers = Executors.newFixedThreadPool(profile.buyers(), r -> {
+            Thread thread = new Thread(r, "load-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long seedStart = System.nanoTime();
+            int[] clientIds = seed(buyers, profile.clients(), "client", i -> clientBLL.insertClient(new Client(0,
+                    "Load " + run + " client " + i, "Load street " + i, "load-" + run + "-" + i + "@example.com",
+                    "07" + (10_000_000 + i), MIN_CLIENT_AGE + i % CLIENT_AGE_RANGE)).getId());
+            int[] productIds = seed(buyers, profile.products(), "product", i -> productBLL.insertProduct(new Product(0,
+                    "Load " + run + " product " + i, "Popularity rank " + (i + 1), 1.99 + i % 50,
+                    profile.initialStock())).getId());
+            progress.accept(String.format("Seeded %d clients and %d products in %d ms (run %s)", clientIds.length,
+                    productIds.length, Duration.ofNanos(System.nanoTime() - seedStart).toMillis(), run));
+
+            Tally tally = new Tally(productIds.length);
+            Duration elapsed = drive(buyers, clientIds, productIds, tally, progress);
+            progress.accept("Checking invariants");
+            List<String> violations = verify(productIds, tally);
+
+            long placed = tally.placed.sum();
+            long[] p = tally.latency.percentiles(0.50, 0.90, 0.99, 0.999);
+            return new LoadReport(profile, elapsed, placed, tally.resubmitted.sum(), tally.outOfStock.sum(),
+                    tally.conflicts.sum(), tally.failed.sum(), placed / (elapsed.toNanos() / 1e9),
+                    tally.latency.mean(), p[0], p[1], p[2], p[3], tally.latency.max(), violations);
+        } finally {
+            buyers.shutdownNow();
+        }
+    }
+
+    /**
+     * Inserts count rows in parallel.
+     * @return The IDs of the inserted rows, in index order.
+     */
+    private static int[] seed(ExecutorService executor, int count, String what, IntUnaryOperator insert) {
+        List<Future<Integer>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> insert.applyAsInt(index)));
+        }
+        int[] ids = new int[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                ids[i] = futures.get(i).get();
+                if (ids[i] <= 0) {
+                    throw new IllegalStateException("Could not seed " + what + " " + i + "; see the DAO warnings.");
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not seed " + what + "s: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding was interrupted", e);
+        }
+        return ids;
+    }
+
+    private Duration drive(ExecutorService buyers, int[] clientIds, int[] productIds, Tally tally,
+                           Consumer<String> progress) {
+        ZipfSampler popularity = new ZipfSampler(productIds.length, profile.zipfExponent());
+        long start = System.nanoTime();
+        long deadline = start + profile.duration().toNanos();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = profile.reportInterval().toNanos();
+        reporter.scheduleAtFixedRate(() -> progress.accept(progressLine(tally, System.nanoTime() - start)),
+                interval, interval, TimeUnit.NANOSECONDS);
+
+        List<Future<?>> futures = new ArrayList<>(profile.buyers());
+        for (int b = 0; b < profile.buyers(); b++) {
+            SplittableRandom random = new SplittableRandom(profile.seed() + b);
+            futures.add(buyers.submit(() -> buy(random, deadline, clientIds, productIds, popularity, tally)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A buyer failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The load test was interrupted", e);
+        } finally {
+            reporter.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        progress.accept(progressLine(tally, elapsed.toNanos()));
+        return elapsed;
+    }
+
+    /**
+     * The loop of one buyer thread: places orders until the deadline, now and then resubmitting the last one.
+     */
+    private void buy(SplittableRandom random, long deadline, int[] clientIds, int[] productIds,
+                     ZipfSampler popularity, Tally tally) {
+        Order last = null;
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            if (last != null && random.nextDouble() < profile.duplicateRate()) {
+                resubmit(last, tally);
+                last = null;
+                continue;
+            }
+
+            int product = popularity.sample(random);
+            Order o = new Order(0, clientIds[random.nextInt(clientIds.length)], productIds[product],
+                    1 + random.nextInt(profile.maxQuantity()));
+            o.setClientOrderId(new UUID(random.nextLong(), random.nextLong()));
+            long started = System.nanoTime();
+            try {
+                Order stored = orderBLL.insertOrder(o);
+                tally.latency.record((System.nanoTime() - started) / 1_000);
+                tally.placed.increment();
+                tally.ordered.addAndGet(product, o.getQuantity());
+                last = stored;
+            } catch (OptimisticLockException e) {
+                tally.conflicts.increment();
+            } catch (IllegalArgumentException e) {
+                tally.outOfStock.increment();
+            } catch (RuntimeException e) {
+                fail(tally, e);
+            }
+        }
+    }
+
+    /**
+     * Submits a placed order again under its client order id; it must come back as the same order.
+     */
+    private void resubmit(Order placed, Tally tally) {
+        Order again = new Order(0, placed.getClientId(), placed.getProductId(), placed.getQuantity());
+        again.setClientOrderId(placed.getClientOrderId());
+        try {
+            Order stored = orderBLL.insertOrderOnce(again);
+            tally.resubmitted.increment();
+            if (stored.getId() != placed.getId()) {
+                tally.violations.add("Resubmitting order " + placed.getId() + " stored it again as order " + stored.getId() + ".");
+            }
+        } catch (RuntimeException e) {
+            fail(tally, e);
+        }
+    }
+
+    private static void fail(Tally tally, RuntimeException e) {
+        tally.failed.increment();
+        if (tally.loggedFailures.incrementAndGet() <= MAX_LOGGED_FAILURES) {
+            LOGGER.log(Level.WARNING, "Order failed during the load test: " + e);
+        }
+    }
+
+    private List<String> verify(int[] productIds, Tally tally) {
+        List<String> violations = new ArrayList<>(tally.violations);
+        Map<Integer, ProductOrderTotals> totals = new HashMap<>();
+        for (ProductOrderTotals t : orderDAO.findProductTotals(productIds)) {
+            totals.put(t.productId(), t);
+        }
+        Map<Integer, Product> products = productBLL.findProductsByIds(productIds);
+        InventoryLedger ledger = ApplicationContext.get().inventoryLedger(); // owns the stock while active; the row lags
+
+        long storedOrders = 0;
+        for (int i = 0; i < productIds.length; i++) {
+            int id = productIds[i];
+            ProductOrderTotals t = totals.getOrDefault(id, new ProductOrderTotals(id, 0, 0, 0));
+            storedOrders += t.orderCount();
+
+            int stock;
+            if (ledger != null) {
+                stock = ledger.available(id);
+            } else if (products.containsKey(id)) {
+                stock = products.get(id).getStock();
+            } else {
+                throw new NoSuchElementException("The seeded product with id = " + id + " was not found!");
+            }
+
+            if (stock < 0) {
+                violations.add("Product " + id + " has negative stock " + stock + ".");
+            }
+            if (stock + t.totalQuantity() != profile.initialStock()) {
+                violations.add("Product " + id + ": stock " + stock + " + ordered " + t.totalQuantity()
+                        + " != initial stock " + profile.initialStock() + ".");
+            }
+            if (t.totalQuantity() != tally.ordered.get(i)) {
+                violations.add("Product " + id + ": " + tally.ordered.get(i) + " units reported placed, "
+                        + t.totalQuantity() + " stored.");
+            }
+            if (t.ordersWithoutOneBill() > 0) {
+                violations.add("Product " + id + ": " + t.ordersWithoutOneBill() + " orders without exactly one bill.");
+            }
+        }
+        if (storedOrders != tally.placed.sum()) {
+            violations.add(tally.placed.sum() + " orders reported placed, " + storedOrders + " stored.");
+        }
+        return violations;
+    }
+
+    private static String progressLine(Tally tally, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long placed = tally.placed.sum();
+        long[] p = tally.latency.percentiles(0.50, 0.99);
+        return String.format("%6.1fs  %d placed (%.0f/s), %d out of stock, %d conflicts, %d failed, p50 %d us, p99 %d us",
+                seconds, placed, placed / seconds, tally.outOfStock.sum(), tally.conflicts.sum(), tally.failed.sum(),
+                p[0], p[1]);
+    }
+
+    /**
+     * Runs a load test configured by load.* system properties (see LoadProfile.fromSystemProperties) and prints
+     * its report.
+     * @param args Not used.
+     */
+    public static void main(String[] args) {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        System.out.printf("%d buyers ordering from %d products (Zipf exponent %.2f, top product %.0f%% of orders) "
+                        + "for %d clients, %d s%n", profile.buyers(), profile.products(), profile.zipfExponent(),
+                new ZipfSampler(profile.products(), profile.zipfExponent()).probability(0) * 100, profile.clients(),
+                profile.duration().toSeconds());
+
+        LoadReport report = new LoadGenerator(profile, ApplicationContext.get()).run(System.out::println);
+
+        System.out.printf("Placed %d orders in %.1f s: %.0f orders/s; %d resubmitted, %d out of stock, "
+                        + "%d conflicts, %d failed%n", report.placed(), report.elapsed().toNanos() / 1e9,
+                report.ordersPerSecond(), report.resubmitted(), report.outOfStock(), report.conflicts(), report.failed());
+        System.out.printf("Latency (us): mean %d, p50 %d, p90 %d, p99 %d, p99.9 %d, max %d%n", report.meanMicros(),
+                report.p50Micros(), report.p90Micros(), report.p99Micros(), report.p999Micros(), report.maxMicros());
+        if (report.passed()) {
+            System.out.println("All invariants held.");
+        } else {
+            System.out.println(report.violations().size() + " invariant violations:");
+            report.violations().forEach(v -> System.out.println("  " + v));
+        }
+        System.exit(report.passed() ? 0 : 1);
+    }
+}
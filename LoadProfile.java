@@ -0,0 +1,72 @@
+/**
+ * Settings of a LoadGenerator run.
+ * fromSystemProperties() reads them from load.* system properties, so a run is configured on the command line.
+ * @param clients The number of clients to seed.
+ * @param products The number of products to seed; rank 0 is the most popular.
+ * @param initialStock The stock every seeded product starts with.
+ * @param buyers The number of concurrent buyer threads.
+ * @param duration How long the buyers keep ordering.
+ * @param zipfExponent The skew of product popularity; 0 orders all products equally.
+ * @param maxQuantity Each order asks for between 1 and this many units, uniformly.
+ * @param duplicateRate The fraction of placed orders that are submitted a second time with the same client
+ *                      order id, which must not create a second order.
+ * @param seed The seed of the buyers' random generators.
+ * @param reportInterval How often progress is reported while the buyers run.
+ */
+package org.example.a3.BusinessLogic.load;
+
+import java.time.Duration;
+
+public record LoadProfile(int clients, int products, int initialStock, int buyers, Duration duration,
+                          double zipfExponent, int maxQuantity, double duplicateRate, long seed,
+                          Duration reportInterval) {
+
+    /**
+     * Checks the settings.
+     * @throws IllegalArgumentException if a count or duration is not positive or a rate is outside 0..1.
+     */
+    public LoadProfile {
+        if (clients <= 0 || products <= 0 || initialStock < 0 || buyers <= 0 || maxQuantity <= 0) {
+            throw new IllegalArgumentException("The client, product, buyer and quantity counts must be positive.");
+        }
+        if (duration.isNegative() || duration.isZero() || reportInterval.isNegative() || reportInterval.isZero()) {
+            throw new IllegalArgumentException("The duration and report interval must be positive.");
+        }
+        if (zipfExponent < 0 || duplicateRate < 0 || duplicateRate > 1) {
+            throw new IllegalArgumentException("The Zipf exponent must not be negative and the duplicate rate must be between 0 and 1.");
+        }
+    }
+
+    /**
+     * Reads the settings from system properties: load.clients (default 1000), load.products (10),
+     * load.stock (100000), load.buyers (200), load.seconds (60), load.zipf (1.0), load.maxQuantity (5),
+     * load.duplicates (0.05), load.seed (the current time) and load.reportSeconds (10).
+     * @return The settings.
+     * @throws IllegalArgumentException if a property is not a valid number or setting.
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.clients", 1_000),
+                Integer.getInteger("load.products", 10),
+                Integer.getInteger("load.stock", 100_000),
+                Integer.getInteger("load.buyers", 200),
+                Duration.ofSeconds(Long.getLong("load.seconds", 60)),
+                doubleProperty("load.zipf", 1.0),
+                Integer.getInteger("load.maxQuantity", 5),
+                doubleProperty("load.duplicates", 0.05),
+                Long.getLong("load.seed", System.currentTimeMillis()),
+                Duration.ofSeconds(Long.getLong("load.reportSeconds", 10)));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The property " + name + " is not a number: " + value);
+        }
+    }
+}
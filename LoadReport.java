@@ -0,0 +1,35 @@
+/**
+ * Outcome of a LoadGenerator run. Latencies are in microseconds and cover placed orders only.
+ * @param profile The settings of the run.
+ * @param elapsed How long the buyers ran.
+ * @param placed The number of orders stored.
+ * @param resubmitted The number of orders submitted again with the same client order id.
+ * @param outOfStock The number of orders rejected for insufficient stock.
+ * @param conflicts The number of orders that gave up after repeated concurrent stock changes.
+ * @param failed The number of orders that failed otherwise.
+ * @param ordersPerSecond The rate of placed orders.
+ * @param meanMicros The mean latency.
+ * @param p50Micros The median latency.
+ * @param p90Micros The 90th percentile latency.
+ * @param p99Micros The 99th percentile latency.
+ * @param p999Micros The 99.9th percentile latency.
+ * @param maxMicros The highest latency.
+ * @param violations The broken invariants found after the run; empty if the run passed.
+ */
+package org.example.a3.BusinessLogic.load;
+
+import java.time.Duration;
+import java.util.List;
+
+public record LoadReport(LoadProfile profile, Duration elapsed, long placed, long resubmitted, long outOfStock,
+                         long conflicts, long failed, double ordersPerSecond, long meanMicros, long p50Micros,
+                         long p90Micros, long p99Micros, long p999Micros, long maxMicros, List<String> violations) {
+
+    /**
+     * Returns true if every invariant held.
+     * @return Whether the run passed.
+     */
+    public boolean passed() {
+        return violations.isEmpty();
+    }
+}
@@ -1,8 +1,17 @@
 package org.example.a3.Model;
 
+import org.example.a3.dao.mapping.Column;
+import org.example.a3.dao.mapping.Generated;
+import org.example.a3.dao.mapping.Id;
+import org.example.a3.dao.mapping.Table;
+
+@Table("log")
 public class Log {
+    @Id @Generated
     private int billId;
+    @Column(order = 1)
     private int orderId;
+    @Column(order = 2)
     private double totalAmount;
 
     public Log() {}
@@ -3,6 +3,6 @@ package org.example.a3.dao;
 import org.example.a3.Model.Log;
 public class LogDAO extends AbstractDAO<Log>{
     public LogDAO() {
-        super();
+        super(Log.class);
     }
 }
@@ -1,9 +1,30 @@
 package org.example.a3.presentation;
 
+import org.example.a3.BusinessLogic.ApplicationContext;
+import org.example.a3.BusinessLogic.inventory.ReorderEngine;
+import org.example.a3.BusinessLogic.outbox.FileOutboxSink;
+import org.example.a3.BusinessLogic.outbox.OutboxRelay;
+import org.example.a3.BusinessLogic.inventory.StockEvents;
+
 import javax.swing.*;
 import java.awt.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class MainGUI extends JFrame {
+    private static final Logger LOGGER = Logger.getLogger(MainGUI.class.getName());
+    private static final int LOW_STOCK_THRESHOLD = 5;
+    private static final Duration REORDER_LEAD_TIME = Duration.ofDays(2);
+    private static final Duration CONSUMPTION_WINDOW = Duration.ofHours(6);
+    /** System property naming a file to which order and bill events are relayed from the outbox. */
+    private static final String OUTBOX_FILE_PROPERTY = "outbox.file";
+
+    private ClientManagementWindow clientWindow;
+    private ProductManagementWindow productWindow;
+    private OrderManagementWindow orderWindow;
 
     public MainGUI() {
         setTitle("Management Dashboard");
@@ -13,22 +34,50 @@ public class MainGUI extends JFrame {
         setLayout(new GridLayout(3, 1, 10, 10));
 
         JButton clientBtn = new JButton("Manage Clients");
-        clientBtn.addActionListener(e -> new ClientManagementWindow());
+        clientBtn.addActionListener(e -> clientWindow = showOrCreate(clientWindow, ClientManagementWindow::new));
 
         JButton productBtn = new JButton("Manage Products");
-        productBtn.addActionListener(e -> new ProductManagementWindow());
+        productBtn.addActionListener(e -> productWindow = showOrCreate(productWindow, ProductManagementWindow::new));
 
         JButton orderBtn = new JButton("Manage Orders");
-        orderBtn.addActionListener(e -> new OrderManagementWindow());
+        orderBtn.addActionListener(e -> orderWindow = showOrCreate(orderWindow, OrderManagementWindow::new));
 
         add(clientBtn);
         add(productBtn);
         add(orderBtn);
 
         setVisible(true);
+        ApplicationContext.get().windowShown(getTitle());
+    }
+
+    /**
+     * Brings an open window to the front, or creates it if it was never opened or has been closed.
+     */
+    private static <W extends JFrame> W showOrCreate(W window, Supplier<W> factory) {
+        if (window != null && window.isDisplayable()) {
+            window.setState(Frame.NORMAL);
+            window.toFront();
+            return window;
+        }
+        return factory.get();
     }
 
     public static void main(String[] args) {
+        StockEvents.subscribe(new ReorderEngine(LOW_STOCK_THRESHOLD, REORDER_LEAD_TIME, CONSUMPTION_WINDOW,
+                alert -> LOGGER.warning("Stock alert: " + alert)));
         SwingUtilities.invokeLater(MainGUI::new);
+
+        // the dashboard needs no data, so everything else is prepared while it is being shown
+        ApplicationContext context = ApplicationContext.get();
+        context.warmUp().thenRun(() -> {
+            context.orderJournal(); // starts replaying orders journaled during a database outage
+            String outboxFile = System.getProperty(OUTBOX_FILE_PROPERTY);
+            if (outboxFile != null && !outboxFile.isBlank()) {
+                new OutboxRelay(context.outboxDAO(), new FileOutboxSink(Path.of(outboxFile))).start();
+            }
+        }).exceptionally(e -> {
+            LOGGER.log(Level.SEVERE, "Could not start the order journal or outbox relay", e);
+            return null;
+        });
     }
 }
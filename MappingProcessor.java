@@ -0,0 +1,295 @@
+/**
+ * Annotation processor that generates an EntityMapping for every class annotated with @GenerateMapping.
+ * The generated "_Mapping" class uses precomputed column names and direct getter/setter calls with typed
+ * JDBC accessors, so AbstractDAO needs no reflection for that model at runtime.
+ * Run it with javac -processor org.example.a3.dao.mapping.MappingProcessor (or register it with the build).
+ * The @Table, @Id, @Column, @Transient and @Generated annotations are interpreted exactly as EntityMetadata
+ * does at runtime, so generated and reflective mappings produce the same column order.
+ */
+package org.example.a3.dao.mapping;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+@SupportedAnnotationTypes("org.example.a3.dao.mapping.GenerateMapping")
+public class MappingProcessor extends AbstractProcessor {
+
+    /**
+     * A mapped field together with its accessors and JDBC accessor suffix.
+     */
+    private static final class MappedField {
+        private final String field;
+        private final String name;
+        private final String type;
+        private final String getter;
+        private final String setter;
+        private final String jdbc;
+        private final int order;
+
+        private MappedField(String field, String name, String type, String getter, String setter, String jdbc, int order) {
+            this.field = field;
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.jdbc = jdbc;
+            this.order = order;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateMapping.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateMapping can only be applied to classes");
+                continue;
+            }
+            TypeElement model = (TypeElement) element;
+            List<MappedField> columns = collectColumns(model);
+            if (columns != null) {
+                write(model, columns);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the mapped fields of a model in column order (id first) and checks the conventions.
+     * @param model The annotated model class.
+     * @return The columns, or null if an error was reported.
+     */
+    private List<MappedField> collectColumns(TypeElement model) {
+        if (!hasPublicDefaultConstructor(model)) {
+            error(model, "Mapped class needs a public no-argument constructor");
+            return null;
+        }
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(model.getEnclosedElements());
+        List<VariableElement> fields = new ArrayList<>();
+        boolean annotatedId = false;
+        for (VariableElement field : ElementFilter.fieldsIn(model.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC) && field.getAnnotation(Transient.class) == null) {
+                fields.add(field);
+                annotatedId |= field.getAnnotation(Id.class) != null;
+            }
+        }
+
+        MappedField id = null;
+        List<MappedField> columns = new ArrayList<>();
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            String type = field.asType().toString();
+            String property = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            String getter = findMethod(methods, field.asType().getKind() == TypeKind.BOOLEAN ? "is" + property : "get" + property, 0);
+            String setter = findMethod(methods, "set" + property, 1);
+            if (getter == null || setter == null) {
+                error(field, "Mapped field needs a public getter and setter");
+                return null;
+            }
+            Column column = field.getAnnotation(Column.class);
+            String columnName = column == null || column.value().isEmpty() ? name : column.value();
+            int order = column == null ? Integer.MAX_VALUE : column.order();
+            MappedField mapped = new MappedField(name, columnName, type, getter, setter, jdbcSuffix(type), order);
+
+            boolean isId = annotatedId ? field.getAnnotation(Id.class) != null : id == null && name.equals("id");
+            if (isId) {
+                if (!type.equals("int")) {
+                    error(field, "The id field must be an int");
+                    return null;
+                }
+                id = mapped;
+            } else {
+                columns.add(mapped);
+            }
+        }
+
+        if (id == null) {
+            error(model, "No @Id field found");
+            return null;
+        }
+        columns.sort(Comparator.comparingInt((MappedField f) -> f.order).thenComparing(f -> f.field));
+        columns.add(0, id);
+        return columns;
+    }
+
+    /**
+     * Returns true if the id column is generated by the database, following the EntityMetadata rules.
+     */
+    private boolean isGeneratedId(TypeElement model) {
+        for (VariableElement field : ElementFilter.fieldsIn(model.getEnclosedElements())) {
+            if (field.getAnnotation(Id.class) != null) {
+                return field.getAnnotation(Generated.class) != null;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasPublicDefaultConstructor(TypeElement model) {
+        for (ExecutableElement ctor : ElementFilter.constructorsIn(model.getEnclosedElements())) {
+            if (ctor.getParameters().isEmpty() && ctor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String findMethod(List<ExecutableElement> methods, String name, int parameters) {
+        for (ExecutableElement method : methods) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == parameters
+                    && method.getModifiers().contains(Modifier.PUBLIC)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the ResultSet/PreparedStatement accessor suffix for a field type,
+     * or null when the value has to go through getObject/setObject.
+     */
+    private String jdbcSuffix(String type) {
+        switch (type) {
+            case "int": return "Int";
+            case "long": return "Long";
+            case "double": return "Double";
+            case "float": return "Float";
+            case "boolean": return "Boolean";
+            case "java.lang.String": return "String";
+            case "java.math.BigDecimal": return "BigDecimal";
+            default: return null;
+        }
+    }
+
+    private void write(TypeElement model, List<MappedField> columns) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(model);
+        String packageName = pkg.getQualifiedName().toString();
+        String modelName = model.getSimpleName().toString();
+        String className = modelName + EntityMappings.GENERATED_SUFFIX;
+        Table tableAnnotation = model.getAnnotation(Table.class);
+        String table = tableAnnotation == null ? modelName.toLowerCase() : tableAnnotation.value();
+        if (tableAnnotation != null && tableAnnotation.quoted()) {
+            table = "\\\"" + table + "\\\"";
+        }
+
+        int versionColumn = -1;
+        for (int i = 1; i < columns.size(); i++) {
+            if (columns.get(i).field.equals(EntityMetadata.VERSION_FIELD) && columns.get(i).type.equals("int")) {
+                versionColumn = i;
+            }
+        }
+
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(packageName).append(";\n\n");
+        src.append("import java.sql.PreparedStatement;\n");
+        src.append("import java.sql.ResultSet;\n");
+        src.append("import java.sql.SQLException;\n");
+        src.append("import org.example.a3.dao.mapping.EntityMapping;\n\n");
+        src.append("/**\n * EntityMapping for ").append(modelName).append(", generated by MappingProcessor. Do not edit.\n */\n");
+        src.append("@javax.annotation.processing.Generated(\"").append(MappingProcessor.class.getName()).append("\")\n");
+        src.append("public final class ").append(className).append(" implements EntityMapping<").append(modelName).append("> {\n");
+
+        src.append("    private static final String[] COLUMNS = {");
+        for (int i = 0; i < columns.size(); i++) {
+            src.append(i == 0 ? "" : ", ").append('"').append(columns.get(i).name).append('"');
+        }
+        src.append("};\n\n");
+
+        src.append("    @Override\n    public Class<").append(modelName).append("> type() { return ").append(modelName).append(".class; }\n\n");
+        src.append("    @Override\n    public String table() { return \"").append(table).append("\"; }\n\n");
+        src.append("    @Override\n    public String[] columns() { return COLUMNS.clone(); }\n\n");
+        src.append("    @Override\n    public int versionColumn() { return ").append(versionColumn).append("; }\n\n");
+        src.append("    @Override\n    public boolean generatedId() { return ").append(isGeneratedId(model)).append("; }\n\n");
+
+        src.append("    @Override\n    public ").append(modelName).append(" read(ResultSet resultSet) throws SQLException {\n");
+        src.append("        ").append(modelName).append(" t = new ").append(modelName).append("();\n");
+        for (int i = 0; i < columns.size(); i++) {
+            MappedField c = columns.get(i);
+            src.append("        t.").append(c.setter).append("(");
+            if (c.jdbc != null) {
+                src.append("resultSet.get").append(c.jdbc).append("(").append(i + 1).append(")");
+            } else {
+                src.append("resultSet.getObject(").append(i + 1).append(", ").append(boxed(c.type)).append(".class)");
+            }
+            src.append(");\n");
+        }
+        src.append("        return t;\n    }\n\n");
+
+        src.append("    @Override\n    public Object[] values(").append(modelName).append(" t) {\n");
+        src.append("        return new Object[]{");
+        for (int i = 0; i < columns.size(); i++) {
+            src.append(i == 0 ? "" : ", ").append("t.").append(columns.get(i).getter).append("()");
+        }
+        src.append("};\n    }\n\n");
+
+        src.append("    @Override\n    public void bind(PreparedStatement statement, int parameterIndex, ")
+                .append(modelName).append(" t, int column) throws SQLException {\n");
+        src.append("        switch (column) {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            MappedField c = columns.get(i);
+            src.append("            case ").append(i).append(": statement.set")
+                    .append(c.jdbc != null ? c.jdbc : "Object")
+                    .append("(parameterIndex, t.").append(c.getter).append("()); break;\n");
+        }
+        src.append("            default: throw new IndexOutOfBoundsException(\"No column \" + column + \" in ").append(modelName).append("\");\n");
+        src.append("        }\n    }\n\n");
+
+        src.append("    @Override\n    public int getId(").append(modelName).append(" t) { return t.")
+                .append(columns.get(0).getter).append("(); }\n\n");
+        src.append("    @Override\n    public void setId(").append(modelName).append(" t, int id) { t.")
+                .append(columns.get(0).setter).append("(id); }\n\n");
+        src.append("    @Override\n    public void setVersion(").append(modelName).append(" t, int version) { ");
+        if (versionColumn >= 0) {
+            src.append("t.").append(columns.get(versionColumn).setter).append("(version); }\n");
+        } else {
+            src.append("throw new UnsupportedOperationException(\"").append(modelName).append(" is not versioned.\"); }\n");
+        }
+        src.append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + className, model);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        } catch (IOException e) {
+            error(model, "Could not write " + className + ": " + e.getMessage());
+        }
+    }
+
+    private String boxed(String type) {
+        switch (type) {
+            case "char": return "Character";
+            case "byte": return "Byte";
+            case "short": return "Short";
+            default: return type;
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
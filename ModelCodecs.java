@@ -0,0 +1,358 @@
+/**
+ * JsonCodecs for the model classes, written out field by field so that neither writing nor reading uses
+ * reflection or boxes a number.
+ * Member names are encoded once, into static byte arrays: with quotes and colon for writing, raw for matching
+ * while reading. Member names are the Java property names, and the members are written in declaration order.
+ */
+package org.example.a3.Model.json;
+
+import org.example.a3.Model.Bill;
+import org.example.a3.Model.Client;
+import org.example.a3.Model.ClientListItem;
+import org.example.a3.Model.ClientOrderSummary;
+import org.example.a3.Model.Order;
+import org.example.a3.Model.OrderDetail;
+import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductListItem;
+
+import java.io.IOException;
+import java.util.UUID;
+
+public final class ModelCodecs {
+    /** Codec of Client: id, name, address, email, phone, age, version. */
+    public static final JsonCodec<Client> CLIENT = new ClientCodec();
+    /** Codec of Product: id, name, description, price, stock, version. */
+    public static final JsonCodec<Product> PRODUCT = new ProductCodec();
+    /** Codec of Order: id, clientId, productId, quantity, clientOrderId. */
+    public static final JsonCodec<Order> ORDER = new OrderCodec();
+    /** Codec of Bill: billId, orderId, totalAmount. */
+    public static final JsonCodec<Bill> BILL = new BillCodec();
+    /** Codec of OrderDetail: the record components in order. */
+    public static final JsonCodec<OrderDetail> ORDER_DETAIL = new OrderDetailCodec();
+    /** Codec of ClientListItem: id, name. */
+    public static final JsonCodec<ClientListItem> CLIENT_LIST_ITEM = new ClientListItemCodec();
+    /** Codec of ProductListItem: id, name, price, stock. */
+    public static final JsonCodec<ProductListItem> PRODUCT_LIST_ITEM = new ProductListItemCodec();
+    /** Codec of ClientOrderSummary: the record components in order. */
+    public static final JsonCodec<ClientOrderSummary> CLIENT_ORDER_SUMMARY = new ClientOrderSummaryCodec();
+
+    private static final byte[] ID = JsonOutput.encodeName("id");
+    private static final byte[] NAME = JsonOutput.encodeName("name");
+    private static final byte[] ADDRESS = JsonOutput.encodeName("address");
+    private static final byte[] EMAIL = JsonOutput.encodeName("email");
+    private static final byte[] PHONE = JsonOutput.encodeName("phone");
+    private static final byte[] AGE = JsonOutput.encodeName("age");
+    private static final byte[] VERSION = JsonOutput.encodeName("version");
+    private static final byte[] DESCRIPTION = JsonOutput.encodeName("description");
+    private static final byte[] PRICE = JsonOutput.encodeName("price");
+    private static final byte[] STOCK = JsonOutput.encodeName("stock");
+    private static final byte[] CLIENT_ID = JsonOutput.encodeName("clientId");
+    private static final byte[] PRODUCT_ID = JsonOutput.encodeName("productId");
+    private static final byte[] QUANTITY = JsonOutput.encodeName("quantity");
+    private static final byte[] CLIENT_ORDER_ID = JsonOutput.encodeName("clientOrderId");
+    private static final byte[] BILL_ID = JsonOutput.encodeName("billId");
+    private static final byte[] ORDER_ID = JsonOutput.encodeName("orderId");
+    private static final byte[] TOTAL_AMOUNT = JsonOutput.encodeName("totalAmount");
+    private static final byte[] CLIENT_NAME = JsonOutput.encodeName("clientName");
+    private static final byte[] PRODUCT_NAME = JsonOutput.encodeName("productName");
+    private static final byte[] UNIT_PRICE = JsonOutput.encodeName("unitPrice");
+    private static final byte[] ORDER_COUNT = JsonOutput.encodeName("orderCount");
+    private static final byte[] TOTAL_QUANTITY = JsonOutput.encodeName("totalQuantity");
+    private static final byte[] TOTAL_SPEND = JsonOutput.encodeName("totalSpend");
+    private static final byte[] LAST_ORDER_ID = JsonOutput.encodeName("lastOrderId");
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ModelCodecs() {}
+
+    private static final class ClientCodec implements JsonCodec<Client> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("id", "name", "address", "email", "phone", "age", "version");
+
+        @Override
+        public void write(Client c, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(ID).value(c.getId())
+                    .name(NAME).value(c.getName())
+                    .name(ADDRESS).value(c.getAddress())
+                    .name(EMAIL).value(c.getEmail())
+                    .name(PHONE).value(c.getPhone())
+                    .name(AGE).value(c.getAge())
+                    .name(VERSION).value(c.getVersion())
+                    .endObject();
+        }
+
+        @Override
+        public Client read(JsonInput in) throws IOException {
+            Client c = new Client();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> c.setId(in.nextInt());
+                    case 1 -> c.setName(in.nextString());
+                    case 2 -> c.setAddress(in.nextString());
+                    case 3 -> c.setEmail(in.nextString());
+                    case 4 -> c.setPhone(in.nextString());
+                    case 5 -> c.setAge(in.nextInt());
+                    case 6 -> c.setVersion(in.nextInt());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return c;
+        }
+    }
+
+    private static final class ProductCodec implements JsonCodec<Product> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("id", "name", "description", "price", "stock", "version");
+
+        @Override
+        public void write(Product p, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(ID).value(p.getId())
+                    .name(NAME).value(p.getName())
+                    .name(DESCRIPTION).value(p.getDescription())
+                    .name(PRICE).value(p.getPrice())
+                    .name(STOCK).value(p.getStock())
+                    .name(VERSION).value(p.getVersion())
+                    .endObject();
+        }
+
+        @Override
+        public Product read(JsonInput in) throws IOException {
+            Product p = new Product();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> p.setId(in.nextInt());
+                    case 1 -> p.setName(in.nextString());
+                    case 2 -> p.setDescription(in.nextString());
+                    case 3 -> p.setPrice(in.nextDouble());
+                    case 4 -> p.setStock(in.nextInt());
+                    case 5 -> p.setVersion(in.nextInt());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return p;
+        }
+    }
+
+    private static final class OrderCodec implements JsonCodec<Order> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("id", "clientId", "productId", "quantity", "clientOrderId");
+
+        @Override
+        public void write(Order o, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(ID).value(o.getId())
+                    .name(CLIENT_ID).value(o.getClientId())
+                    .name(PRODUCT_ID).value(o.getProductId())
+                    .name(QUANTITY).value(o.getQuantity())
+                    .name(CLIENT_ORDER_ID).value(o.getClientOrderId() == null ? null : o.getClientOrderId().toString())
+                    .endObject();
+        }
+
+        @Override
+        public Order read(JsonInput in) throws IOException {
+            Order o = new Order();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> o.setId(in.nextInt());
+                    case 1 -> o.setClientId(in.nextInt());
+                    case 2 -> o.setProductId(in.nextInt());
+                    case 3 -> o.setQuantity(in.nextInt());
+                    case 4 -> {
+                        String key = in.nextString();
+                        o.setClientOrderId(key == null ? null : UUID.fromString(key));
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return o;
+        }
+    }
+
+    private static final class BillCodec implements JsonCodec<Bill> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("billId", "orderId", "totalAmount");
+
+        @Override
+        public void write(Bill b, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(BILL_ID).value(b.billId())
+                    .name(ORDER_ID).value(b.orderId())
+                    .name(TOTAL_AMOUNT).value(b.totalAmount())
+                    .endObject();
+        }
+
+        @Override
+        public Bill read(JsonInput in) throws IOException {
+            int billId = 0;
+            int orderId = 0;
+            double totalAmount = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> billId = in.nextInt();
+                    case 1 -> orderId = in.nextInt();
+                    case 2 -> totalAmount = in.nextDouble();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Bill(billId, orderId, totalAmount);
+        }
+    }
+
+    private static final class OrderDetailCodec implements JsonCodec<OrderDetail> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("orderId", "clientId", "clientName", "productId",
+                "productName", "quantity", "unitPrice", "billId", "totalAmount");
+
+        @Override
+        public void write(OrderDetail d, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(ORDER_ID).value(d.orderId())
+                    .name(CLIENT_ID).value(d.clientId())
+                    .name(CLIENT_NAME).value(d.clientName())
+                    .name(PRODUCT_ID).value(d.productId())
+                    .name(PRODUCT_NAME).value(d.productName())
+                    .name(QUANTITY).value(d.quantity())
+                    .name(UNIT_PRICE).value(d.unitPrice())
+                    .name(BILL_ID).value(d.billId())
+                    .name(TOTAL_AMOUNT).value(d.totalAmount())
+                    .endObject();
+        }
+
+        @Override
+        public OrderDetail read(JsonInput in) throws IOException {
+            int orderId = 0;
+            int clientId = 0;
+            String clientName = null;
+            int productId = 0;
+            String productName = null;
+            int quantity = 0;
+            double unitPrice = 0;
+            int billId = 0;
+            double totalAmount = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> orderId = in.nextInt();
+                    case 1 -> clientId = in.nextInt();
+                    case 2 -> clientName = in.nextString();
+                    case 3 -> productId = in.nextInt();
+                    case 4 -> productName = in.nextString();
+                    case 5 -> quantity = in.nextInt();
+                    case 6 -> unitPrice = in.nextDouble();
+                    case 7 -> billId = in.nextInt();
+                    case 8 -> totalAmount = in.nextDouble();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new OrderDetail(orderId, clientId, clientName, productId, productName, quantity, unitPrice,
+                    billId, totalAmount);
+        }
+    }
+
+    private static final class ClientListItemCodec implements JsonCodec<ClientListItem> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("id", "name");
+
+        @Override
+        public void write(ClientListItem item, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(ID).value(item.id())
+                    .name(NAME).value(item.name())
+                    .endObject();
+        }
+
+        @Override
+        public ClientListItem read(JsonInput in) throws IOException {
+            int id = 0;
+            String name = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> id = in.nextInt();
+                    case 1 -> name = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ClientListItem(id, name);
+        }
+    }
+
+    private static final class ProductListItemCodec implements JsonCodec<ProductListItem> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("id", "name", "price", "stock");
+
+        @Override
+        public void write(ProductListItem item, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(ID).value(item.id())
+                    .name(NAME).value(item.name())
+                    .name(PRICE).value(item.price())
+                    .name(STOCK).value(item.stock())
+                    .endObject();
+        }
+
+        @Override
+        public ProductListItem read(JsonInput in) throws IOException {
+            int id = 0;
+            String name = null;
+            double price = 0;
+            int stock = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> id = in.nextInt();
+                    case 1 -> name = in.nextString();
+                    case 2 -> price = in.nextDouble();
+                    case 3 -> stock = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ProductListItem(id, name, price, stock);
+        }
+    }
+
+    private static final class ClientOrderSummaryCodec implements JsonCodec<ClientOrderSummary> {
+        private static final byte[][] NAMES = JsonInput.encodeNames("clientId", "orderCount", "totalQuantity",
+                "totalSpend", "lastOrderId");
+
+        @Override
+        public void write(ClientOrderSummary s, JsonOutput out) throws IOException {
+            out.beginObject()
+                    .name(CLIENT_ID).value(s.clientId())
+                    .name(ORDER_COUNT).value(s.orderCount())
+                    .name(TOTAL_QUANTITY).value(s.totalQuantity())
+                    .name(TOTAL_SPEND).value(s.totalSpend())
+                    .name(LAST_ORDER_ID).value(s.lastOrderId())
+                    .endObject();
+        }
+
+        @Override
+        public ClientOrderSummary read(JsonInput in) throws IOException {
+            int clientId = 0;
+            int orderCount = 0;
+            long totalQuantity = 0;
+            double totalSpend = 0;
+            int lastOrderId = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName(NAMES)) {
+                    case 0 -> clientId = in.nextInt();
+                    case 1 -> orderCount = in.nextInt();
+                    case 2 -> totalQuantity = in.nextLong();
+                    case 3 -> totalSpend = in.nextDouble();
+                    case 4 -> lastOrderId = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ClientOrderSummary(clientId, orderCount, totalQuantity, totalSpend, lastOrderId);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Unchecked exception thrown by AbstractDAO.update when a versioned row was changed by someone else
+ * since it was loaded, i.e. the UPDATE ... AND version = ? matched no rows.
+ * Callers can reload the object and retry instead of holding database locks.
+ */
+package org.example.a3.dao;
+
+public class OptimisticLockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String entity;
+    private final int id;
+    private final int expectedVersion;
+
+    /**
+     * Constructs a new OptimisticLockException.
+     * @param entity The simple name of the model type that could not be updated.
+     * @param id The ID of the row that could not be updated.
+     * @param expectedVersion The version the caller expected the row to have.
+     */
+    public OptimisticLockException(String entity, int id, int expectedVersion) {
+        super("The " + entity.toLowerCase() + " with id = " + id + " was modified or deleted by someone else (expected version " + expectedVersion + ").");
+        this.entity = entity;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    /**
+     * Returns the simple name of the model type that could not be updated.
+     * @return The entity name.
+     */
+    public String getEntity() { return entity; }
+
+    /**
+     * Returns the ID of the row that could not be updated.
+     * @return The row ID.
+     */
+    public int getId() { return id; }
+
+    /**
+     * Returns the version the caller expected the row to have.
+     * @return The expected version.
+     */
+    public int getExpectedVersion() { return expectedVersion; }
+}
@@ -1,14 +1,31 @@
 /**
  * Represents an order in the Orders Management system.
- * This class stores order details such as ID, client ID, product ID, and quantity.
+ * This class stores order details such as ID, client ID, product ID, and quantity,
+ * plus an optional client-generated order id that makes resubmitting the same order harmless.
  */
 package org.example.a3.Model;
 
+import org.example.a3.dao.mapping.Column;
+import org.example.a3.dao.mapping.GenerateMapping;
+import org.example.a3.dao.mapping.Generated;
+import org.example.a3.dao.mapping.Id;
+import org.example.a3.dao.mapping.Table;
+
+import java.util.UUID;
+
+@GenerateMapping
+@Table(value = "order", quoted = true)
 public class Order {
+    @Id @Generated
     private int id;
+    @Column(order = 1)
     private int clientId;
+    @Column(order = 2)
     private int productId;
+    @Column(order = 3)
     private int quantity;
+    @Column(order = 4)
+    private UUID clientOrderId;
 
     /**
      * Default constructor for Order.
@@ -73,12 +90,23 @@ public class Order {
      */
     public void setQuantity(int quantity) { this.quantity = quantity; }
 
+    /**
+     * Returns the client-generated order id, used to recognize resubmissions of the same order.
+     * @return The client order id, or null if none was assigned.
+     */
+    public UUID getClientOrderId() { return clientOrderId; }
+    /**
+     * Sets the client-generated order id.
+     * @param clientOrderId The new client order id.
+     */
+    public void setClientOrderId(UUID clientOrderId) { this.clientOrderId = clientOrderId; }
+
     /**
      * Returns a string representation of the order.
      * @return A string containing order details.
      */
     @Override
     public String toString() {
-        return "Order [id=" + id + ", clientId=" + clientId + ", productId=" + productId + ", quantity=" + quantity + "]";
+        return "Order [id=" + id + ", clientId=" + clientId + ", productId=" + productId + ", quantity=" + quantity + ", clientOrderId=" + clientOrderId + "]";
     }
 }
\ No newline at end of file
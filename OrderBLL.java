@@ -4,62 +4,391 @@
  */
 package org.example.a3.BusinessLogic;
 
+import org.example.a3.BusinessLogic.exporter.ExportEngine;
+import org.example.a3.BusinessLogic.exporter.ExportFormat;
+import org.example.a3.BusinessLogic.exporter.ExportResult;
+import org.example.a3.BusinessLogic.exporter.ExportTable;
+import org.example.a3.BusinessLogic.inventory.InventoryLedger;
+import org.example.a3.BusinessLogic.inventory.Reservation;
+import org.example.a3.BusinessLogic.inventory.StockEvents;
+import org.example.a3.BusinessLogic.inventory.StockReservations;
+import org.example.a3.BusinessLogic.journal.OrderJournal;
 import org.example.a3.Model.Bill;
 import org.example.a3.Model.Order;
+import org.example.a3.Model.OrderDetail;
 import org.example.a3.Model.Product;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.connection.TransactionManager;
 import org.example.a3.dao.BillDAO;
+import org.example.a3.dao.ClientSummaryDAO;
+import org.example.a3.dao.ExportDAO;
+import org.example.a3.dao.OptimisticLockException;
 import org.example.a3.dao.OrderDAO;
+import org.example.a3.dao.OrderDetailDAO;
+import org.example.a3.dao.OutboxDAO;
 import org.example.a3.dao.ProductDAO;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class OrderBLL {
+    private static final int MAX_ORDER_ATTEMPTS = 3;
+    private static final int RECENT_ORDERS_SIZE = 10_000;
+    private static final Duration RECENT_ORDERS_TTL = Duration.ofMinutes(10);
+
+    /** Orders recently stored under a client order id, so resubmissions are answered without a query. */
+    private static final ExpiringCache<UUID, Order> RECENT_ORDERS = new ExpiringCache<>(RECENT_ORDERS_SIZE, RECENT_ORDERS_TTL);
+    /** Submissions currently being stored, so a concurrent duplicate waits for the first one instead of racing it. */
+    private static final Map<UUID, CompletableFuture<Order>> IN_FLIGHT = new ConcurrentHashMap<>();
+
     private final OrderDAO orderDAO;
     private final ProductDAO productDAO;
     private final BillDAO billDAO;
+    private final OrderDetailDAO orderDetailDAO;
+    private final ClientSummaryDAO clientSummaryDAO;
+    private final OutboxDAO outboxDAO;
+    private final StockReservations reservations;
+    private final InventoryLedger ledger;
 
     /**
      * Constructs a new OrderBLL instance.
-     * Initializes DAOs for Order, Product, and Bill.
+     * Initializes DAOs for Order, Product, Bill, the order detail read model, the client summaries and the outbox,
+     * and uses the shared stock reservations and, if configured, the shared inventory ledger.
+     * @throws IllegalStateException if the configured inventory ledger could not be opened.
      */
     public OrderBLL() {
-        this.orderDAO = new OrderDAO();
-        this.productDAO = new ProductDAO();
-        this.billDAO = new BillDAO();
+        this(new OrderDAO(), new ProductDAO(), new BillDAO(), new OrderDetailDAO(), new ClientSummaryDAO(), new OutboxDAO(),
+                ApplicationContext.get().stockReservations(), ApplicationContext.get().inventoryLedger());
+    }
+
+    /**
+     * Constructs an OrderBLL on shared DAOs.
+     * @param orderDAO The DAO for orders.
+     * @param productDAO The DAO for products.
+     * @param billDAO The DAO for bills.
+     * @param orderDetailDAO The DAO for the order detail read model.
+     * @param clientSummaryDAO The DAO for the client order summaries.
+     * @param outboxDAO The DAO for the outbox.
+     * @param reservations The stock reservations, shared by every OrderBLL of the process.
+     * @param ledger The inventory ledger that owns the stock, or null to update the product rows directly;
+     *               must be the one the reservations use.
+     */
+    public OrderBLL(OrderDAO orderDAO, ProductDAO productDAO, BillDAO billDAO, OrderDetailDAO orderDetailDAO,
+                    ClientSummaryDAO clientSummaryDAO, OutboxDAO outboxDAO, StockReservations reservations,
+                    InventoryLedger ledger) {
+        this.orderDAO = orderDAO;
+        this.productDAO = productDAO;
+        this.billDAO = billDAO;
+        this.orderDetailDAO = orderDetailDAO;
+        this.clientSummaryDAO = clientSummaryDAO;
+        this.outboxDAO = outboxDAO;
+        this.reservations = reservations;
+        this.ledger = ledger;
     }
 
     /**
      * Inserts a new order into the database.
      * Performs stock validation and decrements product stock upon successful order.
-     * Also generates and stores a bill for the order.
+     * Units held by active reservations are not available to the order; the product row is locked while the
+     * stock is checked, so a concurrent reservation cannot claim the same units.
+     * When an InventoryLedger is configured, the stock is taken from the ledger instead of updating the
+     * product row; the take becomes final when the transaction commits and is returned if it rolls back.
+     * Orders without a client order id are then given a random one, which ties the take to the order.
+     * Also generates and stores a bill for the order, adds it to the client's order summary and writes
+     * OrderPlaced and BillIssued events to the outbox for downstream systems.
+     * The stock update, order insert, bill insert and summary update run in one transaction and commit together;
+     * when called inside an outer TransactionManager scope they join it instead.
+     * If the product's stock was changed concurrently, the whole order is retried against the fresh stock
+     * (only when this call owns the transaction).
+     * An order with a client order id is inserted at most once; see insertOrderOnce.
      * @param o The Order object to insert.
      * @return The inserted Order object.
      * @throws NoSuchElementException if the product associated with the order is not found.
      * @throws IllegalArgumentException if there is insufficient stock for the order.
+     * @throws TransactionException if any of the writes failed and the transaction was rolled back.
+     * @throws OptimisticLockException if the product stock was still changing after the last attempt.
      */
     public Order insertOrder(Order o) {
-        Product product = productDAO.findById(o.getProductId());
+        if (o.getClientOrderId() != null) {
+            return insertOrderOnce(o);
+        }
+        return inOrderTransaction(() -> placeOrder(o, null));
+    }
+
+    /**
+     * Inserts an order unless an order with the same client order id (the idempotency key) already exists,
+     * in which case the existing order is returned and no stock is taken. Orders without a client order id
+     * are always inserted.
+     * Recently stored orders are answered from an in-memory cache without touching the database, and a
+     * duplicate submitted while the first one is still running waits for it. Otherwise the existence check
+     * and the insert run in one transaction, backed by the unique index on clientOrderId.
+     * @param o The Order object to insert.
+     * @return o itself if this call inserted it, otherwise another object holding the previously stored order.
+     * @throws NoSuchElementException if the product associated with the order is not found.
+     * @throws IllegalArgumentException if there is insufficient stock for the order.
+     * @throws TransactionException if any of the writes failed and the transaction was rolled back.
+     */
+    public Order insertOrderOnce(Order o) {
+        UUID key = o.getClientOrderId();
+        if (key == null) {
+            return inOrderTransaction(() -> placeOrder(o, null));
+        }
+        Order recent = RECENT_ORDERS.get(key);
+        if (recent != null) {
+            return copyOf(recent);
+        }
+        if (TransactionManager.isActive()) {
+            return insertOrFind(o);
+        }
+
+        CompletableFuture<Order> mine = new CompletableFuture<>();
+        CompletableFuture<Order> running = IN_FLIGHT.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return copyOf(running.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            Order stored = insertOrFind(o);
+            mine.complete(stored);
+            return stored;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            IN_FLIGHT.remove(key, mine);
+        }
+    }
+
+    /**
+     * Returns the stored order with the client order id of o, inserting o if there is none.
+     * The result is cached once the transaction commits.
+     */
+    private Order insertOrFind(Order o) {
+        UUID key = o.getClientOrderId();
+        try {
+            return inOrderTransaction(() -> {
+                Order existing = orderDAO.findByClientOrderId(key);
+                Order stored = existing != null ? existing : placeOrder(o, null);
+                TransactionManager.afterCommit(() -> RECENT_ORDERS.put(key, copyOf(stored)));
+                return stored;
+            });
+        } catch (TransactionException e) {
+            if (TransactionManager.isActive()) {
+                throw e;
+            }
+            // Another process may have stored the same key first and made our insert hit the unique index.
+            Order existing = orderDAO.findByClientOrderId(key);
+            if (existing == null) {
+                throw e;
+            }
+            RECENT_ORDERS.put(key, copyOf(existing));
+            return existing;
+        }
+    }
+
+    private static Order copyOf(Order o) {
+        Order copy = new Order(o.getId(), o.getClientId(), o.getProductId(), o.getQuantity());
+        copy.setClientOrderId(o.getClientOrderId());
+        return copy;
+    }
+
+    /**
+     * Accepts an order without waiting for the database.
+     * When an order journal is configured, the order is durably journaled and inserted asynchronously,
+     * so orders survive a short database outage; otherwise it is inserted immediately with insertOrderOnce.
+     * Stock and product checks then happen at insertion, and rejected orders are logged by the journal.
+     * @param o The Order object to accept; a client order id is assigned if it has none.
+     * @return The client order id of the accepted order.
+     * @throws NoSuchElementException if the order is inserted immediately and its product is not found.
+     * @throws IllegalArgumentException if the quantity is invalid, or the order is inserted immediately with insufficient stock.
+     * @throws IllegalStateException if an order journal is configured but could not be opened.
+     */
+    public UUID acceptOrder(Order o) {
+        OrderJournal journal = ApplicationContext.get().orderJournal();
+        if (journal != null) {
+            return journal.accept(o);
+        }
+        if (o.getClientOrderId() == null) {
+            o.setClientOrderId(UUID.randomUUID());
+        }
+        insertOrderOnce(o);
+        return o.getClientOrderId();
+    }
+
+    /**
+     * Opens the order journal configured through the order.journal.dir system property, which starts
+     * replaying the orders left pending by the previous run into this OrderBLL.
+     * Called once by ApplicationContext, which shares the journal.
+     * @return The opened journal, or null if no journal directory is configured.
+     * @throws IllegalStateException if the journal cannot be opened; opening can be retried.
+     */
+    public OrderJournal openConfiguredJournal() {
+        String directory = System.getProperty(OrderJournal.DIRECTORY_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        return new OrderJournal(Path.of(directory), this::insertOrderOnce);
+    }
+
+    /**
+     * Runs order work in a transaction, retrying the whole order when a product's stock changed concurrently
+     * (only when this call owns the transaction).
+     */
+    private Order inOrderTransaction(Supplier<Order> work) {
+        if (TransactionManager.isActive()) {
+            return TransactionManager.inTransaction(work);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return TransactionManager.inTransaction(work);
+            } catch (OptimisticLockException e) {
+                if (attempt >= MAX_ORDER_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Holds stock of a product for a customer during checkout, without placing an order.
+     * @param productId The ID of the product.
+     * @param quantity The number of units to hold.
+     * @param ttl How long the hold lasts unless it is confirmed or released.
+     * @return The new reservation.
+     * @throws NoSuchElementException if the product is not found.
+     * @throws IllegalArgumentException if the quantity or ttl is not positive, or not enough unreserved stock is available.
+     * @throws TransactionException if the product could not be read and locked.
+     */
+    public Reservation reserveStock(int productId, int quantity, Duration ttl) {
+        return reservations.reserve(productId, quantity, ttl);
+    }
+
+    /**
+     * Releases a reservation before it expires.
+     * @param reservationId The ID of the reservation.
+     * @return true if the hold was released; false if it is no longer active or is being confirmed.
+     */
+    public boolean releaseReservation(long reservationId) {
+        return reservations.release(reservationId);
+    }
+
+    /**
+     * Returns the stock of a product that new orders and reservations can still take,
+     * i.e. the committed stock minus the units held by active reservations.
+     * @param productId The ID of the product.
+     * @return The available stock.
+     * @throws NoSuchElementException if the product is not found.
+     */
+    public int availableStock(int productId) {
+        return reservations.availableStock(productId);
+    }
+
+    /**
+     * Places the order for a reservation, using the units it holds. The order is stored under the
+     * reservation's order key as its client order id.
+     * The hold ends only once the order's transaction has committed, and is kept (or released, if it expired
+     * meanwhile) when the order fails. When called inside an outer TransactionManager scope it joins it.
+     * @param reservationId The ID of the reservation.
+     * @param clientId The ID of the ordering client.
+     * @return The inserted Order object.
+     * @throws NoSuchElementException if the reservation is no longer active or the product is not found.
+     * @throws IllegalArgumentException if the committed stock dropped below the held quantity.
+     * @throws TransactionException if any of the writes failed and the transaction was rolled back.
+     * @throws OptimisticLockException if the product stock was still changing after the last attempt.
+     */
+    public Order confirmReservation(long reservationId, int clientId) {
+        return inOrderTransaction(() -> {
+            Reservation reservation = reservations.claim(reservationId);
+            TransactionManager.afterCommit(() -> reservations.complete(reservationId));
+            TransactionManager.afterRollback(() -> reservations.unclaim(reservationId));
+            Order o = new Order(0, clientId, reservation.productId(), reservation.quantity());
+            o.setClientOrderId(reservation.orderKey());
+            return placeOrder(o, reservation);
+        });
+    }
+
+    /**
+     * Places an order inside the current transaction.
+     * @param reservation The claimed reservation whose units the order uses, or null.
+     */
+    private Order placeOrder(Order o, Reservation reservation) {
+        // Without a ledger, lock the row so reservations of the same product wait until this order ends.
+        Product product = ledger != null ? productDAO.findById(o.getProductId()) : productDAO.findByIdForUpdate(o.getProductId());
         if (product == null) {
+            if (TransactionManager.isRollbackOnly()) {
+                throw new TransactionException("Could not load product with ID " + o.getProductId() + ".");
+            }
             throw new NoSuchElementException("Product with ID " + o.getProductId() + " not found.");
         }
 
-        if (product.getStock() < o.getQuantity()) {
-            throw new IllegalArgumentException("Not enough stock available for product: " + product.getName() + ". Available: " + product.getStock() + ", Requested: " + o.getQuantity());
+        int available;
+        if (ledger != null) {
+            // A reservation's units were already taken from the ledger when they were reserved.
+            available = reservation != null ? reservation.quantity() : ledger.available(product.getId());
+        } else {
+            int ownHeld = reservation != null ? reservation.quantity() : 0;
+            available = product.getStock() - (reservations.heldQuantity(product.getId()) - ownHeld);
+        }
+        if (available < o.getQuantity()) {
+            throw new IllegalArgumentException("Not enough stock available for product: " + product.getName() + ". Available: " + Math.max(0, available) + ", Requested: " + o.getQuantity());
         }
 
-        product.setStock(product.getStock() - o.getQuantity());
-        productDAO.update(product);
+        if (ledger != null && reservation != null) {
+            UUID key = reservation.orderKey();
+            TransactionManager.afterCommit(() -> ledger.commit(key)); // on rollback the take stays with the hold
+            StockEvents.publish(product.getId(), -o.getQuantity(), ledger.available(product.getId()));
+        } else if (ledger != null) {
+            if (o.getClientOrderId() == null) {
+                o.setClientOrderId(UUID.randomUUID()); // identifies the ledger's take if the process stops before commit
+            }
+            UUID key = o.getClientOrderId();
+            int remaining = ledger.take(product.getId(), o.getQuantity(), key);
+            TransactionManager.afterCommit(() -> ledger.commit(key));
+            TransactionManager.afterRollback(() -> ledger.abort(key));
+            StockEvents.publish(product.getId(), -o.getQuantity(), remaining);
+        } else {
+            product.setStock(product.getStock() - o.getQuantity());
+            productDAO.update(product);
+            StockEvents.publish(product.getId(), -o.getQuantity(), product.getStock());
+        }
 
         Order insertedOrder = orderDAO.insert(o);
 
         double total = o.getQuantity() * product.getPrice();
-        Bill bill = new Bill(0, insertedOrder.getId(), total);
-        billDAO.insert(bill);
+        Bill bill = billDAO.insert(new Bill(0, insertedOrder.getId(), total));
+        clientSummaryDAO.apply(o.getClientId(), o.getQuantity(), total, insertedOrder.getId());
+        outboxDAO.insert("OrderPlaced", insertedOrder.getId(), orderPlacedPayload(insertedOrder));
+        outboxDAO.insert("BillIssued", insertedOrder.getId(), billIssuedPayload(bill));
 
         return insertedOrder;
     }
 
+    private static String orderPlacedPayload(Order o) {
+        return "{\"orderId\":" + o.getId()
+                + ",\"clientOrderId\":" + (o.getClientOrderId() == null ? "null" : "\"" + o.getClientOrderId() + "\"")
+                + ",\"clientId\":" + o.getClientId()
+                + ",\"productId\":" + o.getProductId()
+                + ",\"quantity\":" + o.getQuantity() + "}";
+    }
+
+    private static String billIssuedPayload(Bill bill) {
+        return "{\"billId\":" + bill.billId()
+                + ",\"orderId\":" + bill.orderId()
+                + ",\"totalAmount\":" + bill.totalAmount() + "}";
+    }
+
     /**
      * Retrieves all orders from the database.
      * @return A list of all Order objects.
@@ -67,4 +396,36 @@ public class OrderBLL {
     public List<Order> findAllOrders() {
         return orderDAO.findAll();
     }
+
+    /**
+     * Retrieves one page of orders joined with their client, product and bill.
+     * @param afterOrderId 0 for the first page, otherwise the last orderId of the previous page.
+     * @param limit The maximum number of orders to return.
+     * @return The order details, ordered by order id.
+     */
+    public List<OrderDetail> findOrderDetails(int afterOrderId, int limit) {
+        return orderDetailDAO.findPage(afterOrderId, limit);
+    }
+
+    /**
+     * Streams all orders joined with their client, product and bill, without loading them all into memory.
+     * @param consumer Receives each order detail, in order id order.
+     */
+    public void forEachOrderDetail(Consumer<OrderDetail> consumer) {
+        orderDetailDAO.forEach(consumer);
+    }
+
+    /**
+     * Exports all orders and bills into a directory, streaming both tables in parallel.
+     * Files are named orders-00001.csv, bills-00001.csv and so on (.a3col for the columnar format).
+     * @param directory The target directory; created if missing.
+     * @param format The output format.
+     * @param maxFileBytes The size after which output rolls over to a new part file; 0 for one file per table.
+     * @return The results for orders and bills, in that order.
+     * @throws IllegalStateException if a table could not be read or written.
+     */
+    public List<ExportResult> exportOrdersAndBills(Path directory, ExportFormat format, long maxFileBytes) {
+        return new ExportEngine(new ExportDAO())
+                .export(List.of(ExportTable.ORDERS, ExportTable.BILLS), format, directory, maxFileBytes);
+    }
 }
\ No newline at end of file
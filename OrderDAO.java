@@ -5,12 +5,72 @@
 package org.example.a3.dao;
 
 import org.example.a3.Model.Order;
+import org.example.a3.Model.ProductOrderTotals;
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
 
 public class OrderDAO extends AbstractDAO<Order>{
+    private static final String PRODUCT_TOTALS_QUERY = "SELECT o.productId, COUNT(*), SUM(o.quantity), "
+            + "COUNT(*) FILTER (WHERE b.bills <> 1) "
+            + "FROM \"order\" o CROSS JOIN LATERAL (SELECT COUNT(*) AS bills FROM log l WHERE l.orderId = o.id) b "
+            + "WHERE o.productId = ANY(?) GROUP BY o.productId ORDER BY o.productId";
+
     /**
      * Constructs a new OrderDAO.
      */
     public OrderDAO() {
-        super();
+        super(Order.class);
+    }
+
+    /**
+     * Finds the order submitted with the given client-generated order id.
+     * @param clientOrderId The client-generated order id.
+     * @return The found Order, or null if not found.
+     */
+    public Order findByClientOrderId(UUID clientOrderId) {
+        return findFirstBy("clientOrderId", clientOrderId);
+    }
+
+    /**
+     * Computes the order totals of some products, checking every order's bills on the way.
+     * @param productIds The IDs of the products.
+     * @return The totals, ordered by product ID; products without orders are absent.
+     */
+    public List<ProductOrderTotals> findProductTotals(int[] productIds) {
+        List<ProductOrderTotals> list = new ArrayList<>();
+        Integer[] boxed = new Integer[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            boxed[i] = productIds[i];
+        }
+
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PRODUCT_TOTALS_QUERY)) {
+
+            Array array = connection.createArrayOf("integer", boxed);
+            statement.setArray(1, array);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    list.add(new ProductOrderTotals(resultSet.getInt(1), resultSet.getInt(2), resultSet.getLong(3),
+                            resultSet.getInt(4)));
+                }
+            } finally {
+                array.free();
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OrderDAO:findProductTotals " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return list;
     }
 }
\ No newline at end of file
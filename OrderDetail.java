@@ -0,0 +1,13 @@
+/**
+ * Flat, read-only view of an order joined with its client, product and bill.
+ * Produced by OrderDetailDAO in a single query so listings need no per-order lookups.
+ * The unit price is the product's current price; totalAmount is the billed amount (0 if no bill exists).
+ * An order with several bills shows its latest bill id and the sum of their amounts.
+ * If the client or product has been deleted, its name is empty and the unit price is 0.
+ */
+package org.example.a3.Model;
+
+public record OrderDetail(int orderId, int clientId, String clientName, int productId, String productName,
+                          int quantity, double unitPrice, int billId, double totalAmount) {
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Data Access Object for the order detail read model.
+ * Joins "order", client, product and log in one query and maps each row positionally into an OrderDetail.
+ * The bills of an order are aggregated before the join, so every order is exactly one row and a page
+ * boundary never falls inside an order. Client and product are outer-joined, so an order whose client or
+ * product has been deleted is still listed, and the query returns one row per row of "order".
+ * Like BillDAO it does NOT extend AbstractDAO: the view is read-only.
+ */
+package org.example.a3.dao;
+
+import org.example.a3.Model.OrderDetail;
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.mapping.RecordMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class OrderDetailDAO {
+    protected static final Logger LOGGER = Logger.getLogger(OrderDetailDAO.class.getName());
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final String SELECT = "SELECT o.id, o.clientId, COALESCE(c.name, ''), o.productId, "
+            + "COALESCE(p.name, ''), o.quantity, COALESCE(p.price, 0), "
+            + "COALESCE(l.billId, 0), COALESCE(l.totalAmount, 0) "
+            + "FROM \"order\" o "
+            + "LEFT JOIN client c ON c.id = o.clientId "
+            + "LEFT JOIN product p ON p.id = o.productId "
+            + "LEFT JOIN LATERAL (SELECT MAX(billId) AS billId, SUM(totalAmount) AS totalAmount "
+            + "FROM log WHERE orderId = o.id) l ON true";
+    private static final String PAGE_QUERY = SELECT + " WHERE o.id > ? ORDER BY o.id LIMIT ?";
+    private static final String STREAM_QUERY = SELECT + " ORDER BY o.id";
+
+    private final RecordMapper<OrderDetail> mapper = RecordMapper.of(OrderDetail.class);
+
+    /**
+     * Retrieves one page of order details using keyset pagination.
+     * Pass 0 for the first page and the last orderId of the previous page for the next one,
+     * so each page is an index range scan regardless of how deep it is.
+     * @param afterOrderId Only orders with a greater id are returned.
+     * @param limit The maximum number of rows to return.
+     * @return The order details, ordered by order id.
+     */
+    public List<OrderDetail> findPage(int afterOrderId, int limit) {
+        List<OrderDetail> list = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PAGE_QUERY)) {
+
+            statement.setInt(1, afterOrderId);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    list.add(mapper.read(resultSet));
+                }
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OrderDetailDAO:findPage " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return list;
+    }
+
+    /**
+     * Streams all order details to a consumer without materializing them.
+     * Runs in a read-only transaction so the driver fetches rows through a server-side cursor.
+     * @param consumer Receives each order detail, in order id order.
+     */
+    public void forEach(Consumer<OrderDetail> consumer) {
+        TransactionManager.inTransaction(TransactionManager.Propagation.REQUIRED,
+                TransactionManager.Isolation.DEFAULT, true, () -> {
+                    stream(consumer);
+                    return null;
+                });
+    }
+
+    private void stream(Consumer<OrderDetail> consumer) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(STREAM_QUERY)) {
+
+            statement.setFetchSize(FETCH_SIZE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(mapper.read(resultSet));
+                }
+            }
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OrderDetailDAO:forEach " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+    }
+}
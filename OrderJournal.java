@@ -0,0 +1,435 @@
+/**
+ * Local write-ahead journal that durably accepts orders while the database may be unreachable.
+ * Orders are appended as fixed-size, CRC-checked binary records to memory-mapped segment files and
+ * forced to disk before accept() returns, which takes microseconds instead of a database round trip.
+ * A background thread replays accepted orders to the database in order; each outcome is appended as an
+ * APPLIED (with the database order id) or REJECTED record, so a restart replays only what is left.
+ * Orders the database refuses with an integrity constraint violation (SQLState class 23), e.g. for an unknown
+ * client, are rejected. An order that keeps failing while the database is reachable is moved to a dead-letter
+ * file after a few attempts, so it cannot block the orders behind it; connection failures are retried forever.
+ * Replay is idempotent: orders carry a client-generated order id and are inserted only if no order with
+ * that id exists yet, so an order applied just before a crash is not inserted twice.
+ * Segments are deleted oldest first, once every order they hold has an outcome: a newer segment may hold the
+ * outcomes of orders in an older one, so it is kept until every older segment is gone.
+ */
+package org.example.a3.BusinessLogic.journal;
+
+import org.example.a3.Model.Order;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.dao.OptimisticLockException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+public class OrderJournal implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OrderJournal.class.getName());
+
+    /** System property naming the journal directory; orders go straight to the database when it is not set. */
+    public static final String DIRECTORY_PROPERTY = "order.journal.dir";
+
+    /*
+     * Record layout (48 bytes): type (4), clientOrderId (16),
+     * ORDER: clientId, productId, quantity (3 x 4), acceptedAt millis (8);
+     * APPLIED: orderId (4), unused (16); REJECTED, DEAD_LETTERED: unused (20);
+     * reserved (4), CRC32C of the first 44 bytes (4). A zero type marks the end of the written part.
+     */
+    private static final int RECORD_BYTES = 48;
+    private static final int CHECKSUMMED_BYTES = 44;
+    private static final int ORDER = 1;
+    private static final int APPLIED = 2;
+    private static final int REJECTED = 3;
+    private static final int DEAD_LETTERED = 4;
+    private static final int MAX_REPLAY_ATTEMPTS = 5;
+    private static final int SEGMENT_BYTES = 4 * 1024 * 1024;
+    private static final long REPLAY_INTERVAL_MILLIS = 500;
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    /**
+     * An accepted order waiting to be replayed, and the segment holding its record.
+     */
+    private static final class Pending {
+        private final Order order;
+        private final int segment;
+        /** Failed replays while the database was reachable; used by the replay thread only. */
+        private int attempts;
+
+        private Pending(Order order, int segment) {
+            this.order = order;
+            this.segment = segment;
+        }
+    }
+
+    private final Path directory;
+    private final Function<Order, Order> applier;
+    private final CRC32C crc = new CRC32C();
+
+    /** Accepted orders without an outcome, in acceptance order. Guarded by this. */
+    private final LinkedHashMap<UUID, Pending> pending = new LinkedHashMap<>();
+    /** Number of pending orders per segment. Guarded by this. */
+    private final Map<Integer, Integer> liveOrders = new HashMap<>();
+    /** Indexes of the segment files on disk, oldest first. Guarded by this. */
+    private final TreeSet<Integer> segmentIndexes = new TreeSet<>();
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private boolean closed;
+
+    private final ScheduledExecutorService replayer;
+    private final AtomicBoolean wakeupQueued = new AtomicBoolean();
+    /** Set while the database is failing; replay then only runs on the fixed interval. */
+    private volatile boolean retrying;
+
+    /**
+     * Constructs an OrderJournal, recovers the orders still pending in the directory and starts replaying them.
+     * @param directory The directory holding the journal segments.
+     * @param applier Inserts an order into the database unless an order with the same client order id exists,
+     *                and returns the stored order; it is called from the replay thread only.
+     * @throws IllegalStateException if the journal cannot be opened.
+     */
+    public OrderJournal(Path directory, Function<Order, Order> applier) {
+        this.directory = directory;
+        this.applier = applier;
+        try {
+            Files.createDirectories(directory);
+            synchronized (this) {
+                recover();
+                openSegment(segmentIndex + 1);
+                deleteCompletedSegments();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open the order journal in " + directory, e);
+        }
+
+        this.replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-journal-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replayer.scheduleWithFixedDelay(this::replay, 0, REPLAY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Durably accepts an order for asynchronous insertion into the database.
+     * A client order id is assigned if the order has none. Accepting an order whose client order id is
+     * already pending does nothing.
+     * @param o The order to accept; its client, product and quantity are journaled.
+     * @return The client order id under which the order was accepted.
+     * @throws IllegalArgumentException if the quantity is not positive.
+     * @throws IllegalStateException if the journal is closed or could not be written.
+     */
+    public UUID accept(Order o) {
+        if (o.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0.");
+        }
+        if (o.getClientOrderId() == null) {
+            o.setClientOrderId(UUID.randomUUID());
+        }
+        UUID id = o.getClientOrderId();
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The order journal is closed.");
+            }
+            if (!pending.containsKey(id)) {
+                append(ORDER, id, o.getClientId(), o.getProductId(), o.getQuantity(), System.currentTimeMillis());
+                Order copy = new Order(0, o.getClientId(), o.getProductId(), o.getQuantity());
+                copy.setClientOrderId(id);
+                pending.put(id, new Pending(copy, segmentIndex));
+                liveOrders.merge(segmentIndex, 1, Integer::sum);
+            }
+        }
+        if (!retrying && wakeupQueued.compareAndSet(false, true)) {
+            replayer.execute(this::replay);
+        }
+        return id;
+    }
+
+    /**
+     * Returns true if the order with the given client order id was accepted but not yet applied or rejected.
+     * @param clientOrderId The client order id.
+     * @return Whether the order is still waiting for replay.
+     */
+    public synchronized boolean isPending(UUID clientOrderId) {
+        return pending.containsKey(clientOrderId);
+    }
+
+    /**
+     * Returns the number of accepted orders waiting for replay.
+     * @return The number of pending orders.
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stops replaying and closes the journal. Pending orders stay in the journal for the next start.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        replayer.shutdown();
+        try {
+            replayer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies pending orders in acceptance order until none are left or the database fails.
+     * Orders rejected by the business rules or by an integrity constraint are recorded as REJECTED;
+     * other failures leave the order pending and end this round, so it is retried on the next one,
+     * until it has failed MAX_REPLAY_ATTEMPTS times while the database was reachable and is dead-lettered.
+     */
+    private void replay() {
+        wakeupQueued.set(false);
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                if (closed || pending.isEmpty()) {
+                    return;
+                }
+                next = pending.values().iterator().next();
+            }
+
+            Order applied;
+            try {
+                applied = applier.apply(next.order);
+            } catch (TransactionException e) {
+                String state = e.getSQLState();
+                if (state != null && state.startsWith("23")) {
+                    LOGGER.log(Level.WARNING, "OrderJournal:replay rejected " + next.order.getClientOrderId()
+                            + " by a constraint (" + state + "): " + e.getCause().getMessage());
+                    complete(next, REJECTED, 0);
+                    continue;
+                }
+                boolean reachable = state != null && !state.startsWith("08"); // class 08: connection exception
+                if (reachable && deadLetterIfExhausted(next, e)) {
+                    continue;
+                }
+                retryLater(next, e, false);
+                return;
+            } catch (OptimisticLockException e) {
+                if (deadLetterIfExhausted(next, e)) {
+                    continue;
+                }
+                retryLater(next, e, false);
+                return;
+            } catch (IllegalArgumentException | NoSuchElementException e) {
+                LOGGER.log(Level.WARNING, "OrderJournal:replay rejected " + next.order.getClientOrderId() + ": " + e.getMessage());
+                complete(next, REJECTED, 0);
+                continue;
+            } catch (RuntimeException e) {
+                if (deadLetterIfExhausted(next, e)) {
+                    continue;
+                }
+                retryLater(next, e, true);
+                return;
+            }
+            retrying = false;
+            complete(next, APPLIED, applied.getId());
+        }
+    }
+
+    /**
+     * Logs a failed replay at WARNING only when it starts a run of failures, to keep an outage from flooding the log.
+     */
+    private void retryLater(Pending next, RuntimeException e, boolean unexpected) {
+        Level level = retrying ? Level.FINE : Level.WARNING;
+        retrying = true;
+        String message = "OrderJournal:replay will retry " + next.order.getClientOrderId() + ": " + e.getMessage();
+        if (unexpected) {
+            LOGGER.log(level, message, e);
+        } else {
+            LOGGER.log(level, message);
+        }
+    }
+
+    /**
+     * Counts a failed replay of an order that the database could have applied; once it has failed
+     * MAX_REPLAY_ATTEMPTS times, writes it to the dead-letter file and records it as DEAD_LETTERED.
+     * @return Whether the order was dead-lettered, so replay can go on with the next one.
+     */
+    private boolean deadLetterIfExhausted(Pending next, RuntimeException e) {
+        if (++next.attempts < MAX_REPLAY_ATTEMPTS) {
+            return false;
+        }
+        Order o = next.order;
+        String line = o.getClientOrderId() + "\tclient=" + o.getClientId() + "\tproduct=" + o.getProductId()
+                + "\tquantity=" + o.getQuantity() + "\t" + e + System.lineSeparator();
+        try {
+            Files.writeString(directory.resolve(DEAD_LETTER_FILE), line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException io) {
+            LOGGER.log(Level.WARNING, "OrderJournal:deadLetter " + io.getMessage());
+            return false;
+        }
+        LOGGER.log(Level.SEVERE, "OrderJournal:replay gave up on " + o.getClientOrderId() + " after "
+                + next.attempts + " attempts; moved to " + DEAD_LETTER_FILE, e);
+        retrying = false;
+        complete(next, DEAD_LETTERED, 0);
+        return true;
+    }
+
+    private synchronized void complete(Pending done, int type, int orderId) {
+        if (closed) {
+            return;
+        }
+        UUID id = done.order.getClientOrderId();
+        append(type, id, orderId, 0, 0, 0);
+        pending.remove(id);
+        int left = liveOrders.merge(done.segment, -1, Integer::sum);
+        if (left == 0) {
+            liveOrders.remove(done.segment);
+            deleteCompletedSegments();
+        }
+    }
+
+    /**
+     * Writes one record at the end of the current segment and forces it to disk, rolling to a new
+     * segment when the current one is full. Must be called while holding the lock.
+     */
+    private void append(int type, UUID id, int a, int b, int c, long d) {
+        try {
+            if (segment.remaining() < RECORD_BYTES) {
+                openSegment(segmentIndex + 1);
+                deleteCompletedSegments();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open a new order journal segment", e);
+        }
+
+        int start = segment.position();
+        segment.putInt(type)
+                .putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                .putInt(a).putInt(b).putInt(c).putLong(d)
+                .putInt(0);
+        crc.reset();
+        crc.update(segment.duplicate().position(start).limit(start + CHECKSUMMED_BYTES));
+        segment.putInt((int) crc.getValue());
+        segment.force(start, RECORD_BYTES);
+    }
+
+    private void openSegment(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        }
+        segmentIndex = index;
+        segmentIndexes.add(index);
+    }
+
+    /**
+     * Deletes the oldest segments, except the current one, as long as none of their orders is pending.
+     * Stops at the first segment that still has one, since its outcomes may be in the segments after it.
+     * Must be called while holding the lock.
+     */
+    private void deleteCompletedSegments() {
+        while (!segmentIndexes.isEmpty()) {
+            int oldest = segmentIndexes.first();
+            if (oldest == segmentIndex || liveOrders.containsKey(oldest)) {
+                return;
+            }
+            deleteSegment(oldest);
+            segmentIndexes.pollFirst();
+        }
+    }
+
+    private void deleteSegment(int index) {
+        try {
+            Files.deleteIfExists(segmentPath(index));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "OrderJournal:delete " + e.getMessage());
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Rebuilds the pending orders and the segment list from the existing segments.
+     * Reading a segment stops at its first empty or corrupt record; a corrupt record is a write torn by a crash,
+     * which was never acknowledged to the caller.
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> {
+                String fileName = p.getFileName().toString();
+                return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            int index = Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+            segmentIndexes.add(index);
+            segmentIndex = Math.max(segmentIndex, index);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (records.remaining() >= RECORD_BYTES) {
+                    int start = records.position();
+                    int type = records.getInt();
+                    if (type == 0) {
+                        break;
+                    }
+                    UUID id = new UUID(records.getLong(), records.getLong());
+                    int a = records.getInt();
+                    int b = records.getInt();
+                    int c = records.getInt();
+                    records.getLong();
+                    records.getInt();
+                    crc.reset();
+                    crc.update(records.duplicate().position(start).limit(start + CHECKSUMMED_BYTES));
+                    if (records.getInt() != (int) crc.getValue()) {
+                        LOGGER.log(Level.WARNING, "OrderJournal: torn record in " + file + " at offset " + start);
+                        break;
+                    }
+
+                    if (type == ORDER) {
+                        Order order = new Order(0, a, b, c);
+                        order.setClientOrderId(id);
+                        pending.putIfAbsent(id, new Pending(order, index));
+                    } else {
+                        pending.remove(id);
+                    }
+                }
+            }
+        }
+
+        for (Pending p : pending.values()) {
+            liveOrders.merge(p.segment, 1, Integer::sum);
+        }
+        if (!pending.isEmpty()) {
+            LOGGER.log(Level.INFO, "OrderJournal: " + pending.size() + " accepted orders pending replay");
+        }
+    }
+}
@@ -1,40 +1,56 @@
 /**
  * GUI window for managing Order operations (Place Order, View Orders).
- * Allows users to select existing clients and products to create new orders.
+ * Allows users to select existing clients and products to create new orders; both are picked by typing part
+ * of a name (or a client's email), searched in the shared in-memory indexes rather than listed in full.
  */
 package org.example.a3.presentation;
 
+import org.example.a3.BusinessLogic.ApplicationContext;
 import org.example.a3.BusinessLogic.OrderBLL;
 import org.example.a3.BusinessLogic.ClientBLL;
 import org.example.a3.BusinessLogic.ProductBLL;
+import org.example.a3.BusinessLogic.reference.ReferenceData;
 import org.example.a3.Model.Client;
+import org.example.a3.Model.ClientListItem;
 import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductListItem;
 import org.example.a3.Model.Order;
+import org.example.a3.Model.OrderDetail;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 public class OrderManagementWindow extends JFrame {
+    private static final int PAGE_SIZE = 200;
+    private static final int PICKER_LIMIT = 20;
+
     private final OrderBLL orderBLL;
     private final ClientBLL clientBLL;
     private final ProductBLL productBLL;
+    private final ReferenceData<Client> clients;
+    private final ReferenceData<Product> products;
 
-    private JComboBox<Client> clientCombo;
-    private JComboBox<Product> productCombo;
+    private TypeAheadPicker<ClientListItem> clientPicker;
+    private TypeAheadPicker<ProductListItem> productPicker;
     private JTextField quantityField;
     private JTable orderTable;
     private JScrollPane tableScrollPane;
+    private final List<OrderDetail> loadedOrders = new ArrayList<>();
 
     /**
      * Constructs a new OrderManagementWindow.
      * Initializes GUI components and sets up event listeners.
      */
     public OrderManagementWindow() {
-        this.orderBLL = new OrderBLL();
-        this.clientBLL = new ClientBLL();
-        this.productBLL = new ProductBLL();
+        ApplicationContext context = ApplicationContext.get();
+        this.orderBLL = context.orderBLL();
+        this.clientBLL = context.clientBLL();
+        this.productBLL = context.productBLL();
+        this.clients = clientBLL.getClientData();
+        this.products = productBLL.getProductData();
 
         setTitle("Order Management");
         setSize(700, 400);
@@ -49,14 +65,13 @@ public class OrderManagementWindow extends JFrame {
 
         JPanel controlPanel = new JPanel(new GridLayout(5, 2, 5, 5)); // Added gaps
 
-        clientCombo = new JComboBox<>();
-        productCombo = new JComboBox<>();
-        refreshDropdowns();
+        clientPicker = new TypeAheadPicker<>(clientBLL::searchClients, PICKER_LIMIT);
+        productPicker = new TypeAheadPicker<>(productBLL::searchProducts, PICKER_LIMIT);
 
         quantityField = new JTextField();
 
-        controlPanel.add(new JLabel("Client:")); controlPanel.add(clientCombo);
-        controlPanel.add(new JLabel("Product:")); controlPanel.add(productCombo);
+        controlPanel.add(new JLabel("Client:")); controlPanel.add(clientPicker);
+        controlPanel.add(new JLabel("Product:")); controlPanel.add(productPicker);
         controlPanel.add(new JLabel("Quantity:")); controlPanel.add(quantityField);
 
         JButton orderBtn = new JButton("Place Order");
@@ -64,16 +79,22 @@ public class OrderManagementWindow extends JFrame {
 
         JButton refreshBtn = new JButton("Refresh");
         refreshBtn.addActionListener(e -> {
-            refreshDropdowns();
+            clients.reload();
+            products.reload();
             refreshTable();
             JOptionPane.showMessageDialog(this, "Data refreshed!", "Info", JOptionPane.INFORMATION_MESSAGE);
         });
 
+        JButton moreBtn = new JButton("Load More");
+        moreBtn.addActionListener(e -> loadNextPage());
+
         controlPanel.add(orderBtn);
         controlPanel.add(refreshBtn);
+        controlPanel.add(moreBtn);
 
         add(controlPanel, BorderLayout.SOUTH);
         setVisible(true);
+        ApplicationContext.get().windowShown(getTitle());
     }
 
     /**
@@ -82,8 +103,8 @@ public class OrderManagementWindow extends JFrame {
      */
     private void placeOrder() {
         try {
-            Client client = (Client) clientCombo.getSelectedItem();
-            Product product = (Product) productCombo.getSelectedItem();
+            ClientListItem client = clientPicker.getSelectedValue();
+            ProductListItem product = productPicker.getSelectedValue();
             String quantityText = quantityField.getText().trim();
 
             if (client == null) {
@@ -106,7 +127,14 @@ public class OrderManagementWindow extends JFrame {
                 return;
             }
 
-            orderBLL.insertOrder(new Order(0, client.getId(), product.getId(), quantity));
+            Order order = new Order(0, client.id(), product.id(), quantity);
+            if (ApplicationContext.get().orderJournal() != null) {
+                orderBLL.acceptOrder(order);
+                quantityField.setText("");
+                JOptionPane.showMessageDialog(this, "Order accepted! It will appear in the list once it has been saved.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            orderBLL.insertOrder(order);
             refreshTable();
             quantityField.setText("");
             JOptionPane.showMessageDialog(this, "Order placed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
@@ -122,23 +150,25 @@ public class OrderManagementWindow extends JFrame {
     }
 
     /**
-     * Refreshes the order table with the latest data from the database.
+     * Refreshes the order table with the first page of order details from the database.
+     * Each row shows the order with its client, product and bill, loaded in a single query.
      */
     private void refreshTable() {
-        List<Order> orders = orderBLL.findAllOrders();
-        JTable newTable = TableUtils.buildTableFromList(orders);
-        tableScrollPane.setViewportView(newTable);
-        orderTable = newTable; // Update the reference to the new table
-        revalidate();
-        repaint();
+        loadedOrders.clear();
+        loadNextPage();
     }
 
     /**
-     * Refreshes the client and product dropdowns with the latest data.
+     * Appends the next page of order details to the table, continuing after the last loaded order.
      */
-    private void refreshDropdowns() {
-        clientCombo.setModel(new DefaultComboBoxModel<>(clientBLL.findAllClients().toArray(new Client[0])));
-        productCombo.setModel(new DefaultComboBoxModel<>(productBLL.findAllProducts().toArray(new Product[0])));
+    private void loadNextPage() {
+        int lastOrderId = loadedOrders.isEmpty() ? 0 : loadedOrders.get(loadedOrders.size() - 1).orderId();
+        loadedOrders.addAll(orderBLL.findOrderDetails(lastOrderId, PAGE_SIZE));
+        JTable newTable = TableUtils.buildTableFromList(loadedOrders);
+        tableScrollPane.setViewportView(newTable);
+        orderTable = newTable; // Update the reference to the new table
+        revalidate();
+        repaint();
     }
 
     /**
@@ -0,0 +1,130 @@
+/**
+ * Data Access Object for the outbox table
+ * (id bigserial primary key, type, aggregateId, payload, createdAt, publishedAt).
+ * Events are inserted inside the business transaction and later claimed in batches with
+ * FOR UPDATE SKIP LOCKED, so several relays can drain the table without blocking each other.
+ * It does NOT extend AbstractDAO: rows are append-only apart from being marked as published.
+ */
+package org.example.a3.dao;
+
+import org.example.a3.Model.OutboxEvent;
+import org.example.a3.connection.ConnectionFactory;
+import org.example.a3.connection.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class OutboxDAO {
+    protected static final Logger LOGGER = Logger.getLogger(OutboxDAO.class.getName());
+    private static final String TABLE_NAME = "outbox";
+
+    private static final String INSERT_QUERY = "INSERT INTO " + TABLE_NAME + " (type, aggregateId, payload, createdAt) VALUES (?, ?, ?, now())";
+    private static final String CLAIM_QUERY = "SELECT id, type, aggregateId, payload, createdAt FROM " + TABLE_NAME
+            + " WHERE publishedAt IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String MARK_PUBLISHED_QUERY = "UPDATE " + TABLE_NAME + " SET publishedAt = now() WHERE id = ANY(?)";
+    private static final String BACKLOG_QUERY = "SELECT COUNT(*), MIN(createdAt) FROM " + TABLE_NAME + " WHERE publishedAt IS NULL";
+
+    /**
+     * The unpublished part of the outbox.
+     * @param pending The number of unpublished events.
+     * @param oldest When the oldest unpublished event was written, or null if there is none.
+     */
+    public record Backlog(long pending, Instant oldest) {
+    }
+
+    /**
+     * Adds an event to the outbox. Call it in the same transaction as the change it describes,
+     * so the event exists exactly when the change committed.
+     * @param type The event type.
+     * @param aggregateId The ID of the order the event belongs to.
+     * @param payload The event body as a JSON object.
+     */
+    public void insert(String type, int aggregateId, String payload) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_QUERY)) {
+
+            ps.setString(1, type);
+            ps.setInt(2, aggregateId);
+            ps.setString(3, payload);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OutboxDAO:insert " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+    }
+
+    /**
+     * Locks and returns the oldest unpublished events, skipping rows already locked by another relay.
+     * Must run inside a transaction; the rows stay locked until it ends.
+     * @param limit The maximum number of events to claim.
+     * @return The claimed events, ordered by id.
+     */
+    public List<OutboxEvent> claimBatch(int limit) {
+        List<OutboxEvent> events = new ArrayList<>();
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(CLAIM_QUERY)) {
+
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    events.add(new OutboxEvent(resultSet.getLong(1), resultSet.getString(2), resultSet.getInt(3),
+                            resultSet.getString(4), resultSet.getTimestamp(5).toInstant()));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OutboxDAO:claimBatch " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return events;
+    }
+
+    /**
+     * Marks events as published.
+     * @param ids The IDs of the published events.
+     */
+    public void markPublished(long[] ids) {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement ps = connection.prepareStatement(MARK_PUBLISHED_QUERY)) {
+
+            Long[] boxed = new Long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxed[i] = ids[i];
+            }
+            ps.setArray(1, connection.createArrayOf("bigint", boxed));
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OutboxDAO:markPublished " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+    }
+
+    /**
+     * Returns the number of unpublished events and the creation time of the oldest one.
+     * @return The backlog; empty if it could not be read.
+     */
+    public Backlog findBacklog() {
+        try (Connection connection = ConnectionFactory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(BACKLOG_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            if (resultSet.next()) {
+                Timestamp oldest = resultSet.getTimestamp(2);
+                return new Backlog(resultSet.getLong(1), oldest == null ? null : oldest.toInstant());
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "OutboxDAO:findBacklog " + e.getMessage());
+            TransactionManager.setRollbackOnly(e);
+        }
+        return new Backlog(0, null);
+    }
+}
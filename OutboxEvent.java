@@ -0,0 +1,16 @@
+/**
+ * An event stored in the outbox table in the same transaction as the change it describes,
+ * waiting to be published to downstream systems by the OutboxRelay.
+ * @param id The outbox sequence number; increases with commit order within one transaction.
+ * @param type The event type, e.g. OrderPlaced or BillIssued.
+ * @param aggregateId The ID of the order the event belongs to.
+ * @param payload The event body as a JSON object.
+ * @param createdAt When the event was written.
+ */
+package org.example.a3.Model;
+
+import java.time.Instant;
+
+public record OutboxEvent(long id, String type, int aggregateId, String payload, Instant createdAt) {
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Publishes the events of the outbox table to an OutboxSink.
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED, handed to the sink and marked as published in one
+ * transaction, so several relays (in this or other processes) can run side by side without publishing the
+ * same row concurrently. Delivery is at-least-once: a batch whose transaction fails after the sink accepted
+ * it is delivered again. While the outbox has a backlog, batches follow each other immediately; when it is
+ * empty the relay polls at a fixed interval, and after a failure it backs off exponentially.
+ */
+package org.example.a3.BusinessLogic.outbox;
+
+import org.example.a3.Model.OutboxEvent;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.OutboxDAO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class OutboxRelay implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OutboxRelay.class.getName());
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(200);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    /**
+     * Counters of a relay since it was started.
+     * @param published The number of events delivered to the sink.
+     * @param batches The number of non-empty batches delivered.
+     * @param failures The number of batches that failed and were retried.
+     * @param eventsPerSecond The average delivery rate since the relay was started.
+     * @param lastLag The time between writing and delivering the newest event of the last batch.
+     * @param maxLag The largest such delay seen so far.
+     */
+    public record Metrics(long published, long batches, long failures, double eventsPerSecond, Duration lastLag, Duration maxLag) {
+    }
+
+    private final OutboxDAO outboxDAO;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastLagMillis;
+    private volatile long maxLagMillis;
+    private long backoffMillis;
+
+    /**
+     * Constructs an OutboxRelay with batches of 500 events and a 200 ms poll interval.
+     * @param outboxDAO The DAO used to claim and mark events.
+     * @param sink The destination of the events.
+     */
+    public OutboxRelay(OutboxDAO outboxDAO, OutboxSink sink) {
+        this(outboxDAO, sink, DEFAULT_BATCH_SIZE, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * Constructs an OutboxRelay. It does not run until start() is called.
+     * @param outboxDAO The DAO used to claim and mark events.
+     * @param sink The destination of the events.
+     * @param batchSize The maximum number of events per batch.
+     * @param pollInterval How long to wait before looking again when the outbox is empty.
+     */
+    public OutboxRelay(OutboxDAO outboxDAO, OutboxSink sink, int batchSize, Duration pollInterval) {
+        this.outboxDAO = outboxDAO;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = Math.max(1, pollInterval.toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts relaying in the background.
+     */
+    public void start() {
+        scheduler.execute(this::run);
+    }
+
+    /**
+     * Returns the delivery counters of this relay.
+     * @return A snapshot of the metrics.
+     */
+    public Metrics getMetrics() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long count = published.get();
+        return new Metrics(count, batches.get(), failures.get(), seconds > 0 ? count / seconds : 0,
+                Duration.ofMillis(lastLagMillis), Duration.ofMillis(maxLagMillis));
+    }
+
+    /**
+     * Returns the unpublished part of the outbox, shared by all relays.
+     * @return The number of waiting events and the age of the oldest one.
+     */
+    public OutboxDAO.Backlog getBacklog() {
+        return outboxDAO.findBacklog();
+    }
+
+    /**
+     * Delivers batches until the outbox is empty, on the calling thread.
+     * @return The number of events delivered.
+     * @throws RuntimeException if a batch could not be delivered; it stays in the outbox.
+     */
+    public int drain() {
+        int total = 0;
+        while (true) {
+            int delivered = relayBatch();
+            total += delivered;
+            if (delivered < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Stops the background relay; a batch in progress is finished first.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long delay;
+        try {
+            delay = relayBatch() < batchSize ? pollIntervalMillis : 0;
+            backoffMillis = 0;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            backoffMillis = backoffMillis == 0 ? pollIntervalMillis : Math.min(backoffMillis * 2, MAX_BACKOFF.toMillis());
+            delay = backoffMillis;
+            LOGGER.log(Level.WARNING, "OutboxRelay: batch failed, retrying in " + delay + " ms: " + e.getMessage());
+        }
+        try {
+            scheduler.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed while this batch was running
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = TransactionManager.inTransaction(() -> {
+            List<OutboxEvent> batch = outboxDAO.claimBatch(batchSize);
+            if (batch.isEmpty() || TransactionManager.isRollbackOnly()) {
+                return batch;
+            }
+            sink.publish(batch);
+            long[] ids = new long[batch.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = batch.get(i).id();
+            }
+            outboxDAO.markPublished(ids);
+            return batch;
+        });
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        published.addAndGet(events.size());
+        batches.incrementAndGet();
+        Instant newest = events.get(events.size() - 1).createdAt();
+        long lag = Math.max(0, Duration.between(newest, Instant.now()).toMillis());
+        lastLagMillis = lag;
+        if (lag > maxLagMillis) {
+            maxLagMillis = lag;
+        }
+        return events.size();
+    }
+}
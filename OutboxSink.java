@@ -0,0 +1,21 @@
+/**
+ * Destination of the events published by the OutboxRelay, e.g. a message broker, a file or an in-process consumer.
+ * A batch counts as delivered only if publish returns normally; otherwise it is retried, so sinks must tolerate
+ * receiving an event more than once (deduplicate by OutboxEvent.id).
+ */
+package org.example.a3.BusinessLogic.outbox;
+
+import org.example.a3.Model.OutboxEvent;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface OutboxSink {
+
+    /**
+     * Delivers a batch of events, in outbox order.
+     * @param events The events to deliver.
+     * @throws RuntimeException if the batch could not be delivered.
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,455 @@
+/**
+ * Compact in-memory index answering type-ahead queries: which entries have a word, or their whole text,
+ * starting with what the user typed.
+ * Entries are indexed under their normalized texts (lower case, accents removed) and under every word of
+ * them, so "pop" finds "Ion Pop" and "ion.pop@email.com". The keys live in two parallel sorted arrays
+ * (key, id), so a query is a binary search plus a short scan and the index costs little more than the key
+ * strings themselves.
+ * Changes go to a small sorted overlay and the ids they touch are masked in the base arrays; the overlay
+ * is merged into the base once it grows past a fraction of it. Every change publishes a new immutable state,
+ * so queries never lock. Changes made while the index is being loaded are replayed on top of the loaded data.
+ * @param <V> The type of the values returned by queries.
+ */
+package org.example.a3.BusinessLogic.reference;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+public class PrefixIndex<V> {
+    private static final Logger LOGGER = Logger.getLogger(PrefixIndex.class.getName());
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s.@_+\\-,;/()]+");
+    private static final int MIN_OVERLAY_LIMIT = 256;
+
+    /**
+     * Receives the entries of the index while it is loaded.
+     * @param <V> The type of the values.
+     */
+    @FunctionalInterface
+    public interface Sink<V> {
+        /**
+         * Adds one entry.
+         * @param id The ID of the entry.
+         * @param texts The texts the entry is found by; null texts are ignored.
+         * @param value The value returned for the entry.
+         */
+        void add(int id, Collection<String> texts, V value);
+    }
+
+    /**
+     * Keys sorted in ascending order with the id of the entry each belongs to.
+     */
+    private static final class Sorted {
+        private static final Sorted EMPTY = new Sorted(new String[0], new int[0]);
+
+        private final String[] keys;
+        private final int[] ids;
+
+        private Sorted(String[] keys, int[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+
+        private int size() {
+            return keys.length;
+        }
+
+        /**
+         * Returns the index of the first key not smaller than the prefix.
+         */
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Merges two sorted key lists, leaving out the given ids of the first one.
+         */
+        private static Sorted merge(Sorted first, Set<Integer> without, Sorted second) {
+            Builder merged = new Builder(first.size() + second.size());
+            int i = 0;
+            int j = 0;
+            while (i < first.size() || j < second.size()) {
+                if (j == second.size() || (i < first.size() && first.keys[i].compareTo(second.keys[j]) <= 0)) {
+                    if (!without.contains(first.ids[i])) {
+                        merged.append(first.keys[i], first.ids[i]);
+                    }
+                    i++;
+                } else {
+                    merged.append(second.keys[j], second.ids[j]);
+                    j++;
+                }
+            }
+            return merged.build(false);
+        }
+    }
+
+    /**
+     * A key with the id of its entry, used while sorting.
+     */
+    private record Key(String key, int id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Collects keys and builds a Sorted from them.
+     */
+    private static final class Builder {
+        private Key[] keys;
+        private int size;
+
+        private Builder(int capacity) {
+            this.keys = new Key[Math.max(capacity, 16)];
+        }
+
+        private void append(String key, int id) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            keys[size++] = new Key(key, id);
+        }
+
+        private Sorted build(boolean sort) {
+            if (sort) {
+                Arrays.parallelSort(keys, 0, size);
+            }
+            String[] sortedKeys = new String[size];
+            int[] sortedIds = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedKeys[i] = keys[i].key();
+                sortedIds[i] = keys[i].id();
+            }
+            return new Sorted(sortedKeys, sortedIds);
+        }
+    }
+
+    /**
+     * A change made while the index was loading; a null value means the entry was removed.
+     */
+    private record Missed<V>(Collection<String> texts, V value) {
+    }
+
+    /**
+     * An immutable state: the base arrays, the overlay of changed entries and the ids masked in the base.
+     */
+    private static final class State {
+        private final Sorted base;
+        private final Sorted overlay;
+        private final Set<Integer> changed;
+
+        private State(Sorted base, Sorted overlay, Set<Integer> changed) {
+            this.base = base;
+            this.overlay = overlay;
+            this.changed = changed;
+        }
+    }
+
+    private final String name;
+    private final Consumer<Sink<V>> loader;
+    private final Map<Integer, V> values = new ConcurrentHashMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final Object writeLock = new Object();
+    private final Map<Integer, Missed<V>> missed = new HashMap<>(); // guarded by writeLock
+    private boolean loading; // guarded by writeLock
+    private volatile State state;
+
+    /**
+     * Constructs a PrefixIndex.
+     * @param name The name of the index, used in log messages.
+     * @param loader Streams every entry into the sink it is given; called on first use and by reload().
+     */
+    public PrefixIndex(String name, Consumer<Sink<V>> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns true once the index has been loaded.
+     * @return Whether queries are answered from memory.
+     */
+    public boolean isLoaded() {
+        return state != null;
+    }
+
+    /**
+     * Loads the index if it has not been loaded yet, waiting for a load already running on another thread.
+     */
+    public void ensureLoaded() {
+        if (state == null) {
+            loadLock.lock();
+            try {
+                if (state == null) {
+                    load();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reloads the index from its loader, if it has been loaded before.
+     */
+    public void reload() {
+        if (state == null) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the entries having a text or a word of a text that starts with the given prefix.
+     * Returns nothing while the index is loading on another thread, so callers can fall back instead of waiting.
+     * @param text What the user typed; normalized like the indexed texts.
+     * @param limit The maximum number of entries to return.
+     * @return The matching values, in key order, each at most once.
+     */
+    public List<V> search(String text, int limit) {
+        String prefix = normalize(text);
+        State current = state;
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (current == null) {
+            if (!loadLock.tryLock()) {
+                return List.of();
+            }
+            try {
+                if (state == null) {
+                    load();
+                }
+                current = state;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        Set<Integer> found = new LinkedHashSet<>();
+        Sorted base = current.base;
+        Sorted overlay = current.overlay;
+        int b = base.lowerBound(prefix);
+        int o = overlay.lowerBound(prefix);
+        while (found.size() < limit) {
+            boolean inBase = b < base.size() && base.keys[b].startsWith(prefix);
+            boolean inOverlay = o < overlay.size() && overlay.keys[o].startsWith(prefix);
+            if (!inBase && !inOverlay) {
+                break;
+            }
+            if (inBase && (!inOverlay || base.keys[b].compareTo(overlay.keys[o]) <= 0)) {
+                int id = base.ids[b++];
+                if (!current.changed.contains(id)) {
+                    found.add(id);
+                }
+            } else {
+                found.add(overlay.ids[o++]);
+            }
+        }
+
+        List<V> result = new ArrayList<>(found.size());
+        for (int id : found) {
+            V value = values.get(id);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds or replaces an entry. Ignored while the index has never been loaded, since the load will read it.
+     * @param id The ID of the entry.
+     * @param texts The texts the entry is found by; null texts are ignored.
+     * @param value The value returned for the entry.
+     */
+    public void put(int id, Collection<String> texts, V value) {
+        change(id, texts, value);
+    }
+
+    /**
+     * Replaces the value of an entry without changing the texts it is found by, if the entry is known.
+     * @param id The ID of the entry.
+     * @param change Returns the new value.
+     */
+    public void update(int id, UnaryOperator<V> change) {
+        values.computeIfPresent(id, (key, value) -> change.apply(value));
+    }
+
+    /**
+     * Removes an entry.
+     * @param id The ID of the removed entry.
+     */
+    public void remove(int id) {
+        change(id, List.of(), null);
+    }
+
+    /**
+     * Applies a put, or a removal when the value is null.
+     */
+    private void change(int id, Collection<String> texts, V value) {
+        synchronized (writeLock) {
+            if (loading) {
+                missed.put(id, new Missed<>(texts, value));
+            }
+            State current = state;
+            if (current == null) {
+                return;
+            }
+            Builder overlay = new Builder(current.overlay.size() + 4);
+            for (int i = 0; i < current.overlay.size(); i++) {
+                if (current.overlay.ids[i] != id) {
+                    overlay.append(current.overlay.keys[i], current.overlay.ids[i]);
+                }
+            }
+            if (value != null) {
+                values.put(id, value);
+                for (String key : keysOf(texts)) {
+                    overlay.append(key, id);
+                }
+            } else {
+                values.remove(id);
+            }
+            Set<Integer> changed = new HashSet<>(current.changed);
+            changed.add(id);
+            publish(current.base, overlay.build(true), changed);
+        }
+    }
+
+    /**
+     * Returns the normalized form of a text: accents removed, lower case, runs of whitespace collapsed to one space.
+     * @param text The text.
+     * @return The normalized text; empty for null.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (!isAscii(text)) {
+            text = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) {
+                    sb.append(' ');
+                    space = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> keysOf(Collection<String> texts) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String text : texts) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            keys.add(normalized);
+            for (String word : SEPARATORS.split(normalized)) {
+                if (!word.isEmpty()) {
+                    keys.add(word);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Publishes a new state, merging the overlay into the base once it has grown too large.
+     * Must be called while holding the write lock.
+     */
+    private void publish(Sorted base, Sorted overlay, Set<Integer> changed) {
+        if (overlay.size() + changed.size() <= Math.max(MIN_OVERLAY_LIMIT, base.size() / 8)) {
+            state = new State(base, overlay, changed);
+            return;
+        }
+        state = new State(Sorted.merge(base, changed, overlay), Sorted.EMPTY, Set.of());
+    }
+
+    /**
+     * Streams all entries from the loader into a new base. Must be called while holding the load lock.
+     */
+    private void load() {
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            loading = true;
+        }
+        Builder keys = new Builder(1024);
+        Map<Integer, V> loaded = new ConcurrentHashMap<>();
+        try {
+            loader.accept((id, texts, value) -> {
+                loaded.put(id, value);
+                for (String key : keysOf(texts)) {
+                    keys.append(key, id);
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not load the " + name + " index: " + e.getMessage());
+            synchronized (writeLock) {
+                loading = false;
+                missed.clear();
+            }
+            return;
+        }
+        Sorted base = keys.build(true);
+        synchronized (writeLock) {
+            values.clear();
+            values.putAll(loaded);
+            state = new State(base, Sorted.EMPTY, Set.of());
+            loading = false;
+            missed.forEach((id, change) -> change(id, change.texts(), change.value()));
+            missed.clear();
+        }
+        LOGGER.fine("Loaded " + loaded.size() + " " + name + " (" + base.size() + " keys) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
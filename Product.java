@@ -1,15 +1,31 @@
 /**
  * Represents a product in the Orders Management system.
- * This class stores product details such as ID, name, description, price, and stock.
+ * This class stores product details such as ID, name, description, price, and stock,
+ * plus a version number used for optimistic locking.
  */
 package org.example.a3.Model;
 
+import org.example.a3.dao.mapping.Column;
+import org.example.a3.dao.mapping.GenerateMapping;
+import org.example.a3.dao.mapping.Generated;
+import org.example.a3.dao.mapping.Id;
+import org.example.a3.dao.mapping.Table;
+
+@GenerateMapping
+@Table("product")
 public class Product {
+    @Id @Generated
     private int id;
+    @Column(order = 1)
     private String name;
+    @Column(order = 2)
     private String description;
+    @Column(order = 3)
     private double price;
+    @Column(order = 4)
     private int stock;
+    @Column(order = 5)
+    private int version;
 
     /**
      * Default constructor for Product.
@@ -87,6 +103,17 @@ public class Product {
      */
     public void setStock(int stock) { this.stock = stock; }
 
+    /**
+     * Returns the optimistic-locking version of the product row, incremented on every update.
+     * @return The row version.
+     */
+    public int getVersion() { return version; }
+    /**
+     * Sets the optimistic-locking version of the product row.
+     * @param version The row version as loaded from the database.
+     */
+    public void setVersion(int version) { this.version = version; }
+
     /**
      * Returns a string representation of the product.
      * @return A string containing product details.
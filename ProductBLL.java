@@ -4,20 +4,57 @@
  */
 package org.example.a3.BusinessLogic;
 
+import org.example.a3.BusinessLogic.importer.ImportFormat;
+import org.example.a3.BusinessLogic.importer.ImportPipeline;
+import org.example.a3.BusinessLogic.importer.ImportProgress;
+import org.example.a3.BusinessLogic.importer.ImportReport;
+import org.example.a3.BusinessLogic.importer.ImportRow;
+import org.example.a3.BusinessLogic.inventory.StockEvents;
+import org.example.a3.BusinessLogic.reference.ReferenceData;
+import org.example.a3.BusinessLogic.reference.ReferenceDataStore;
+import org.example.a3.BusinessLogic.validators.ProductValuesValidator;
+import org.example.a3.BusinessLogic.validators.UniqueProductNameValidator;
+import org.example.a3.BusinessLogic.validators.ValidationEngine;
+import org.example.a3.BusinessLogic.validators.ValidationReport;
+import org.example.a3.BusinessLogic.validators.Validator;
 import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductListItem;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.OptimisticLockException;
 import org.example.a3.dao.ProductDAO;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 public class ProductBLL {
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
     private final ProductDAO productDAO;
+    private final List<Validator<Product>> validators;
+    private final ValidationEngine<Product> validation;
+    private final ReferenceData<Product> products;
 
     /**
      * Constructs a new ProductBLL instance.
-     * Initializes the ProductDAO.
+     * Initializes the ProductDAO and the validators for Product objects.
+     * Writes are reported to the shared ReferenceDataStore.
      */
     public ProductBLL() {
-        this.productDAO = new ProductDAO();
+        this(new ProductDAO());
+    }
+
+    /**
+     * Constructs a ProductBLL on a shared DAO.
+     * @param productDAO The DAO for products.
+     */
+    public ProductBLL(ProductDAO productDAO) {
+        this.productDAO = productDAO;
+        this.validators = List.of(new ProductValuesValidator(), new UniqueProductNameValidator(productDAO));
+        this.validation = new ValidationEngine<>(validators);
+        this.products = ReferenceDataStore.getDefault().products();
     }
 
     /**
@@ -43,28 +80,164 @@ public class ProductBLL {
     }
 
     /**
-     * Inserts a new product into the database.
+     * Finds several products with a single query.
+     * @param ids The IDs of the products to find.
+     * @return A map from ID to Product; IDs that were not found are absent.
+     */
+    public Map<Integer, Product> findProductsByIds(int[] ids) {
+        return productDAO.findByIds(ids);
+    }
+
+    /**
+     * Returns the shared in-memory products, loaded once and kept current by this BLL's writes and by
+     * committed orders. Windows read and observe it instead of querying the product table.
+     * @return The shared product data.
+     */
+    public ReferenceData<Product> getProductData() {
+        return products;
+    }
+
+    /**
+     * Finds the products whose name, or a word of it, starts with the given text, for type-ahead pickers.
+     * Answered from the shared in-memory search index; queries the database only when the index has no match.
+     * @param text What the user typed; case and accents are ignored.
+     * @param limit The maximum number of products to return.
+     * @return The matching products.
+     */
+    public List<ProductListItem> searchProducts(String text, int limit) {
+        return ReferenceDataStore.getDefault().searchProducts(text, limit);
+    }
+
+    /**
+     * Retrieves the id, name, price and stock of all products, for pickers that do not need full Product objects.
+     * @return A list of ProductListItem projections.
+     */
+    public List<ProductListItem> findAllProductListItems() {
+        return productDAO.findAll(ProductListItem.class);
+    }
+
+    /**
+     * Inserts a new product into the database after validating it.
      * @param p The Product object to insert.
      * @return The inserted Product object.
+     * @throws IllegalArgumentException if another product already has the same name.
      */
     public Product insertProduct(Product p) {
-        return productDAO.insert(p);
+        validation.validate(p);
+        Product inserted = productDAO.insert(p);
+        validation.stored(inserted);
+        if (inserted.getId() != 0) { // 0: the DAO failed and logged why
+            TransactionManager.afterCommit(() -> products.put(inserted));
+            StockEvents.publish(inserted.getId(), 0, inserted.getStock());
+        }
+        return inserted;
     }
 
     /**
-     * Updates an existing product in the database.
+     * Imports products from a CSV file (header with name, description, price, stock) or a JSON Lines file
+     * with the same keys. Rows are parsed in parallel and inserted in batches; rows with a missing, duplicate or
+     * already used name or a negative price or stock are written to the reject file with their line number and reason.
+     * @param input The file to import; the format is chosen by its extension.
+     * @param rejectFile The file receiving the rejected rows.
+     * @param progress Receives progress after every chunk of the file; may be null.
+     * @return The import report.
+     * @throws IllegalStateException if the files cannot be accessed.
+     */
+    public ImportReport importProducts(Path input, Path rejectFile, Consumer<ImportProgress> progress) {
+        ImportPipeline<Product> pipeline = new ImportPipeline<>(productDAO, ProductBLL::parseProduct, validators);
+        ImportReport report = pipeline.run(input, ImportFormat.of(input), rejectFile, progress);
+        if (report.accepted() > 0) {
+            products.reload();
+        }
+        return report;
+    }
+
+    private static Product parseProduct(ImportRow row) {
+        return new Product(0, row.require("name"), row.get("description"), row.getDouble("price"), row.getInt("stock"));
+    }
+
+    /**
+     * Validates a batch of products without storing them; name uniqueness is checked for the whole batch
+     * with one query, including duplicates within the batch.
+     * @param products The products to validate.
+     * @return The report with the violations by list index and the time spent in each validator.
+     */
+    public ValidationReport validateProducts(List<Product> products) {
+        return validation.validateAll(products);
+    }
+
+    /**
+     * Updates an existing product in the database after validating it.
+     * A stock event is published only if the stock changed, compared with the reference data at the version
+     * being updated; if that version is not held, the stock is assumed to have changed.
+     * The update runs in a transaction (joining an outer one), so the stock event and the reference data change
+     * only happen once it has been committed.
      * @param p The Product object to update.
      * @return The updated Product object.
+     * @throws IllegalArgumentException if another product already has the same name.
+     * @throws OptimisticLockException if the product was modified by someone else since it was loaded.
+     * @throws TransactionException if the update failed and was rolled back.
      */
     public Product updateProduct(Product p) {
-        return productDAO.update(p);
+        Product known = products.isLoaded() ? products.get(p.getId()) : null;
+        boolean comparable = known != null && known != p && known.getVersion() == p.getVersion();
+        Integer stockBefore = comparable ? known.getStock() : null;
+        return save(p, stockBefore);
+    }
+
+    /**
+     * Applies a change to the latest state of a product and saves it, retrying on concurrent modification.
+     * The product is reloaded before every attempt, so no lock is held between reading and writing.
+     * @param id The ID of the product to update.
+     * @param change The modification to apply to the freshly loaded product.
+     * @return The updated Product object.
+     * @throws NoSuchElementException if no product with the given ID is found.
+     * @throws IllegalArgumentException if another product already has the changed name.
+     * @throws OptimisticLockException if the product was still changing after the last attempt.
+     * @throws TransactionException if the update failed and was rolled back.
+     */
+    public Product updateProduct(int id, Consumer<Product> change) {
+        for (int attempt = 1; ; attempt++) {
+            Product p = findProductById(id);
+            int stockBefore = p.getStock();
+            change.accept(p);
+            try {
+                return save(p, stockBefore);
+            } catch (OptimisticLockException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates and updates a product, and publishes its new stock once committed if it differs from
+     * stockBefore, or if stockBefore is null because the stored stock is not known.
+     * A failed update rolls the transaction back, which drops the stock event.
+     */
+    private Product save(Product p, Integer stockBefore) {
+        validation.validate(p);
+        return TransactionManager.inTransaction(() -> {
+            Product updated = productDAO.update(p);
+            validation.stored(updated);
+            TransactionManager.afterCommit(() -> products.put(updated));
+            if (stockBefore == null || stockBefore != updated.getStock()) {
+                StockEvents.publish(updated.getId(), 0, updated.getStock());
+            }
+            return updated;
+        });
     }
 
     /**
-     * Deletes a product from the database by its ID.
+     * Deletes a product from the database by its ID, and from the reference data once the delete has committed.
      * @param id The ID of the product to delete.
+     * @throws TransactionException if the delete failed and was rolled back.
      */
     public void deleteProduct(int id) {
-        productDAO.deleteById(id);
+        TransactionManager.inTransaction(() -> {
+            productDAO.deleteById(id);
+            TransactionManager.afterCommit(() -> products.remove(id));
+        });
     }
 }
\ No newline at end of file
@@ -5,12 +5,55 @@
 package org.example.a3.dao;
 
 import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductListItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class ProductDAO extends AbstractDAO<Product>{
     /**
      * Constructs a new ProductDAO.
      */
     public ProductDAO() {
-        super();
+        super(Product.class);
+    }
+
+    /**
+     * Streams every distinct product name, lower-cased.
+     * @param consumer Receives each name.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public void forEachName(Consumer<String> consumer) {
+        forEachLowerCaseValue("name", consumer);
+    }
+
+    /**
+     * Finds the products having any of the given names, ignoring case, with one query.
+     * @param names The lower-cased names to look up.
+     * @return A map from name to the ids of the products using it; null if the query failed.
+     */
+    public Map<String, List<Integer>> findIdsByNames(Collection<String> names) {
+        return findIdsByLowerCaseValues("name", names);
+    }
+
+    /**
+     * Streams the id, name, price and stock of every product.
+     * @param consumer Receives each product's list item.
+     * @throws org.example.a3.connection.TransactionException if the query failed.
+     */
+    public void forEachListItem(Consumer<ProductListItem> consumer) {
+        forEach(ProductListItem.class, consumer);
+    }
+
+    /**
+     * Finds the products whose name, or a word of it, starts with a prefix, ignoring case.
+     * @param lowerCasePrefix The prefix, already lower-cased.
+     * @param limit The maximum number of products to return.
+     * @return The list items of the matching products, ordered by id; empty if the query failed.
+     */
+    public List<ProductListItem> findByNamePrefix(String lowerCasePrefix, int limit) {
+        return findByPrefix(ProductListItem.class, lowerCasePrefix, limit, "name");
     }
-}
\ No newline at end of file
+}
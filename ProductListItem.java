@@ -0,0 +1,17 @@
+/**
+ * Lightweight projection of a product holding only what pickers and listings display.
+ * Loaded with ProductDAO.findAll(ProductListItem.class), which selects just these columns.
+ */
+package org.example.a3.Model;
+
+public record ProductListItem(int id, String name, double price, int stock) {
+
+    /**
+     * Returns a string representation of the product.
+     * @return A string containing product details.
+     */
+    @Override
+    public String toString() {
+        return id + ". " + name + ", price=" + price + ", stock=" + stock;
+    }
+}
@@ -3,19 +3,27 @@
  */
 package org.example.a3.presentation;
 
+import org.example.a3.BusinessLogic.ApplicationContext;
 import org.example.a3.BusinessLogic.ProductBLL;
+import org.example.a3.BusinessLogic.reference.ReferenceData;
 import org.example.a3.Model.Product;
+import org.example.a3.dao.OptimisticLockException;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 public class ProductManagementWindow extends JFrame {
     private final ProductBLL productBLL;
+    private final ReferenceData<Product> products;
+    private final Runnable onDataChanged = () -> SwingUtilities.invokeLater(this::refreshTable);
     private JTable productTable;
+    private boolean refreshing;
 
     private JTextField nameField;
     private JTextField descriptionField;
@@ -27,11 +35,19 @@ public class ProductManagementWindow extends JFrame {
      * Initializes the GUI components and sets up event listeners.
      */
     public ProductManagementWindow() {
-        this.productBLL = new ProductBLL();
+        this.productBLL = ApplicationContext.get().productBLL();
+        this.products = productBLL.getProductData();
 
         setTitle("Product Management");
         setSize(800, 500);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        products.subscribe(onDataChanged);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                products.unsubscribe(onDataChanged);
+            }
+        });
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
@@ -86,12 +102,16 @@ public class ProductManagementWindow extends JFrame {
                 int id = (int) productTable.getValueAt(row, 0);
                 Product p = new Product(id, nameField.getText(), descriptionField.getText(),
                         Double.parseDouble(priceField.getText()), Integer.parseInt(stockField.getText()));
+                p.setVersion(selectedVersion(row));
                 productBLL.updateProduct(p);
                 refreshTable();
                 clearFields();
                 JOptionPane.showMessageDialog(this, "Product updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             } catch (NumberFormatException ex) {
                 showError("Price and Stock must be valid numbers.");
+            } catch (OptimisticLockException ex) {
+                showError(ex.getMessage() + " The table has been refreshed, please try again.");
+                products.reload();
             } catch (NoSuchElementException ex) {
                 showError(ex.getMessage());
             } catch (Exception ex) {
@@ -119,12 +139,12 @@ public class ProductManagementWindow extends JFrame {
             }
         });
 
-        refreshBtn.addActionListener(e -> refreshTable());
+        refreshBtn.addActionListener(e -> products.reload());
 
         productTable.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
             @Override
             public void valueChanged(ListSelectionEvent e) {
-                if (!e.getValueIsAdjusting()) {
+                if (!e.getValueIsAdjusting() && !refreshing) {
                     int row = productTable.getSelectedRow();
                     if (row >= 0 && row < productTable.getRowCount()) {
                         nameField.setText(String.valueOf(productTable.getValueAt(row, 1)));
@@ -140,16 +160,30 @@ public class ProductManagementWindow extends JFrame {
 
         refreshTable();
         setVisible(true);
+        ApplicationContext.get().windowShown(getTitle());
     }
 
     /**
-     * Refreshes the product table with the latest data from the database.
+     * Refreshes the product table from the shared product data, without a query.
+     * The selected product stays selected and the form keeps what the user typed.
      */
     private void refreshTable() {
-        List<Product> products = productBLL.findAllProducts();
-        JTable newTable = TableUtils.buildTableFromList(products);
-        productTable.setModel(newTable.getModel());
-        productTable.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        int selectedId = productTable.getSelectedRow() >= 0 ? (int) productTable.getValueAt(productTable.getSelectedRow(), 0) : -1;
+        List<Product> all = products.getAll();
+        JTable newTable = TableUtils.buildTableFromList(all);
+        refreshing = true;
+        try {
+            productTable.setModel(newTable.getModel());
+            productTable.getSelectionModel().setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            for (int row = 0; row < productTable.getRowCount(); row++) {
+                if ((int) productTable.getValueAt(row, 0) == selectedId) {
+                    productTable.setRowSelectionInterval(row, row);
+                    break;
+                }
+            }
+        } finally {
+            refreshing = false;
+        }
     }
 
     /**
@@ -162,6 +196,15 @@ public class ProductManagementWindow extends JFrame {
         stockField.setText("");
     }
 
+    /**
+     * Returns the optimistic-locking version of the product shown in the given table row.
+     * @param row The selected table row.
+     * @return The version the row had when the table was loaded.
+     */
+    private int selectedVersion(int row) {
+        return (int) productTable.getValueAt(row, productTable.getColumnModel().getColumnIndex("version"));
+    }
+
     /**
      * Displays an error message dialog.
      * @param msg The message to display.
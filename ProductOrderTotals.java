@@ -0,0 +1,8 @@
+/**
+ * Totals of the orders placed for one product, with a count of the orders that do not have exactly one bill.
+ * Computed on demand from the "order" and log tables, e.g. to check a load test's invariants.
+ */
+package org.example.a3.Model;
+
+public record ProductOrderTotals(int productId, int orderCount, long totalQuantity, int ordersWithoutOneBill) {
+}
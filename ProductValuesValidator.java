@@ -0,0 +1,39 @@
+/**
+ * Validates the price and stock of a product.
+ * Ensures neither is negative, whichever way the product was built.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import org.example.a3.Model.Product;
+
+import java.util.function.Consumer;
+
+public class ProductValuesValidator implements Validator<Product> {
+    private static final String PRICE_MESSAGE = "The price must not be negative.";
+    private static final String STOCK_MESSAGE = "The stock must not be negative.";
+
+    /**
+     * Validates the price and stock of the given product.
+     * @param t The product to validate.
+     * @throws IllegalArgumentException if the price or the stock is negative.
+     */
+    @Override
+    public void validate(Product t) {
+        if (t.getPrice() < 0) {
+            throw new IllegalArgumentException(PRICE_MESSAGE);
+        }
+        if (t.getStock() < 0) {
+            throw new IllegalArgumentException(STOCK_MESSAGE);
+        }
+    }
+
+    @Override
+    public void check(Product t, Consumer<String> violations) {
+        if (t.getPrice() < 0) {
+            violations.accept(PRICE_MESSAGE);
+        }
+        if (t.getStock() < 0) {
+            violations.accept(STOCK_MESSAGE);
+        }
+    }
+}
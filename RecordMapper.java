@@ -0,0 +1,103 @@
+/**
+ * Maps result set rows onto a Java record through its canonical constructor.
+ * The record components name the selected columns and are read by position with typed JDBC getters.
+ * Each mapper resolves its constructor handle once and is shared per record class.
+ * @param <R> The record type.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class RecordMapper<R extends Record> {
+    private static final Map<Class<?>, RecordMapper<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<R> type;
+    private final String[] components;
+    private final Class<?>[] types;
+    private final MethodHandle constructor;
+
+    private RecordMapper(Class<R> type) {
+        this.type = type;
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        this.components = new String[recordComponents.length];
+        this.types = new Class<?>[recordComponents.length];
+        for (int i = 0; i < recordComponents.length; i++) {
+            components[i] = recordComponents[i].getName();
+            types[i] = recordComponents[i].getType();
+        }
+        try {
+            MethodHandle canonical = MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class, types));
+            this.constructor = canonical
+                    .asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("No public canonical constructor for record " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the mapper for the given record class, creating it on first use.
+     * @param type The record class.
+     * @param <R> The record type.
+     * @return The shared mapper.
+     * @throws IllegalArgumentException if the record has no public canonical constructor.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordMapper<R> of(Class<R> type) {
+        return (RecordMapper<R>) CACHE.computeIfAbsent(type, t -> new RecordMapper<>((Class<R>) t));
+    }
+
+    /**
+     * Returns the record component names, in constructor order.
+     * @return A fresh array of component names.
+     */
+    public String[] components() {
+        return components.clone();
+    }
+
+    /**
+     * Creates a record from the current row of a result set.
+     * The result set must contain one column per record component, in component order.
+     * @param resultSet The result set, positioned on a row.
+     * @return The mapped record.
+     * @throws SQLException if a column cannot be read.
+     */
+    public R read(ResultSet resultSet) throws SQLException {
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            args[i] = readValue(resultSet, i + 1, types[i]);
+        }
+        try {
+            return type.cast(constructor.invokeExact(args));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create record " + type.getName(), e);
+        }
+    }
+
+    private static Object readValue(ResultSet resultSet, int column, Class<?> type) throws SQLException {
+        if (type == int.class) return resultSet.getInt(column);
+        if (type == long.class) return resultSet.getLong(column);
+        if (type == double.class) return resultSet.getDouble(column);
+        if (type == boolean.class) return resultSet.getBoolean(column);
+        if (type == String.class) return resultSet.getString(column);
+        Class<?> target = type.isPrimitive() ? boxed(type) : type;
+        return resultSet.getObject(column, target);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        return Character.class;
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * Observable in-memory copy of a reference table, shared by every window that shows it.
+ * The table is loaded with one query on first use and kept current afterwards by the BLLs, which report
+ * every insert, update and delete once it has committed; reload() re-reads it, e.g. to pick up changes made by other applications.
+ * Readers get an immutable snapshot ordered by id, so they never see a half-applied change and need no lock.
+ * A change only drops the snapshot; the next getAll() builds a new one, so a burst of changes, e.g. stock updates
+ * during an order rush, costs one copy of the table instead of one per change.
+ * Listeners are told that the data changed, on the thread that changed it, and should read getAll() again;
+ * reading instead of receiving the data means a listener always ends up with the latest state even when
+ * notifications from different threads interleave. Derived indexes instead register a ChangeListener, which is
+ * told what was stored or deleted, even before the data itself has been loaded.
+ * @param <T> The type of the model objects held.
+ */
+package org.example.a3.BusinessLogic.reference;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ReferenceData<T> {
+    private static final Logger LOGGER = Logger.getLogger(ReferenceData.class.getName());
+
+    /**
+     * Receives the individual writes reported to a ReferenceData, on the thread that reported them.
+     * @param <T> The type of the model objects.
+     */
+    public interface ChangeListener<T> {
+        /**
+         * Called after an object has been stored.
+         * @param id The ID of the object.
+         * @param t The stored object.
+         */
+        void stored(int id, T t);
+
+        /**
+         * Called after an object has been deleted.
+         * @param id The ID of the deleted object.
+         */
+        void removed(int id);
+
+        /**
+         * Called after the data has been reloaded from the database.
+         */
+        void reloaded();
+    }
+
+    private final String name;
+    private final Supplier<List<T>> loader;
+    private final ToIntFunction<T> idOf;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final List<ChangeListener<T>> changeListeners = new CopyOnWriteArrayList<>();
+
+    private final Object lock = new Object();
+    private Map<Integer, T> byId; // guarded by lock; null until loaded
+    private volatile List<T> snapshot; // null until loaded, and after a change until the next getAll()
+
+    /**
+     * Constructs a ReferenceData.
+     * @param name The name of the data, used in log messages.
+     * @param loader Loads all rows of the table.
+     * @param idOf Returns the id of an object.
+     */
+    public ReferenceData(String name, Supplier<List<T>> loader, ToIntFunction<T> idOf) {
+        this.name = name;
+        this.loader = loader;
+        this.idOf = idOf;
+    }
+
+    /**
+     * Returns all objects, loading them on first use.
+     * @return An immutable snapshot ordered by id.
+     */
+    public List<T> getAll() {
+        List<T> current = snapshot;
+        if (current == null) {
+            synchronized (lock) {
+                if (byId == null) {
+                    load();
+                }
+                if (snapshot == null) {
+                    snapshot = List.copyOf(byId.values());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Returns one object, loading the data on first use.
+     * @param id The ID of the object.
+     * @return The object, or null if it is not known.
+     */
+    public T get(int id) {
+        synchronized (lock) {
+            if (byId == null) {
+                load();
+            }
+            return byId.get(id);
+        }
+    }
+
+    /**
+     * Returns true once the data has been loaded.
+     * @return Whether getAll() can answer without a query.
+     */
+    public boolean isLoaded() {
+        synchronized (lock) {
+            return byId != null;
+        }
+    }
+
+    /**
+     * Adds or replaces an object that has been stored. Ignored until the data is loaded, since the load will
+     * read it anyway; change listeners are told in any case.
+     * @param t The stored object.
+     */
+    public void put(T t) {
+        int id = idOf.applyAsInt(t);
+        boolean loaded;
+        synchronized (lock) {
+            loaded = byId != null;
+            if (loaded) {
+                byId.put(id, t);
+                invalidate();
+            }
+        }
+        notifyChangeListeners(listener -> listener.stored(id, t));
+        if (loaded) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Replaces an object by a changed copy, if it is known.
+     * @param id The ID of the object.
+     * @param change Returns the changed copy; the held object must not be modified in place.
+     */
+    public void update(int id, UnaryOperator<T> change) {
+        synchronized (lock) {
+            if (byId == null) {
+                return;
+            }
+            T current = byId.get(id);
+            if (current == null) {
+                return;
+            }
+            byId.put(id, change.apply(current));
+            invalidate();
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Removes an object that has been deleted. Change listeners are told even if the object was not held.
+     * @param id The ID of the deleted object.
+     */
+    public void remove(int id) {
+        boolean removed;
+        synchronized (lock) {
+            removed = byId != null && byId.remove(id) != null;
+            if (removed) {
+                invalidate();
+            }
+        }
+        notifyChangeListeners(listener -> listener.removed(id));
+        if (removed) {
+            notifyListeners();
+        }
+    }
+
+    /**
+     * Reloads all objects from the database, if they have been loaded before.
+     */
+    public void reload() {
+        synchronized (lock) {
+            if (byId == null) {
+                return;
+            }
+            load();
+        }
+        notifyChangeListeners(ChangeListener::reloaded);
+        notifyListeners();
+    }
+
+    /**
+     * Registers a listener called after every change.
+     * @param listener The listener to add.
+     */
+    public void subscribe(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     * @param listener The listener to remove.
+     */
+    public void unsubscribe(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Registers a listener told about every stored and deleted object and every reload.
+     * @param listener The listener to add.
+     */
+    public void subscribeChanges(ChangeListener<T> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Loads the table. Must be called while holding the lock.
+     */
+    private void load() {
+        long start = System.nanoTime();
+        Map<Integer, T> loaded = new TreeMap<>();
+        for (T t : loader.get()) {
+            loaded.put(idOf.applyAsInt(t), t);
+        }
+        byId = loaded;
+        invalidate();
+        LOGGER.fine("Loaded " + loaded.size() + " " + name + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Drops the snapshot after a change, so the next getAll() copies the current data. Must be called while
+     * holding the lock.
+     */
+    private void invalidate() {
+        snapshot = null;
+    }
+
+    private void notifyChangeListeners(Consumer<ChangeListener<T>> call) {
+        for (ChangeListener<T> listener : changeListeners) {
+            try {
+                call.accept(listener);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Change listener of " + name + " failed", e);
+            }
+        }
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Listener of " + name + " failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * The shared reference data of the application: all clients and all products, held in memory so that
+ * opening a window or filling a picker costs no query.
+ * ClientBLL and ProductBLL report their writes here; product stock is kept current from the committed
+ * stock changes published through StockEvents, so orders placed from any window show up everywhere.
+ * The type-ahead pickers search PrefixIndexes over client names and emails and product names; the indexes are
+ * loaded by a streaming scan of just the searched columns and follow the same writes. A search that finds nothing
+ * in memory, e.g. for a row added by another application or while the index is still loading, falls back to a
+ * prefix query, and the rows it finds are added to the index.
+ */
+package org.example.a3.BusinessLogic.reference;
+
+import org.example.a3.BusinessLogic.ApplicationContext;
+import org.example.a3.BusinessLogic.inventory.StockChange;
+import org.example.a3.BusinessLogic.inventory.StockEvents;
+import org.example.a3.BusinessLogic.inventory.StockListener;
+import org.example.a3.Model.Client;
+import org.example.a3.Model.ClientListItem;
+import org.example.a3.Model.ClientSearchKey;
+import org.example.a3.Model.Product;
+import org.example.a3.Model.ProductListItem;
+import org.example.a3.dao.ClientDAO;
+import org.example.a3.dao.ProductDAO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class ReferenceDataStore implements StockListener {
+
+    private static final class Holder {
+        private static final ReferenceDataStore INSTANCE = create();
+
+        private static ReferenceDataStore create() {
+            ApplicationContext context = ApplicationContext.get();
+            ReferenceDataStore store = new ReferenceDataStore(context.clientDAO(), context.productDAO());
+            StockEvents.subscribe(store);
+            return store;
+        }
+    }
+
+    private final ClientDAO clientDAO;
+    private final ProductDAO productDAO;
+    private final ReferenceData<Client> clients;
+    private final ReferenceData<Product> products;
+    private final PrefixIndex<ClientListItem> clientIndex;
+    private final PrefixIndex<ProductListItem> productIndex;
+
+    /**
+     * Constructs a ReferenceDataStore. It does not follow stock changes until it is subscribed to StockEvents.
+     * @param clientDAO The DAO used to load the clients.
+     * @param productDAO The DAO used to load the products.
+     */
+    public ReferenceDataStore(ClientDAO clientDAO, ProductDAO productDAO) {
+        this.clientDAO = clientDAO;
+        this.productDAO = productDAO;
+        this.clients = new ReferenceData<>("clients", clientDAO::findAll, Client::getId);
+        this.products = new ReferenceData<>("products", productDAO::findAll, Product::getId);
+        this.clientIndex = new PrefixIndex<>("client search keys", sink -> clientDAO.forEachSearchKey(
+                key -> sink.add(key.id(), textsOf(key), key.toListItem())));
+        this.productIndex = new PrefixIndex<>("product search keys", sink -> productDAO.forEachListItem(
+                item -> sink.add(item.id(), textsOf(item), item)));
+
+        clients.subscribeChanges(new ReferenceData.ChangeListener<>() {
+            @Override
+            public void stored(int id, Client c) {
+                clientIndex.put(id, textsOf(new ClientSearchKey(id, c.getName(), c.getEmail())),
+                        new ClientListItem(id, c.getName()));
+            }
+
+            @Override
+            public void removed(int id) {
+                clientIndex.remove(id);
+            }
+
+            @Override
+            public void reloaded() {
+                clientIndex.reload();
+            }
+        });
+        products.subscribeChanges(new ReferenceData.ChangeListener<>() {
+            @Override
+            public void stored(int id, Product p) {
+                ProductListItem item = new ProductListItem(id, p.getName(), p.getPrice(), p.getStock());
+                productIndex.put(id, textsOf(item), item);
+            }
+
+            @Override
+            public void removed(int id) {
+                productIndex.remove(id);
+            }
+
+            @Override
+            public void reloaded() {
+                productIndex.reload();
+            }
+        });
+    }
+
+    /**
+     * Returns the store shared by the application, subscribed to stock changes.
+     * @return The shared store.
+     */
+    public static ReferenceDataStore getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the clients.
+     * @return The shared client data.
+     */
+    public ReferenceData<Client> clients() {
+        return clients;
+    }
+
+    /**
+     * Returns the products.
+     * @return The shared product data.
+     */
+    public ReferenceData<Product> products() {
+        return products;
+    }
+
+    /**
+     * Loads the client and product search indexes, if they have not been loaded yet.
+     */
+    public void loadSearchIndexes() {
+        clientIndex.ensureLoaded();
+        productIndex.ensureLoaded();
+    }
+
+    /**
+     * Finds the clients whose name or email, or a word of them, starts with what the user typed.
+     * Answered from the in-memory index; falls back to a query when the index has no match.
+     * @param text What the user typed.
+     * @param limit The maximum number of clients to return.
+     * @return The matching clients.
+     */
+    public List<ClientListItem> searchClients(String text, int limit) {
+        List<ClientListItem> found = clientIndex.search(text, limit);
+        String prefix = PrefixIndex.normalize(text);
+        if (!found.isEmpty() || prefix.isEmpty()) {
+            return found;
+        }
+        List<ClientListItem> fetched = new ArrayList<>();
+        for (ClientSearchKey key : clientDAO.findByNameOrEmailPrefix(prefix, limit)) {
+            clientIndex.put(key.id(), textsOf(key), key.toListItem());
+            fetched.add(key.toListItem());
+        }
+        return fetched;
+    }
+
+    /**
+     * Finds the products whose name, or a word of it, starts with what the user typed.
+     * Answered from the in-memory index; falls back to a query when the index has no match.
+     * @param text What the user typed.
+     * @param limit The maximum number of products to return.
+     * @return The matching products.
+     */
+    public List<ProductListItem> searchProducts(String text, int limit) {
+        List<ProductListItem> found = productIndex.search(text, limit);
+        String prefix = PrefixIndex.normalize(text);
+        if (!found.isEmpty() || prefix.isEmpty()) {
+            return found;
+        }
+        List<ProductListItem> fetched = productDAO.findByNamePrefix(prefix, limit);
+        for (ProductListItem item : fetched) {
+            productIndex.put(item.id(), textsOf(item), item);
+        }
+        return fetched;
+    }
+
+    /**
+     * Applies a committed stock change of an order to the held product.
+     * Direct stock edits (delta 0) are reported by ProductBLL with the whole product instead.
+     * The held version is left unchanged, since the change does not say whether or when the product row was
+     * written; an edit based on it may therefore fail with an OptimisticLockException, after which the caller
+     * reloads.
+     * @param change The stock change.
+     */
+    @Override
+    public void stockChanged(StockChange change) {
+        if (change.delta() == 0) {
+            return;
+        }
+        productIndex.update(change.productId(),
+                item -> new ProductListItem(item.id(), item.name(), item.price(), change.newStock()));
+        products.update(change.productId(), p -> {
+            Product copy = new Product(p.getId(), p.getName(), p.getDescription(), p.getPrice(), change.newStock());
+            copy.setVersion(p.getVersion());
+            return copy;
+        });
+    }
+
+    private static Collection<String> textsOf(ClientSearchKey key) {
+        return Arrays.asList(key.name(), key.email());
+    }
+
+    private static Collection<String> textsOf(ProductListItem item) {
+        return Collections.singletonList(item.name());
+    }
+}
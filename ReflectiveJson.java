@@ -0,0 +1,184 @@
+/**
+ * Reflection-based JSON mapping of flat model objects, kept only as the baseline JsonBenchmark measures the
+ * codecs against. It works the way a generic mapper does: every field value is read through Field.get and so
+ * boxed, text is assembled in a StringBuilder and encoded afterwards, and reading goes through a map of
+ * strings that are then converted and set field by field.
+ * Fields and constructors are resolved once per class, as ReflectiveMapping does, so the comparison measures the per-object
+ * cost and not the lookup.
+ */
+package org.example.a3.Model.json;
+
+import org.example.a3.BusinessLogic.importer.LineParsers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+final class ReflectiveJson {
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+    private static final ClassValue<Constructor<?>> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            try {
+                if (!type.isRecord()) {
+                    return type.getDeclaredConstructor();
+                }
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    types[i] = components[i].getType();
+                }
+                return type.getDeclaredConstructor(types);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("No usable constructor found for type " + type.getName(), e);
+            }
+        }
+    };
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ReflectiveJson() {}
+
+    /**
+     * Writes values as a JSON array of objects.
+     * @param values The values.
+     * @param out The stream to write to.
+     * @throws IOException if writing failed.
+     */
+    static void writeArray(List<?> values, OutputStream out) throws IOException {
+        StringBuilder json = new StringBuilder(256);
+        out.write('[');
+        for (int i = 0; i < values.size(); i++) {
+            json.setLength(0);
+            if (i > 0) {
+                json.append(',');
+            }
+            append(json, values.get(i));
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(']');
+    }
+
+    /**
+     * Reads one flat JSON object.
+     * @param document The UTF-8 bytes of the object.
+     * @param type The class of the object; a record, or a class with a default constructor.
+     * @param <T> The type of the object.
+     * @return The object.
+     * @throws IllegalArgumentException if the document is not a flat JSON object or a value does not fit.
+     */
+    static <T> T read(byte[] document, Class<T> type) {
+        Map<String, String> values = LineParsers.parseJsonObject(new String(document, StandardCharsets.UTF_8));
+        Constructor<?> constructor = CONSTRUCTORS.get(type);
+        try {
+            if (type.isRecord()) {
+                Field[] fields = FIELDS.get(type); // a record's fields are its components, in order
+                Object[] arguments = new Object[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    arguments[i] = convert(values.get(fields[i].getName()), fields[i].getType());
+                }
+                return type.cast(constructor.newInstance(arguments));
+            }
+            T instance = type.cast(constructor.newInstance());
+            for (Field field : FIELDS.get(type)) {
+                if (values.containsKey(field.getName())) {
+                    field.set(instance, convert(values.get(field.getName()), field.getType()));
+                }
+            }
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not create " + type.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void append(StringBuilder json, Object value) {
+        json.append('{');
+        Field[] fields = FIELDS.get(value.getClass());
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            quote(json, fields[i].getName());
+            json.append(':');
+            Object fieldValue;
+            try {
+                fieldValue = fields[i].get(value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Could not read field " + fields[i].getName(), e);
+            }
+            if (fieldValue == null) {
+                json.append("null");
+            } else if (fieldValue instanceof Number || fieldValue instanceof Boolean) {
+                json.append(fieldValue);
+            } else {
+                quote(json, fieldValue.toString());
+            }
+        }
+        json.append('}');
+    }
+
+    private static void quote(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == int.class) {
+            return value == null ? 0 : Integer.parseInt(value);
+        }
+        if (type == long.class) {
+            return value == null ? 0L : Long.parseLong(value);
+        }
+        if (type == double.class) {
+            return value == null ? 0.0 : Double.parseDouble(value);
+        }
+        if (type == boolean.class) {
+            return Boolean.parseBoolean(value);
+        }
+        if (value == null || type == String.class) {
+            return value;
+        }
+        if (type == UUID.class) {
+            return UUID.fromString(value);
+        }
+        throw new IllegalArgumentException("Unsupported field type " + type.getName());
+    }
+}
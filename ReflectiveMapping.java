@@ -0,0 +1,143 @@
+/**
+ * EntityMapping fallback that maps a model class through reflection, driven by its EntityMetadata.
+ * Fields, setters and the constructor are resolved once, when the mapping is created, instead of on every row.
+ * Requires a default constructor; columns without a setter are skipped when reading.
+ * @param <T> The model type being mapped.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ReflectiveMapping<T> implements EntityMapping<T> {
+    private static final Logger LOGGER = Logger.getLogger(ReflectiveMapping.class.getName());
+
+    private final EntityMetadata<T> metadata;
+    private final Field[] fields;
+    private final Method[] setters;
+    private final String[] columns;
+    private final Constructor<T> constructor;
+
+    /**
+     * Constructs a ReflectiveMapping for the given model class.
+     * @param type The model class.
+     * @throws IllegalArgumentException if the class has no default constructor or no id field.
+     */
+    public ReflectiveMapping(Class<T> type) {
+        this.metadata = EntityMetadata.of(type);
+        List<EntityMetadata.Property> properties = metadata.getProperties();
+        this.fields = new Field[properties.size()];
+        this.setters = new Method[properties.size()];
+        this.columns = new String[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            fields[i] = properties.get(i).getField();
+            setters[i] = properties.get(i).getSetter();
+            columns[i] = properties.get(i).getColumn();
+        }
+
+        try {
+            this.constructor = type.getDeclaredConstructor();
+            this.constructor.setAccessible(true); // Allow access to private constructors
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No default constructor found for type " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public Class<T> type() { return metadata.getType(); }
+
+    @Override
+    public String table() { return metadata.getTable(); }
+
+    @Override
+    public String[] columns() { return columns.clone(); }
+
+    @Override
+    public int versionColumn() { return metadata.getVersionColumn(); }
+
+    @Override
+    public boolean generatedId() { return metadata.isGeneratedId(); }
+
+    @Override
+    public T read(ResultSet resultSet) throws SQLException {
+        T instance;
+        try {
+            instance = constructor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not instantiate " + type().getName(), e);
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            if (setters[i] == null) {
+                continue;
+            }
+            Object value = resultSet.getObject(i + 1);
+            if (value instanceof BigDecimal && (fields[i].getType().equals(double.class) || fields[i].getType().equals(Double.class))) {
+                value = ((BigDecimal) value).doubleValue();
+            }
+            try {
+                setters[i].invoke(instance, value);
+            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                LOGGER.log(Level.WARNING, "Could not set field " + columns[i] + " for " + type().getName() + ": " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public Object[] values(T t) {
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = get(t, i);
+        }
+        return values;
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int parameterIndex, T t, int column) throws SQLException {
+        statement.setObject(parameterIndex, get(t, column));
+    }
+
+    @Override
+    public int getId(T t) {
+        return (Integer) get(t, 0);
+    }
+
+    @Override
+    public void setId(T t, int id) {
+        set(t, 0, id);
+    }
+
+    @Override
+    public void setVersion(T t, int version) {
+        if (metadata.getVersionColumn() < 0) {
+            throw new UnsupportedOperationException(type().getName() + " is not versioned.");
+        }
+        set(t, metadata.getVersionColumn(), version);
+    }
+
+    private Object get(T t, int column) {
+        try {
+            return fields[column].get(t);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not read field " + columns[column] + " of " + type().getName(), e);
+        }
+    }
+
+    private void set(T t, int column, Object value) {
+        try {
+            fields[column].set(t, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not write field " + columns[column] + " of " + type().getName(), e);
+        }
+    }
+}
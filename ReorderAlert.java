@@ -0,0 +1,26 @@
+/**
+ * Alert raised by the ReorderEngine for a product that is running low.
+ * @param productId The ID of the product.
+ * @param type Why the alert was raised.
+ * @param stock The stock at the time of the alert.
+ * @param unitsPerSecond The recent consumption rate.
+ * @param timeToStockout The projected time until the stock reaches zero at that rate, or null if nothing is being consumed.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+import java.time.Duration;
+
+public record ReorderAlert(int productId, Type type, int stock, double unitsPerSecond, Duration timeToStockout) {
+
+    /**
+     * Reasons for an alert, from least to most urgent.
+     */
+    public enum Type {
+        /** The stock fell to or below the low-stock threshold. */
+        LOW_STOCK,
+        /** At the current rate the product runs out before a reorder could arrive. */
+        REORDER,
+        /** The product is out of stock. */
+        OUT_OF_STOCK
+    }
+}
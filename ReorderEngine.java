@@ -0,0 +1,179 @@
+/**
+ * Raises low-stock and reorder alerts from committed stock changes.
+ * Keeps an exponentially decaying consumption rate per product, updated with a compare-and-set on an
+ * immutable state object, so order threads never block each other and memory stays at one small
+ * object per product that has moved. Alerts carry the projected time until the product runs out.
+ * An alert is raised when a product enters a more urgent state; it is re-armed once the stock recovers.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ReorderEngine implements StockListener {
+    private static final Logger LOGGER = Logger.getLogger(ReorderEngine.class.getName());
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Immutable per-product state; replaced atomically on every change.
+     */
+    private static final class State {
+        private static final State INITIAL = new State(0, 0, Integer.MAX_VALUE, 0, null);
+
+        private final double rate;
+        private final long rateNanos;
+        private final int stock;
+        private final long stockNanos;
+        private final ReorderAlert.Type alerted;
+
+        private State(double rate, long rateNanos, int stock, long stockNanos, ReorderAlert.Type alerted) {
+            this.rate = rate;
+            this.rateNanos = rateNanos;
+            this.stock = stock;
+            this.stockNanos = stockNanos;
+            this.alerted = alerted;
+        }
+    }
+
+    private final int lowStockThreshold;
+    private final Duration leadTime;
+    private final double averagingSeconds;
+    private final Consumer<ReorderAlert> alertSink;
+    private final Map<Integer, AtomicReference<State>> states = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a ReorderEngine.
+     * @param lowStockThreshold Stock at or below which a LOW_STOCK alert is raised.
+     * @param leadTime How long a reorder takes to arrive; a REORDER alert is raised when the projected
+     *                 time to stockout is shorter.
+     * @param averagingWindow The time constant of the consumption rate average.
+     * @param alertSink Receives the alerts, on the thread that committed the stock change.
+     */
+    public ReorderEngine(int lowStockThreshold, Duration leadTime, Duration averagingWindow, Consumer<ReorderAlert> alertSink) {
+        this.lowStockThreshold = lowStockThreshold;
+        this.leadTime = leadTime;
+        this.averagingSeconds = averagingWindow.toNanos() / NANOS_PER_SECOND;
+        this.alertSink = alertSink;
+    }
+
+    @Override
+    public void stockChanged(StockChange change) {
+        AtomicReference<State> ref = states.get(change.productId());
+        if (ref == null) {
+            ref = states.computeIfAbsent(change.productId(), id -> new AtomicReference<>(State.INITIAL));
+        }
+
+        while (true) {
+            State current = ref.get();
+            double rate = decayed(current, change.timestampNanos());
+            long rateNanos = Math.max(current.rateNanos, change.timestampNanos());
+            if (change.delta() < 0) {
+                rate += -change.delta() / averagingSeconds;
+            }
+            boolean newer = change.timestampNanos() >= current.stockNanos;
+            int stock = newer ? change.newStock() : current.stock;
+            long stockNanos = newer ? change.timestampNanos() : current.stockNanos;
+
+            ReorderAlert.Type level = classify(stock, rate);
+            ReorderAlert.Type alerted = level == null ? null
+                    : current.alerted != null && current.alerted.ordinal() > level.ordinal() ? current.alerted : level;
+            State next = new State(rate, rateNanos, stock, stockNanos, alerted);
+            if (ref.compareAndSet(current, next)) {
+                if (level != null && (current.alerted == null || level.ordinal() > current.alerted.ordinal())) {
+                    raise(new ReorderAlert(change.productId(), level, stock, rate, timeToStockout(stock, rate)));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the current consumption rate of a product.
+     * @param productId The ID of the product.
+     * @return The decayed consumption rate in units per second; 0 if the product has not been consumed.
+     */
+    public double consumptionRate(int productId) {
+        AtomicReference<State> ref = states.get(productId);
+        return ref == null ? 0 : decayed(ref.get(), System.nanoTime());
+    }
+
+    /**
+     * Returns the projected time until a product runs out at its current consumption rate.
+     * @param productId The ID of the product.
+     * @return The projected time, or null if the product is not being consumed.
+     */
+    public Duration timeToStockout(int productId) {
+        AtomicReference<State> ref = states.get(productId);
+        if (ref == null) {
+            return null;
+        }
+        State state = ref.get();
+        return timeToStockout(state.stock, decayed(state, System.nanoTime()));
+    }
+
+    /**
+     * Returns the products currently in an alert state, most urgent first.
+     * Scans the in-memory state only; no database access.
+     * @param limit The maximum number of alerts to return.
+     * @return The current alerts.
+     */
+    public List<ReorderAlert> currentAlerts(int limit) {
+        long now = System.nanoTime();
+        List<ReorderAlert> alerts = new ArrayList<>();
+        states.forEach((productId, ref) -> {
+            State state = ref.get();
+            double rate = decayed(state, now);
+            ReorderAlert.Type level = classify(state.stock, rate);
+            if (level != null) {
+                alerts.add(new ReorderAlert(productId, level, state.stock, rate, timeToStockout(state.stock, rate)));
+            }
+        });
+        alerts.sort(Comparator.comparing((ReorderAlert a) -> a.type()).reversed()
+                .thenComparing(a -> a.timeToStockout() == null ? Duration.ofSeconds(Long.MAX_VALUE) : a.timeToStockout()));
+        return alerts.size() > limit ? new ArrayList<>(alerts.subList(0, limit)) : alerts;
+    }
+
+    private double decayed(State state, long nowNanos) {
+        if (state.rate == 0 || nowNanos <= state.rateNanos) {
+            return state.rate;
+        }
+        double elapsedSeconds = (nowNanos - state.rateNanos) / NANOS_PER_SECOND;
+        return state.rate * Math.exp(-elapsedSeconds / averagingSeconds);
+    }
+
+    private ReorderAlert.Type classify(int stock, double rate) {
+        if (stock <= 0) {
+            return ReorderAlert.Type.OUT_OF_STOCK;
+        }
+        if (rate > 0 && stock / rate < leadTime.toNanos() / NANOS_PER_SECOND) {
+            return ReorderAlert.Type.REORDER;
+        }
+        if (stock <= lowStockThreshold) {
+            return ReorderAlert.Type.LOW_STOCK;
+        }
+        return null;
+    }
+
+    private static Duration timeToStockout(int stock, double rate) {
+        if (rate <= 0) {
+            return null;
+        }
+        return Duration.ofNanos((long) (Math.max(stock, 0) / rate * NANOS_PER_SECOND));
+    }
+
+    private void raise(ReorderAlert alert) {
+        try {
+            alertSink.accept(alert);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Reorder alert sink failed for product " + alert.productId(), e);
+        }
+    }
+}
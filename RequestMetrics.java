@@ -0,0 +1,92 @@
+/**
+ * Request counts and latency distributions of the API, per route.
+ * Latencies are recorded into a LatencyHistogram per route; recording is lock-free and allocates nothing, and
+ * memory per route is fixed no matter how many requests are served.
+ */
+package org.example.a3.server;
+
+import org.example.a3.BusinessLogic.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RequestMetrics {
+    /**
+     * Metrics of one route at a point in time. Latencies are in microseconds.
+     * @param route The route, e.g. "GET /clients/{id}".
+     * @param requests The number of completed requests.
+     * @param clientErrors The number of 4xx responses.
+     * @param serverErrors The number of 5xx responses.
+     * @param inFlight The number of requests being handled.
+     * @param meanMicros The mean latency.
+     * @param p50Micros The median latency.
+     * @param p90Micros The 90th percentile latency.
+     * @param p99Micros The 99th percentile latency.
+     * @param maxMicros The highest latency.
+     */
+    public record Snapshot(String route, long requests, long clientErrors, long serverErrors, long inFlight,
+                           long meanMicros, long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+    }
+
+    /**
+     * Counters of one route.
+     */
+    private static final class Route {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Records that a request has started.
+     * @param route The route handling the request.
+     */
+    public void started(String route) {
+        route(route).inFlight.increment();
+    }
+
+    /**
+     * Records a completed request.
+     * @param route The route that handled the request.
+     * @param status The HTTP status of the response.
+     * @param nanos How long the request took, including writing the response.
+     */
+    public void completed(String route, int status, long nanos) {
+        Route r = route(route);
+        r.inFlight.decrement();
+        r.requests.increment();
+        if (status >= 500) {
+            r.serverErrors.increment();
+        } else if (status >= 400) {
+            r.clientErrors.increment();
+        }
+        r.latency.record(nanos / 1_000);
+    }
+
+    /**
+     * Returns the metrics of every route that has seen a request, sorted by route.
+     * @return The snapshots.
+     */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        routes.forEach((name, r) -> {
+            long[] p = r.latency.percentiles(0.50, 0.90, 0.99);
+            snapshots.add(new Snapshot(name, r.requests.sum(), r.clientErrors.sum(), r.serverErrors.sum(),
+                    r.inFlight.sum(), r.latency.mean(), p[0], p[1], p[2], r.latency.max()));
+        });
+        snapshots.sort((a, b) -> a.route().compareTo(b.route()));
+        return snapshots;
+    }
+
+    private Route route(String route) {
+        Route r = routes.get(route);
+        return r != null ? r : routes.computeIfAbsent(route, k -> new Route());
+    }
+}
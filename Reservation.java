@@ -0,0 +1,17 @@
+/**
+ * A temporary hold on product stock, made during checkout before the order is placed.
+ * @param id The ID of the reservation.
+ * @param productId The ID of the held product.
+ * @param quantity The number of units held.
+ * @param expiresAt When the hold is released if it has not been confirmed.
+ * @param orderKey The client order id the confirmed order is stored under; with an inventory ledger it also
+ *                 identifies the ledger's take of the held units.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record Reservation(long id, int productId, int quantity, Instant expiresAt, UUID orderKey) {
+
+}
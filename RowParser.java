@@ -0,0 +1,17 @@
+/**
+ * Builds a model object from one imported row.
+ * @param <T> The type of model object being imported.
+ */
+package org.example.a3.BusinessLogic.importer;
+
+@FunctionalInterface
+public interface RowParser<T> {
+
+    /**
+     * Builds a model object from a row.
+     * @param row The parsed row.
+     * @return The model object.
+     * @throws IllegalArgumentException if the row cannot be converted.
+     */
+    T parse(ImportRow row);
+}
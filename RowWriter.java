@@ -0,0 +1,30 @@
+/**
+ * Encodes the rows of an exported table into its ExportFiles.
+ * Implementations read the columns straight from the ResultSet into reusable buffers, so no
+ * intermediate objects or Strings are created per row except for TEXT columns.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+interface RowWriter {
+
+    /**
+     * Encodes the current row of the result set.
+     */
+    void write(ResultSet resultSet) throws SQLException, IOException;
+
+    /**
+     * Writes everything still buffered and completes the last part file.
+     */
+    void finish() throws IOException;
+
+    static RowWriter of(ExportFormat format, ExportTable table, ExportFiles files) {
+        return switch (format) {
+            case CSV -> new CsvRowWriter(table, files);
+            case COLUMNAR -> new ColumnarRowWriter(table, files);
+        };
+    }
+}
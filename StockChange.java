@@ -0,0 +1,10 @@
+/**
+ * Event describing a committed change of a product's stock.
+ * A negative delta is consumption (an order); a delta of 0 means the stock level was set directly,
+ * e.g. by an operator restocking the product.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+public record StockChange(int productId, int delta, int newStock, long timestampNanos) {
+
+}
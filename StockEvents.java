@@ -0,0 +1,63 @@
+/**
+ * Process-wide publisher of stock changes.
+ * OrderBLL and ProductBLL publish here once their transaction commits, so consumers such as the
+ * ReorderEngine react to stock movements without polling the product table.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+import org.example.a3.connection.TransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class StockEvents {
+    private static final Logger LOGGER = Logger.getLogger(StockEvents.class.getName());
+    private static final List<StockListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StockEvents() {}
+
+    /**
+     * Registers a listener for stock changes.
+     * @param listener The listener to add.
+     */
+    public static void subscribe(StockListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     * @param listener The listener to remove.
+     */
+    public static void unsubscribe(StockListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Publishes a stock change once the current transaction commits (immediately outside of a transaction).
+     * Nothing is published if the transaction rolls back.
+     * @param productId The ID of the product whose stock changed.
+     * @param delta The change in stock; 0 if the stock level was set directly.
+     * @param newStock The stock after the change.
+     */
+    public static void publish(int productId, int delta, int newStock) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        TransactionManager.afterCommit(() -> dispatch(new StockChange(productId, delta, newStock, System.nanoTime())));
+    }
+
+    private static void dispatch(StockChange change) {
+        for (StockListener listener : LISTENERS) {
+            try {
+                listener.stockChanged(change);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Stock listener failed for product " + change.productId(), e);
+            }
+        }
+    }
+}
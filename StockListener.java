@@ -0,0 +1,14 @@
+/**
+ * Receives committed stock changes published through StockEvents.
+ * Listeners run on the thread that committed the change and must return quickly.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+@FunctionalInterface
+public interface StockListener {
+    /**
+     * Called after a stock change has been committed.
+     * @param change The stock change.
+     */
+    void stockChanged(StockChange change);
+}
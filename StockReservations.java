@@ -0,0 +1,270 @@
+/**
+ * Holds product stock for a limited time while a customer checks out.
+ * Without an inventory ledger, active holds are counted per product in memory and checked against the stock
+ * column while the product row is locked (SELECT ... FOR UPDATE). OrderBLL locks the same row before it
+ * subtracts the holds of others from the stock, so a reservation and a concurrent order are serialized on the
+ * row and can never both claim the same units.
+ * With an inventory ledger, a hold is a ledger take under the reservation's order key: the ledger's
+ * compare-and-set counter already excludes it, and confirming the reservation commits that take instead of
+ * taking the stock again. Long holds keep the ledger's journal segments from being deleted until they end.
+ * Expiry is driven by a DelayQueue drained by one daemon thread, which wakes only when the earliest
+ * hold is due instead of periodically scanning every reservation; released and confirmed holds simply
+ * leave the queue when their deadline passes.
+ * Holds live in memory only and are lost when the application stops; the stock they held becomes available again.
+ */
+package org.example.a3.BusinessLogic.inventory;
+
+import org.example.a3.Model.Product;
+import org.example.a3.connection.TransactionException;
+import org.example.a3.connection.TransactionManager;
+import org.example.a3.dao.ProductDAO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class StockReservations {
+    private static final Logger LOGGER = Logger.getLogger(StockReservations.class.getName());
+
+    private static final int HELD = 0;
+    private static final int CLAIMED = 1;
+    private static final int DONE = 2;
+
+    /**
+     * An active hold, queued for expiry. Its status only moves HELD -> CLAIMED -> DONE or HELD -> DONE,
+     * except that a failed confirmation moves it back from CLAIMED to HELD.
+     */
+    private static final class Hold implements Delayed {
+        private final Reservation reservation;
+        private final long deadlineNanos;
+        private final AtomicInteger status = new AtomicInteger(HELD);
+
+        private Hold(Reservation reservation, long deadlineNanos) {
+            this.reservation = reservation;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((Hold) other).deadlineNanos);
+        }
+    }
+
+    private final ProductDAO productDAO;
+    private final InventoryLedger ledger;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicInteger> heldByProduct = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiries = new DelayQueue<>();
+
+    /**
+     * Constructs a StockReservations instance and starts its expiry thread.
+     * Called once by ApplicationContext, which shares the instance with the order workflow.
+     * @param productDAO The DAO used to read and lock the committed stock.
+     * @param ledger The inventory ledger that owns the committed stock, or null to read it from the product table.
+     */
+    public StockReservations(ProductDAO productDAO, InventoryLedger ledger) {
+        this.productDAO = productDAO;
+        this.ledger = ledger;
+        Thread expiryThread = new Thread(this::expireLoop, "stock-reservation-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    /**
+     * Holds stock of a product for a limited time.
+     * Inside an outer transaction the hold becomes active only when that transaction commits.
+     * @param productId The ID of the product.
+     * @param quantity The number of units to hold.
+     * @param ttl How long the hold lasts unless it is confirmed or released.
+     * @return The new reservation.
+     * @throws IllegalArgumentException if the quantity or ttl is not positive, or not enough stock is available.
+     * @throws NoSuchElementException if the product is not found.
+     * @throws TransactionException if the product could not be read and locked.
+     * @throws IllegalStateException if the inventory ledger could not journal the hold.
+     */
+    public Reservation reserve(int productId, int quantity, Duration ttl) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("The reserved quantity must be positive.");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("The reservation time must be positive.");
+        }
+        Reservation reservation = new Reservation(nextId.incrementAndGet(), productId, quantity,
+                Instant.now().plus(ttl), UUID.randomUUID());
+        Hold hold = new Hold(reservation, System.nanoTime() + ttl.toNanos());
+        AtomicInteger held = heldByProduct.computeIfAbsent(productId, id -> new AtomicInteger());
+
+        if (ledger != null) {
+            ledger.take(productId, quantity, reservation.orderKey());
+            held.addAndGet(quantity);
+            TransactionManager.afterRollback(() -> {
+                ledger.abort(reservation.orderKey());
+                held.addAndGet(-quantity);
+            });
+            TransactionManager.afterCommit(() -> activate(hold));
+            return reservation;
+        }
+
+        TransactionManager.inTransaction(() -> {
+            Product product = productDAO.findByIdForUpdate(productId);
+            if (product == null) {
+                if (TransactionManager.isRollbackOnly()) {
+                    throw new TransactionException("Could not lock product with ID " + productId + ".");
+                }
+                throw new NoSuchElementException("Product with ID " + productId + " not found.");
+            }
+            while (true) {
+                int current = held.get();
+                int available = product.getStock() - current;
+                if (available < quantity) {
+                    throw new IllegalArgumentException("Not enough stock available for product: " + product.getName() + ". Available: " + Math.max(0, available) + ", Requested: " + quantity);
+                }
+                if (held.compareAndSet(current, current + quantity)) {
+                    break;
+                }
+            }
+            TransactionManager.afterRollback(() -> held.addAndGet(-quantity));
+            TransactionManager.afterCommit(() -> activate(hold));
+        });
+        return reservation;
+    }
+
+    private void activate(Hold hold) {
+        holds.put(hold.reservation.id(), hold);
+        expiries.add(hold);
+    }
+
+    /**
+     * Releases a reservation before it expires.
+     * @param reservationId The ID of the reservation.
+     * @return true if the hold was released; false if it was unknown, already expired, or is being confirmed.
+     */
+    public boolean release(long reservationId) {
+        Hold hold = holds.get(reservationId);
+        return hold != null && finish(hold, HELD, false);
+    }
+
+    /**
+     * Returns an active reservation.
+     * @param reservationId The ID of the reservation.
+     * @return The reservation, or null if it is unknown, expired, released or confirmed.
+     */
+    public Reservation find(long reservationId) {
+        Hold hold = holds.get(reservationId);
+        return hold == null ? null : hold.reservation;
+    }
+
+    /**
+     * Returns the number of units of a product currently held by reservations.
+     * @param productId The ID of the product.
+     * @return The held quantity.
+     */
+    public int heldQuantity(int productId) {
+        AtomicInteger held = heldByProduct.get(productId);
+        return held == null ? 0 : held.get();
+    }
+
+    /**
+     * Returns the committed stock of a product minus the units held by reservations.
+     * @param productId The ID of the product.
+     * @return The stock still available to new orders and reservations.
+     * @throws NoSuchElementException if the product is not found.
+     */
+    public int availableStock(int productId) {
+        if (ledger != null) {
+            return ledger.available(productId); // held units are already taken from the ledger
+        }
+        Product product = productDAO.findById(productId);
+        if (product == null) {
+            throw new NoSuchElementException("Product with ID " + productId + " not found.");
+        }
+        return Math.max(0, product.getStock() - heldQuantity(productId));
+    }
+
+    /**
+     * Marks a reservation as being confirmed, so it can no longer expire or be released.
+     * The held units stay counted until complete() or unclaim() is called.
+     * @param reservationId The ID of the reservation.
+     * @return The claimed reservation.
+     * @throws NoSuchElementException if the reservation is unknown, expired, released or already being confirmed.
+     */
+    public Reservation claim(long reservationId) {
+        Hold hold = holds.get(reservationId);
+        if (hold == null || !hold.status.compareAndSet(HELD, CLAIMED)) {
+            throw new NoSuchElementException("Reservation " + reservationId + " is no longer active.");
+        }
+        return hold.reservation;
+    }
+
+    /**
+     * Ends a claimed reservation once its order has been committed. The held units now belong to the order,
+     * so with an inventory ledger its take is left for the order to commit.
+     * @param reservationId The ID of the reservation.
+     */
+    public void complete(long reservationId) {
+        Hold hold = holds.get(reservationId);
+        if (hold != null) {
+            finish(hold, CLAIMED, true);
+        }
+    }
+
+    /**
+     * Returns a claimed reservation to the held state after its order failed.
+     * If it expired in the meantime it is released immediately.
+     * @param reservationId The ID of the reservation.
+     */
+    public void unclaim(long reservationId) {
+        Hold hold = holds.get(reservationId);
+        if (hold != null && hold.status.compareAndSet(CLAIMED, HELD) && hold.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+            finish(hold, HELD, false);
+        }
+    }
+
+    /**
+     * Moves a hold from the expected status to DONE and stops counting its units.
+     * Only the caller that wins the compare-and-set decrements the counter. Units that were not ordered
+     * are given back to the inventory ledger.
+     */
+    private boolean finish(Hold hold, int expected, boolean ordered) {
+        if (!hold.status.compareAndSet(expected, DONE)) {
+            return false;
+        }
+        Reservation reservation = hold.reservation;
+        holds.remove(reservation.id(), hold);
+        heldByProduct.get(reservation.productId()).addAndGet(-reservation.quantity());
+        if (ledger != null && !ordered) {
+            ledger.abort(reservation.orderKey());
+        }
+        return true;
+    }
+
+    private void expireLoop() {
+        while (true) {
+            try {
+                Hold hold = expiries.take();
+                if (finish(hold, HELD, false)) {
+                    LOGGER.log(Level.FINE, "Reservation " + hold.reservation.id() + " expired.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
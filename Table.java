@@ -0,0 +1,26 @@
+/**
+ * Maps a model class to a table.
+ * Without this annotation the table name is the lower-cased simple class name.
+ */
+package org.example.a3.dao.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Table {
+    /**
+     * The table name.
+     * @return The unquoted table name.
+     */
+    String value();
+
+    /**
+     * Whether the name must be double-quoted in SQL, e.g. because it is a reserved word like "order".
+     * @return True to quote the table name.
+     */
+    boolean quoted() default false;
+}
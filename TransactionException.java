@@ -0,0 +1,42 @@
+/**
+ * Unchecked exception thrown when a transaction scope cannot be started, committed or rolled back,
+ * or when it was marked rollback-only and therefore did not commit.
+ */
+package org.example.a3.connection;
+
+import java.sql.SQLException;
+
+public class TransactionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new TransactionException with the given message.
+     * @param message The detail message.
+     */
+    public TransactionException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new TransactionException with the given message and cause.
+     * @param message The detail message.
+     * @param cause The underlying cause (usually a SQLException).
+     */
+    public TransactionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Returns the SQLState of the first SQLException in the cause chain, e.g. "23505" for a unique violation
+     * or "40001" for a serialization failure.
+     * @return The SQLState, or null if no SQLException with a state caused this exception.
+     */
+    public String getSQLState() {
+        for (Throwable cause = getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && ((SQLException) cause).getSQLState() != null) {
+                return ((SQLException) cause).getSQLState();
+            }
+        }
+        return null;
+    }
+}
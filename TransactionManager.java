@@ -0,0 +1,370 @@
+/**
+ * Thread-bound transaction scopes spanning several DAOs.
+ * While a scope is active, ConnectionFactory.getConnection() hands out the scope's connection
+ * (wrapped so that close() is a no-op), so every AbstractDAO and BillDAO call made inside the scope
+ * reuses one connection and commits or rolls back together.
+ */
+package org.example.a3.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class TransactionManager {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionManager.class.getName());
+
+    /**
+     * How a new scope relates to a scope that is already active on the current thread.
+     */
+    public enum Propagation {
+        /** Join the active scope, or start a new one if there is none. */
+        REQUIRED,
+        /** Always start a new scope on its own connection, suspending the active one. */
+        REQUIRES_NEW,
+        /** Join the active scope if there is one, otherwise run without a transaction. */
+        SUPPORTS,
+        /** Join the active scope; fail if there is none. */
+        MANDATORY,
+        /** Suspend the active scope and run without a transaction. */
+        NOT_SUPPORTED
+    }
+
+    /**
+     * Transaction isolation levels, mapped onto the JDBC constants.
+     */
+    public enum Isolation {
+        DEFAULT(-1),
+        READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+        REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+        SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+        private final int level;
+
+        Isolation(int level) {
+            this.level = level;
+        }
+
+        /**
+         * Returns the JDBC isolation constant, or -1 to keep the connection default.
+         * @return The JDBC isolation level.
+         */
+        public int getLevel() { return level; }
+    }
+
+    /**
+     * A single scope on the per-thread stack. A scope without a connection represents a suspended transaction.
+     */
+    private static final class Scope {
+        private final Connection connection;
+        private final Connection handle;
+        private final boolean readOnly;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final List<Runnable> afterRollback = new ArrayList<>();
+        private boolean rollbackOnly;
+        private Throwable rollbackCause;
+
+        private Scope(Connection connection, boolean readOnly) {
+            this.connection = connection;
+            this.handle = connection == null ? null : nonClosing(connection);
+            this.readOnly = readOnly;
+        }
+    }
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TransactionManager() {}
+
+    /**
+     * Runs the given work in a REQUIRED, read-write scope with the default isolation level.
+     * @param work The work to execute.
+     * @param <R> The result type.
+     * @return The value returned by the work.
+     */
+    public static <R> R inTransaction(Supplier<R> work) {
+        return inTransaction(Propagation.REQUIRED, Isolation.DEFAULT, false, work);
+    }
+
+    /**
+     * Runs the given work in a REQUIRED, read-write scope with the default isolation level.
+     * @param work The work to execute.
+     */
+    public static void inTransaction(Runnable work) {
+        inTransaction(Propagation.REQUIRED, Isolation.DEFAULT, false, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given work in a transaction scope.
+     * A new scope commits when the work returns normally and rolls back when it throws
+     * or when any participant marked it rollback-only. A joined scope only marks the outer scope
+     * rollback-only on failure; the outermost scope decides.
+     * Isolation and read-only hints apply only when a new physical transaction is started.
+     * @param propagation How to relate to an already active scope.
+     * @param isolation The isolation level for a newly started transaction.
+     * @param readOnly Whether a newly started transaction should be read-only.
+     * @param work The work to execute.
+     * @param <R> The result type.
+     * @return The value returned by the work.
+     * @throws TransactionException if the transaction cannot be started or committed, or was rolled back.
+     * @throws IllegalStateException if MANDATORY propagation is requested outside of a transaction.
+     */
+    public static <R> R inTransaction(Propagation propagation, Isolation isolation, boolean readOnly, Supplier<R> work) {
+        Deque<Scope> scopes = SCOPES.get();
+        Scope current = scopes.peek();
+        boolean active = current != null && current.connection != null;
+
+        switch (propagation) {
+            case REQUIRED:
+                return active ? joined(current, work) : started(scopes, isolation, readOnly, work);
+            case REQUIRES_NEW:
+                return started(scopes, isolation, readOnly, work);
+            case SUPPORTS:
+                return active ? joined(current, work) : work.get();
+            case MANDATORY:
+                if (!active) {
+                    throw new IllegalStateException("No active transaction for MANDATORY propagation.");
+                }
+                return joined(current, work);
+            case NOT_SUPPORTED:
+                scopes.push(new Scope(null, false));
+                try {
+                    return work.get();
+                } finally {
+                    scopes.pop();
+                }
+            default:
+                throw new IllegalArgumentException("Unknown propagation: " + propagation);
+        }
+    }
+
+    /**
+     * Returns true if a transaction is bound to the current thread.
+     * @return Whether a transaction is active.
+     */
+    public static boolean isActive() {
+        Scope current = SCOPES.get().peek();
+        return current != null && current.connection != null;
+    }
+
+    /**
+     * Returns true if the active transaction is read-only.
+     * @return Whether the active transaction is read-only; false outside of a transaction.
+     */
+    public static boolean isReadOnly() {
+        Scope current = SCOPES.get().peek();
+        return current != null && current.connection != null && current.readOnly;
+    }
+
+    /**
+     * Returns true if the active transaction has been marked rollback-only, e.g. because a DAO swallowed
+     * a SQLException. Lets callers tell a database failure apart from a row that simply was not found.
+     * @return Whether the active transaction will roll back; false outside of a transaction.
+     */
+    public static boolean isRollbackOnly() {
+        Scope current = SCOPES.get().peek();
+        return current != null && current.connection != null && current.rollbackOnly;
+    }
+
+    /**
+     * Marks the active transaction so that it rolls back instead of committing.
+     * Does nothing when no transaction is active.
+     * DAOs call this when they swallow a SQLException so that partial work is never committed.
+     */
+    public static void setRollbackOnly() {
+        setRollbackOnly(null);
+    }
+
+    /**
+     * Marks the active transaction so that it rolls back instead of committing, remembering why.
+     * The first cause becomes the cause of the TransactionException thrown at the end of the scope,
+     * so callers can inspect its SQLState. Does nothing when no transaction is active.
+     * @param cause The failure that was swallowed, usually a SQLException; may be null.
+     */
+    public static void setRollbackOnly(Throwable cause) {
+        Scope current = SCOPES.get().peek();
+        if (current != null && current.connection != null) {
+            current.rollbackOnly = true;
+            if (current.rollbackCause == null) {
+                current.rollbackCause = cause;
+            }
+        }
+    }
+
+    /**
+     * Runs the given action once the active transaction has committed, or immediately when no
+     * transaction is active. Actions are dropped if the transaction rolls back, so listeners never
+     * observe changes that did not become durable. Failures of an action are logged and do not affect
+     * the transaction or the other actions.
+     * @param action The action to run after commit.
+     */
+    public static void afterCommit(Runnable action) {
+        Scope current = SCOPES.get().peek();
+        if (current != null && current.connection != null) {
+            current.afterCommit.add(action);
+        } else {
+            runSafely(action);
+        }
+    }
+
+    /**
+     * Runs the given action if the active transaction rolls back, after the rollback.
+     * Does nothing when no transaction is active, since there is nothing to roll back.
+     * Used to undo in-memory side effects of work that did not commit. Failures of an action are logged.
+     * @param action The compensating action.
+     */
+    public static void afterRollback(Runnable action) {
+        Scope current = SCOPES.get().peek();
+        if (current != null && current.connection != null) {
+            current.afterRollback.add(action);
+        }
+    }
+
+    /**
+     * Returns the connection bound to the current scope, or null when no transaction is active.
+     * The returned connection ignores close(), so callers may keep using try-with-resources.
+     * @return The bound connection handle, or null.
+     */
+    static Connection currentConnection() {
+        Scope current = SCOPES.get().peek();
+        return current == null ? null : current.handle;
+    }
+
+    /**
+     * Returns true if the current thread is inside a NOT_SUPPORTED scope that suspended a transaction.
+     * @return Whether a suspended scope is on top of the stack.
+     */
+    static boolean isSuspended() {
+        Scope current = SCOPES.get().peek();
+        return current != null && current.connection == null;
+    }
+
+    private static <R> R joined(Scope scope, Supplier<R> work) {
+        try {
+            return work.get();
+        } catch (RuntimeException | Error e) {
+            scope.rollbackOnly = true;
+            throw e;
+        }
+    }
+
+    private static <R> R started(Deque<Scope> scopes, Isolation isolation, boolean readOnly, Supplier<R> work) {
+        Connection connection = ConnectionFactory.openConnection();
+        if (connection == null) {
+            throw new TransactionException("Could not obtain a connection for the transaction.");
+        }
+
+        int previousIsolation;
+        try {
+            previousIsolation = connection.getTransactionIsolation();
+            connection.setAutoCommit(false);
+            if (isolation.getLevel() != -1) {
+                connection.setTransactionIsolation(isolation.getLevel());
+            }
+            if (readOnly) {
+                connection.setReadOnly(true);
+            }
+        } catch (SQLException e) {
+            ConnectionFactory.release(connection);
+            throw new TransactionException("Could not begin transaction", e);
+        }
+
+        Scope scope = new Scope(connection, readOnly);
+        scopes.push(scope);
+        R result;
+        boolean committed = false;
+        try {
+            try {
+                result = work.get();
+            } catch (RuntimeException | Error e) {
+                rollback(connection);
+                throw e;
+            }
+
+            if (scope.rollbackOnly) {
+                rollback(connection);
+                throw new TransactionException("Transaction was marked rollback-only and has been rolled back.", scope.rollbackCause);
+            }
+            try {
+                connection.commit();
+                committed = true;
+            } catch (SQLException e) {
+                rollback(connection);
+                throw new TransactionException("Commit failed", e);
+            }
+        } finally {
+            scopes.pop();
+            reset(connection, previousIsolation, readOnly);
+            ConnectionFactory.release(connection);
+            if (!committed) {
+                scope.afterRollback.forEach(TransactionManager::runSafely);
+            }
+        }
+        scope.afterCommit.forEach(TransactionManager::runSafely);
+        return result;
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "After-completion action failed", e);
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Rollback failed", e);
+        }
+    }
+
+    private static void reset(Connection connection, int previousIsolation, boolean readOnly) {
+        try {
+            if (readOnly) {
+                connection.setReadOnly(false);
+            }
+            connection.setTransactionIsolation(previousIsolation);
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not reset connection after transaction", e);
+        }
+    }
+
+    /**
+     * Wraps a connection so that close() does nothing; the scope owns the real connection.
+     */
+    private static Connection nonClosing(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return connection.isClosed();
+                default:
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+}
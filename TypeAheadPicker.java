@@ -0,0 +1,180 @@
+/**
+ * Text field that lets the user pick one item by typing part of it.
+ * After a short pause in typing, the search function is called off the event dispatch thread with what was
+ * typed, and its results are offered in a popup list; picking one (click, or arrow keys and Enter) selects it.
+ * Results of a search overtaken by further typing are dropped. Editing the text clears the selection.
+ * @param <T> The type of the items; their toString() is shown in the list and in the field once picked.
+ */
+package org.example.a3.presentation;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class TypeAheadPicker<T> extends JTextField {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(TypeAheadPicker.class.getName());
+    private static final int DELAY_MILLIS = 150;
+    private static final int VISIBLE_ROWS = 10;
+
+    private final BiFunction<String, Integer, List<T>> search;
+    private final int limit;
+    private final DefaultListModel<T> results = new DefaultListModel<>();
+    private final JList<T> list = new JList<>(results);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer timer;
+
+    private T selected;
+    private boolean adjusting;
+    private int searches;
+
+    /**
+     * Constructs a TypeAheadPicker.
+     * @param search Returns at most the given number of items matching the typed text; called off the
+     *               event dispatch thread.
+     * @param limit The maximum number of items offered.
+     */
+    public TypeAheadPicker(BiFunction<String, Integer, List<T>> search, int limit) {
+        this.search = search;
+        this.limit = limit;
+        this.timer = new Timer(DELAY_MILLIS, e -> startSearch());
+        timer.setRepeats(false);
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setVisibleRowCount(VISIBLE_ROWS);
+        list.setFocusable(false);
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(list));
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { textEdited(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { textEdited(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                pick(list.getSelectedValue());
+            }
+        });
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                int index = list.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN -> moveTo(Math.min(index + 1, results.size() - 1));
+                    case KeyEvent.VK_UP -> moveTo(Math.max(index - 1, 0));
+                    case KeyEvent.VK_ENTER -> pick(list.getSelectedValue());
+                    case KeyEvent.VK_ESCAPE -> popup.setVisible(false);
+                    default -> {
+                        return;
+                    }
+                }
+                e.consume();
+            }
+        });
+    }
+
+    /**
+     * Returns the picked item.
+     * @return The picked item, or null if none has been picked since the text was last edited.
+     */
+    public T getSelectedValue() {
+        return selected;
+    }
+
+    /**
+     * Picks an item as if the user had chosen it, or clears the field.
+     * @param item The item to pick, or null.
+     */
+    public void setSelectedValue(T item) {
+        adjusting = true;
+        try {
+            setText(item == null ? "" : item.toString());
+        } finally {
+            adjusting = false;
+        }
+        selected = item;
+        popup.setVisible(false);
+    }
+
+    private void textEdited() {
+        if (adjusting) {
+            return;
+        }
+        selected = null;
+        timer.restart();
+    }
+
+    private void startSearch() {
+        String text = getText();
+        int id = ++searches;
+        if (text.isBlank()) {
+            popup.setVisible(false);
+            return;
+        }
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                return search.apply(text, limit);
+            }
+
+            @Override
+            protected void done() {
+                if (id != searches) {
+                    return; // overtaken by further typing
+                }
+                try {
+                    showResults(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Search for \"" + text + "\" failed", e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    private void showResults(List<T> items) {
+        results.clear();
+        results.addAll(items);
+        if (items.isEmpty() || !isShowing()) {
+            popup.setVisible(false);
+            return;
+        }
+        list.setSelectedIndex(0);
+        popup.setPopupSize(Math.max(getWidth(), list.getPreferredScrollableViewportSize().width + 20),
+                list.getPreferredScrollableViewportSize().height + 6);
+        popup.show(this, 0, getHeight());
+    }
+
+    private void moveTo(int index) {
+        if (index >= 0) {
+            list.setSelectedIndex(index);
+            list.ensureIndexIsVisible(index);
+        }
+    }
+
+    private void pick(T item) {
+        if (item != null) {
+            setSelectedValue(item);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Validates that no other client uses the same email address, ignoring case.
+ * All instances share one KeyFilter over the stored emails.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import org.example.a3.Model.Client;
+import org.example.a3.dao.ClientDAO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class UniqueEmailValidator extends UniqueKeyValidator<Client> {
+    private static final int EXPECTED_CLIENTS = 100_000;
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(10);
+    private static final KeyFilter EMAILS = new KeyFilter(
+            consumer -> new ClientDAO().forEachEmail(consumer), EXPECTED_CLIENTS, REFRESH_INTERVAL);
+
+    private final ClientDAO clientDAO;
+
+    /**
+     * Constructs a UniqueEmailValidator.
+     * @param clientDAO The DAO used to look up stored emails.
+     */
+    public UniqueEmailValidator(ClientDAO clientDAO) {
+        super("Email address", EMAILS);
+        this.clientDAO = clientDAO;
+    }
+
+    @Override
+    protected String keyOf(Client client) {
+        return client.getEmail();
+    }
+
+    @Override
+    protected int idOf(Client client) {
+        return client.getId();
+    }
+
+    @Override
+    protected Map<String, List<Integer>> findIds(Collection<String> keys) {
+        return clientDAO.findIdsByEmails(keys);
+    }
+}
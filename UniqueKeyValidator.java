@@ -0,0 +1,153 @@
+/**
+ * Base class of validators that require a text key, compared case-insensitively, to be unique in a table.
+ * A single object costs at most one indexed query, and none when the KeyFilter shows the key is new.
+ * For a batch, forBatch resolves all keys that may exist with one ANY(array) query and also rejects keys
+ * repeated within the batch itself, so a bulk load needs a single round trip.
+ * Objects without a key are left to the other validators.
+ * @param <T> The type of object being validated.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public abstract class UniqueKeyValidator<T> implements Validator<T> {
+    private final String label;
+    private final KeyFilter filter;
+
+    /**
+     * Constructs a UniqueKeyValidator.
+     * @param label The name of the key used in violation messages, e.g. "Email address".
+     * @param filter The filter over the stored keys.
+     */
+    protected UniqueKeyValidator(String label, KeyFilter filter) {
+        this.label = label;
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the key of an object, as entered.
+     * @param t The object.
+     * @return The key, or null if the object has none.
+     */
+    protected abstract String keyOf(T t);
+
+    /**
+     * Returns the id of an object; 0 for objects that are not stored yet.
+     * @param t The object.
+     * @return The id.
+     */
+    protected abstract int idOf(T t);
+
+    /**
+     * Looks up stored keys with one query.
+     * @param keys The normalized keys to look up.
+     * @return A map from key to the ids of the rows having it; null if the lookup failed.
+     */
+    protected abstract Map<String, List<Integer>> findIds(Collection<String> keys);
+
+    @Override
+    public Cost cost() {
+        return Cost.EXPENSIVE;
+    }
+
+    /**
+     * Validates that the key of the given object is not used by another stored object.
+     * @param t The object to validate.
+     * @throws IllegalArgumentException if the key is already in use or could not be checked.
+     */
+    @Override
+    public void validate(T t) {
+        check(t, message -> {
+            throw new IllegalArgumentException(message);
+        });
+    }
+
+    @Override
+    public void check(T t, Consumer<String> violations) {
+        String key = normalize(keyOf(t));
+        if (key == null || !filter.mightContain(key)) {
+            return;
+        }
+        report(t, key, findIds(Set.of(key)), violations);
+    }
+
+    @Override
+    public Validator<T> forBatch(List<? extends T> batch) {
+        Set<String> candidates = new LinkedHashSet<>();
+        Map<String, T> firstByKey = new HashMap<>();
+        for (T t : batch) {
+            String key = normalize(keyOf(t));
+            if (key != null) {
+                firstByKey.putIfAbsent(key, t);
+                if (filter.mightContain(key)) {
+                    candidates.add(key);
+                }
+            }
+        }
+        Map<String, List<Integer>> stored = findIds(candidates);
+
+        return new Validator<>() {
+            @Override
+            public void validate(T t) {
+                UniqueKeyValidator.this.validate(t);
+            }
+
+            @Override
+            public void check(T t, Consumer<String> violations) {
+                String key = normalize(keyOf(t));
+                if (key == null) {
+                    return;
+                }
+                if (firstByKey.get(key) != t) {
+                    violations.accept(label + " '" + keyOf(t) + "' appears more than once in the batch.");
+                } else if (candidates.contains(key)) {
+                    report(t, key, stored, violations);
+                }
+            }
+        };
+    }
+
+    /**
+     * Records the key of an object that has just been stored, so later checks see it without a reload.
+     * @param t The stored object.
+     */
+    @Override
+    public void stored(T t) {
+        String key = normalize(keyOf(t));
+        if (key != null) {
+            filter.add(key);
+        }
+    }
+
+    private void report(T t, String key, Map<String, List<Integer>> stored, Consumer<String> violations) {
+        if (stored == null) {
+            violations.accept(label + " '" + keyOf(t) + "' could not be checked for uniqueness.");
+            return;
+        }
+        List<Integer> ids = stored.get(key);
+        if (ids == null) {
+            return;
+        }
+        List<Integer> others = new ArrayList<>(ids);
+        others.remove(Integer.valueOf(idOf(t)));
+        if (!others.isEmpty()) {
+            violations.accept(label + " '" + keyOf(t) + "' is already used.");
+        }
+    }
+
+    private static String normalize(String key) {
+        if (key == null) {
+            return null;
+        }
+        String trimmed = key.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
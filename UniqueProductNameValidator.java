@@ -0,0 +1,46 @@
+/**
+ * Validates that no other product has the same name, ignoring case.
+ * All instances share one KeyFilter over the stored names.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import org.example.a3.Model.Product;
+import org.example.a3.dao.ProductDAO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class UniqueProductNameValidator extends UniqueKeyValidator<Product> {
+    private static final int EXPECTED_PRODUCTS = 100_000;
+    private static final Duration REFRESH_INTERVAL = Duration.ofMinutes(10);
+    private static final KeyFilter NAMES = new KeyFilter(
+            consumer -> new ProductDAO().forEachName(consumer), EXPECTED_PRODUCTS, REFRESH_INTERVAL);
+
+    private final ProductDAO productDAO;
+
+    /**
+     * Constructs a UniqueProductNameValidator.
+     * @param productDAO The DAO used to look up stored names.
+     */
+    public UniqueProductNameValidator(ProductDAO productDAO) {
+        super("Product name", NAMES);
+        this.productDAO = productDAO;
+    }
+
+    @Override
+    protected String keyOf(Product product) {
+        return product.getName();
+    }
+
+    @Override
+    protected int idOf(Product product) {
+        return product.getId();
+    }
+
+    @Override
+    protected Map<String, List<Integer>> findIds(Collection<String> keys) {
+        return productDAO.findIdsByNames(keys);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * UTF-8 encoding of single characters into a ByteBuffer, so writers can encode TEXT columns without
+ * allocating a byte array per value.
+ */
+package org.example.a3.BusinessLogic.exporter;
+
+import java.nio.ByteBuffer;
+
+final class Utf8 {
+    /** The most bytes put() writes for one call. */
+    static final int MAX_BYTES_PER_CHAR = 4;
+
+    private Utf8() {
+    }
+
+    /**
+     * Encodes the character at index i, or the surrogate pair starting there, and returns the index of the
+     * next character. The buffer must have at least MAX_BYTES_PER_CHAR bytes remaining.
+     */
+    static int put(ByteBuffer buffer, String s, int i) {
+        char c = s.charAt(i);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            buffer.put((byte) (0xF0 | (cp >> 18)));
+            buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (cp & 0x3F)));
+            return i + 2;
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return i + 1;
+    }
+
+    /**
+     * Returns the encoded length of a string.
+     */
+    static int length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
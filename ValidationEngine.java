@@ -0,0 +1,272 @@
+/**
+ * Runs a set of validators over single objects or whole batches and collects every violation instead of
+ * stopping at the first one.
+ * Validators are ordered by cost (stable within a cost class) and run one cost class at a time; once an
+ * object has failed a validator of one class, the validators of more expensive classes are skipped for it,
+ * so bulk loads do not pay for database checks on rows that are already rejected.
+ * For a batch, each cost class first gets Validator.forBatch with the surviving objects, so set-based
+ * validators can resolve them with one query; the objects are then split with fork-join into ranges
+ * validated in parallel. Every range keeps its own violations and counters, merged when the ranges are joined,
+ * so workers share no state.
+ * @param <T> The type of object being validated.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ValidationEngine<T> {
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private final List<Validator<T>> validators;
+    private final String[] names;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a ValidationEngine that validates batches on the common fork-join pool.
+     * @param validators The validators every object must pass.
+     */
+    public ValidationEngine(List<? extends Validator<T>> validators) {
+        this(validators, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ValidationEngine.
+     * @param validators The validators every object must pass.
+     * @param pool The pool batches are validated on.
+     */
+    public ValidationEngine(List<? extends Validator<T>> validators, ForkJoinPool pool) {
+        List<Validator<T>> ordered = new ArrayList<>(validators);
+        ordered.sort(Comparator.comparing(Validator::cost));
+        this.validators = List.copyOf(ordered);
+        this.names = new String[ordered.size()];
+        for (int i = 0; i < names.length; i++) {
+            Class<?> type = ordered.get(i).getClass();
+            names[i] = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the validators in the order they are run.
+     * @return The validators, cheapest first.
+     */
+    public List<Validator<T>> getValidators() {
+        return validators;
+    }
+
+    /**
+     * Validates one object and returns all of its violations.
+     * @param t The object to validate.
+     * @return The violation messages; empty if the object is valid.
+     */
+    public List<String> check(T t) {
+        List<String> messages = new ArrayList<>(0);
+        Validator.Cost failedCost = null;
+        for (Validator<T> validator : validators) {
+            if (failedCost != null && validator.cost().compareTo(failedCost) > 0) {
+                break;
+            }
+            int before = messages.size();
+            validator.check(t, messages::add);
+            if (messages.size() > before && failedCost == null) {
+                failedCost = validator.cost();
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Validates one object and throws if it has any violation.
+     * @param t The object to validate.
+     * @throws IllegalArgumentException listing every violation of the object.
+     */
+    public void validate(T t) {
+        List<String> messages = check(t);
+        if (!messages.isEmpty()) {
+            throw new IllegalArgumentException(String.join(" ", messages));
+        }
+    }
+
+    /**
+     * Tells every validator that an object which passed validation has been stored.
+     * @param t The stored object.
+     */
+    public void stored(T t) {
+        for (Validator<T> validator : validators) {
+            validator.stored(t);
+        }
+    }
+
+    /**
+     * Validates a batch in parallel.
+     * @param items The objects to validate; must not be modified while the validation runs.
+     * @return The report with every violation and the per-validator timing.
+     */
+    public ValidationReport validateAll(List<? extends T> items) {
+        Partial total = new Partial(validators.size());
+        int[] alive = new int[items.size()];
+        for (int i = 0; i < alive.length; i++) {
+            alive[i] = i;
+        }
+
+        for (int first = 0; first < validators.size(); ) {
+            Validator.Cost cost = validators.get(first).cost();
+            int end = first;
+            while (end < validators.size() && validators.get(end).cost() == cost) {
+                end++;
+            }
+            for (int v = first; v < end; v++) {
+                total.skipped[v] += items.size() - alive.length;
+            }
+
+            if (alive.length > 0) {
+                List<? extends T> batch = subset(items, alive);
+                List<Validator<T>> tier = new ArrayList<>(end - first);
+                for (int v = first; v < end; v++) {
+                    tier.add(validators.get(v).forBatch(batch));
+                }
+                Partial partial = pool.invoke(new Range(items, alive, 0, alive.length, tier, first));
+                total.merge(partial);
+                alive = withoutFailed(alive, partial.failed);
+            }
+            first = end;
+        }
+
+        // ranges and tiers appended in index order per tier; a stable sort interleaves the tiers by object
+        total.violations.sort(Comparator.comparingInt(Violation::index));
+        List<ValidatorStats> stats = new ArrayList<>(validators.size());
+        for (int v = 0; v < validators.size(); v++) {
+            stats.add(new ValidatorStats(names[v], validators.get(v).cost(), total.invocations[v],
+                    total.violationCounts[v], total.skipped[v], Duration.ofNanos(total.nanos[v])));
+        }
+        return new ValidationReport(items.size(), total.failed.cardinality(), List.copyOf(total.violations), stats);
+    }
+
+    private static <E> List<E> subset(List<E> items, int[] indices) {
+        if (indices.length == items.size()) {
+            return items;
+        }
+        return new AbstractList<>() {
+            @Override
+            public E get(int i) {
+                return items.get(indices[i]);
+            }
+
+            @Override
+            public int size() {
+                return indices.length;
+            }
+        };
+    }
+
+    private static int[] withoutFailed(int[] indices, BitSet failed) {
+        int[] remaining = new int[indices.length];
+        int n = 0;
+        for (int index : indices) {
+            if (!failed.get(index)) {
+                remaining[n++] = index;
+            }
+        }
+        return n == indices.length ? indices : Arrays.copyOf(remaining, n);
+    }
+
+    /**
+     * Violations and counters of a contiguous range of a batch.
+     */
+    private static final class Partial {
+        private final List<Violation> violations = new ArrayList<>();
+        private final BitSet failed = new BitSet();
+        private final long[] invocations;
+        private final long[] violationCounts;
+        private final long[] skipped;
+        private final long[] nanos;
+
+        private Partial(int validators) {
+            this.invocations = new long[validators];
+            this.violationCounts = new long[validators];
+            this.skipped = new long[validators];
+            this.nanos = new long[validators];
+        }
+
+        /**
+         * Appends a partial of a range following this one.
+         */
+        private Partial merge(Partial next) {
+            violations.addAll(next.violations);
+            failed.or(next.failed);
+            for (int v = 0; v < invocations.length; v++) {
+                invocations[v] += next.invocations[v];
+                violationCounts[v] += next.violationCounts[v];
+                skipped[v] += next.skipped[v];
+                nanos[v] += next.nanos[v];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Checks the objects at indices[from, to) against the validators of one cost class.
+     */
+    private final class Range extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends T> items;
+        private final int[] indices;
+        private final int from;
+        private final int to;
+        private final List<Validator<T>> tier;
+        private final int firstValidator;
+
+        private Range(List<? extends T> items, int[] indices, int from, int to, List<Validator<T>> tier, int firstValidator) {
+            this.items = items;
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+            this.tier = tier;
+            this.firstValidator = firstValidator;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return validateRange();
+            }
+            int mid = (from + to) >>> 1;
+            Range left = new Range(items, indices, from, mid, tier, firstValidator);
+            left.fork();
+            Partial right = new Range(items, indices, mid, to, tier, firstValidator).compute();
+            return left.join().merge(right);
+        }
+
+        private Partial validateRange() {
+            Partial partial = new Partial(validators.size());
+            for (int i = from; i < to; i++) {
+                int index = indices[i];
+                T item = items.get(index);
+                for (int t = 0; t < tier.size(); t++) {
+                    int v = firstValidator + t;
+                    String name = names[v];
+                    int found = partial.violations.size();
+                    long start = System.nanoTime();
+                    tier.get(t).check(item, message -> partial.violations.add(new Violation(index, name, message)));
+                    partial.nanos[v] += System.nanoTime() - start;
+                    partial.invocations[v]++;
+                    int reported = partial.violations.size() - found;
+                    if (reported > 0) {
+                        partial.violationCounts[v] += reported;
+                        partial.failed.set(index);
+                    }
+                }
+            }
+            return partial;
+        }
+    }
+}
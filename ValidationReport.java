@@ -0,0 +1,45 @@
+/**
+ * Outcome of validating a batch with the ValidationEngine.
+ * @param validated The number of objects validated.
+ * @param invalid The number of objects with at least one violation.
+ * @param violations All violations, ordered by object index and then by validator order.
+ * @param validators Timing and counters per validator, in the order they were run.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record ValidationReport(int validated, int invalid, List<Violation> violations, List<ValidatorStats> validators) {
+
+    /**
+     * Returns true if no object had a violation.
+     * @return Whether the whole batch is valid.
+     */
+    public boolean isValid() {
+        return invalid == 0;
+    }
+
+    /**
+     * Returns the violations of one object.
+     * @param index The position of the object in the validated list.
+     * @return Its violation messages; empty if it is valid.
+     */
+    public List<String> violationsOf(int index) {
+        int low = 0;
+        int high = violations.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (violations.get(mid).index() < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        List<String> messages = new ArrayList<>();
+        for (int i = low; i < violations.size() && violations.get(i).index() == index; i++) {
+            messages.add(violations.get(i).message());
+        }
+        return messages;
+    }
+}
@@ -4,11 +4,67 @@
  */
 package org.example.a3.BusinessLogic.validators;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface Validator<T> {
+
+    /**
+     * How expensive a validator is to run. The ValidationEngine runs cheaper validators first and skips
+     * the more expensive ones for objects that already failed a cheaper one.
+     */
+    enum Cost {
+        /** In-memory checks of the object's own fields. */
+        CHEAP,
+        /** Checks that query the database or another external resource. */
+        EXPENSIVE
+    }
+
     /**
      * Validates the given object.
      * @param t The object to validate.
      * @throws IllegalArgumentException if the object is invalid.
      */
     public void validate(T t);
-}
\ No newline at end of file
+
+    /**
+     * Validates the given object and reports each violation instead of throwing.
+     * The default implementation calls validate and reports the message of its IllegalArgumentException;
+     * validators used in bulk should override it so that invalid objects do not cost an exception.
+     * @param t The object to validate.
+     * @param violations Receives the message of each violation found.
+     */
+    default void check(T t, Consumer<String> violations) {
+        try {
+            validate(t);
+        } catch (IllegalArgumentException e) {
+            violations.accept(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the validator to use for one batch. Called by the ValidationEngine with all objects of a batch
+     * that reached this validator's cost class, before any of them is checked, so validators that need
+     * external data can fetch it for the whole batch at once. The default returns this validator.
+     * @param batch The objects about to be checked.
+     * @return A validator whose check is called for every object of the batch.
+     */
+    default Validator<T> forBatch(List<? extends T> batch) {
+        return this;
+    }
+
+    /**
+     * Called after an object that passed this validator has been stored. The default does nothing.
+     * @param t The stored object.
+     */
+    default void stored(T t) {
+    }
+
+    /**
+     * Returns how expensive this validator is to run.
+     * @return The cost class; CHEAP by default.
+     */
+    default Cost cost() {
+        return Cost.CHEAP;
+    }
+}
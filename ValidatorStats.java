@@ -0,0 +1,24 @@
+/**
+ * Timing and outcome counters of one validator over a batch.
+ * @param validator The class name of the validator.
+ * @param cost The validator's cost class.
+ * @param invocations How many objects it checked.
+ * @param violations How many violations it reported.
+ * @param skipped How many objects it did not check because a cheaper validator had already failed them.
+ * @param totalTime The time spent in the validator, summed over all worker threads.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+import java.time.Duration;
+
+public record ValidatorStats(String validator, Validator.Cost cost, long invocations, long violations,
+                             long skipped, Duration totalTime) {
+
+    /**
+     * Returns the average time of one check.
+     * @return The mean time per invocation in nanoseconds; 0 if the validator was never invoked.
+     */
+    public double meanNanos() {
+        return invocations == 0 ? 0 : (double) totalTime.toNanos() / invocations;
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * A validation failure of one object in a batch.
+ * @param index The position of the object in the validated list.
+ * @param validator The class name of the validator that reported it.
+ * @param message The violation message.
+ */
+package org.example.a3.BusinessLogic.validators;
+
+public record Violation(int index, String validator, String message) {
+
+}
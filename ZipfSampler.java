@@ -0,0 +1,55 @@
+/**
+ * Draws ranks 0..n-1 with Zipf-distributed probabilities: rank r is chosen with a probability proportional to
+ * 1 / (r + 1)^exponent, so a few low ranks get most of the draws.
+ * The cumulative distribution is computed once; each draw is one binary search, allocates nothing and is
+ * safe from any number of threads, each bringing its own random generator.
+ */
+package org.example.a3.BusinessLogic.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public final class ZipfSampler {
+    private final double[] cumulative;
+
+    /**
+     * Constructs a ZipfSampler.
+     * @param n The number of ranks.
+     * @param exponent The skew; 0 draws uniformly, 1 is the classic Zipf distribution, higher is more skewed.
+     * @throws IllegalArgumentException if n is not positive or the exponent is negative.
+     */
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("A Zipf distribution needs at least one rank and a non-negative exponent.");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int r = 0; r < n; r++) {
+            sum += 1 / Math.pow(r + 1, exponent);
+            cumulative[r] = sum;
+        }
+        for (int r = 0; r < n; r++) {
+            cumulative[r] /= sum;
+        }
+        cumulative[n - 1] = 1.0;
+    }
+
+    /**
+     * Draws a rank.
+     * @param random The random generator of the calling thread.
+     * @return A rank between 0 (the most likely) and n - 1.
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the probability of a rank.
+     * @param rank The rank.
+     * @return The probability of drawing it.
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}